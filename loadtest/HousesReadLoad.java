@@ -0,0 +1,160 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Нагрузочный тест чтения домов и персон для сравнения режимов async.mode (sync, platform, virtual)
+ * без внешних инструментов; смесь запросов та же, что в houses-read.js.
+ * Каждый клиент - отдельный поток, отправляющий следующий запрос сразу после получения ответа.
+ * Запуск (JDK 17+): java loadtest/HousesReadLoad.java [baseUrl] [клиенты] [секунды] [секунды прогрева].
+ */
+public class HousesReadLoad {
+
+    private static final Pattern UUID = Pattern.compile("\"uuid\":\"([0-9a-f-]{36})\"");
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        long durationMillis = (args.length > 2 ? Long.parseLong(args[2]) : 60) * 1000;
+        long warmupMillis = (args.length > 3 ? Long.parseLong(args[3]) : 15) * 1000;
+
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        List<String> houses = uuids(http, baseUrl + "/houses?limit=1000");
+        List<String> persons = uuids(http, baseUrl + "/persons?limit=1000");
+
+        long start = System.currentTimeMillis();
+        long measureFrom = start + warmupMillis;
+        long end = measureFrom + durationMillis;
+        Client[] workers = new Client[clients];
+        for (int i = 0; i < clients; i++) {
+            workers[i] = new Client(http, baseUrl, houses, persons, measureFrom, end);
+            workers[i].start();
+        }
+        for (Client worker : workers) {
+            worker.join();
+        }
+
+        long errors = 0;
+        int count = 0;
+        for (Client worker : workers) {
+            errors += worker.errors;
+            count += worker.count;
+        }
+        long[] latencies = new long[count];
+        int position = 0;
+        for (Client worker : workers) {
+            System.arraycopy(worker.latencies, 0, latencies, position, worker.count);
+            position += worker.count;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("clients=%d duration=%ds requests=%d errors=%d throughput=%.1f req/s%n",
+                clients, durationMillis / 1000, count, errors, count * 1000.0 / durationMillis);
+        System.out.printf("latency ms: avg=%.1f p50=%.1f p90=%.1f p99=%.1f max=%.1f%n",
+                Arrays.stream(latencies).average().orElse(0) / 1e6, percentile(latencies, 50),
+                percentile(latencies, 90), percentile(latencies, 99), percentile(latencies, 100));
+    }
+
+    private static List<String> uuids(HttpClient http, String url) throws Exception {
+        String body = http.send(HttpRequest.newBuilder(URI.create(url)).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        List<String> result = new ArrayList<>();
+        Matcher matcher = UUID.matcher(body);
+        while (matcher.find()) {
+            result.add(matcher.group(1));
+        }
+        if (result.isEmpty()) {
+            throw new IllegalStateException("No uuids in " + url);
+        }
+        return result;
+    }
+
+    private static double percentile(long[] sorted, int percent) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percent / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    /**
+     * Клиент с замкнутым циклом запросов. Задержки в наносекундах записываются после окончания прогрева.
+     */
+    private static class Client extends Thread {
+
+        private final HttpClient http;
+        private final String baseUrl;
+        private final List<String> houses;
+        private final List<String> persons;
+        private final long measureFrom;
+        private final long end;
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        Client(HttpClient http, String baseUrl, List<String> houses, List<String> persons,
+               long measureFrom, long end) {
+            this.http = http;
+            this.baseUrl = baseUrl;
+            this.houses = houses;
+            this.persons = persons;
+            this.measureFrom = measureFrom;
+            this.end = end;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long now;
+            while ((now = System.currentTimeMillis()) < end) {
+                boolean measured = now >= measureFrom;
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path(random)))
+                        .timeout(Duration.ofSeconds(60))
+                        .build();
+                long started = System.nanoTime();
+                boolean failed;
+                try {
+                    int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    failed = status < 200 || status >= 300;
+                } catch (Exception e) {
+                    failed = true;
+                }
+                long latency = System.nanoTime() - started;
+                if (measured) {
+                    if (failed) {
+                        errors++;
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = latency;
+                }
+            }
+        }
+
+        private String path(ThreadLocalRandom random) {
+            double roll = random.nextDouble();
+            if (roll < 0.4) {
+                return "/houses/" + houses.get(random.nextInt(houses.size()));
+            }
+            if (roll < 0.7) {
+                return "/persons/" + persons.get(random.nextInt(persons.size()));
+            }
+            if (roll < 0.9) {
+                return "/houses/" + houses.get(random.nextInt(houses.size())) + "/residents";
+            }
+            return "/houses?limit=15";
+        }
+    }
+}
@@ -0,0 +1,56 @@
+// Нагрузочный тест чтения домов и персон для сравнения режимов async.mode (sync, platform, virtual).
+// Запуск: k6 run -e BASE_URL=http://localhost:8080 -e VUS=1000 -e DURATION=2m loadtest/houses-read.js
+import http from 'k6/http';
+import {check} from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = parseInt(__ENV.VUS || '1000', 10);
+const DURATION = __ENV.DURATION || '2m';
+
+export const options = {
+    scenarios: {
+        readers: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                {duration: '30s', target: VUS},
+                {duration: DURATION, target: VUS},
+                {duration: '10s', target: 0},
+            ],
+            gracefulRampDown: '10s',
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(90)', 'p(99)', 'max'],
+};
+
+export function setup() {
+    const houses = http.get(`${BASE_URL}/houses?limit=1000`).json();
+    const persons = http.get(`${BASE_URL}/persons?limit=1000`).json();
+    return {
+        houseUuids: houses.map((house) => house.uuid),
+        personUuids: persons.map((person) => person.uuid),
+    };
+}
+
+function pick(items) {
+    return items[Math.floor(Math.random() * items.length)];
+}
+
+export default function (data) {
+    const roll = Math.random();
+    let response;
+    if (roll < 0.4) {
+        response = http.get(`${BASE_URL}/houses/${pick(data.houseUuids)}`, {tags: {name: 'GET /houses/{uuid}'}});
+    } else if (roll < 0.7) {
+        response = http.get(`${BASE_URL}/persons/${pick(data.personUuids)}`, {tags: {name: 'GET /persons/{uuid}'}});
+    } else if (roll < 0.9) {
+        response = http.get(`${BASE_URL}/houses/${pick(data.houseUuids)}/residents`,
+            {tags: {name: 'GET /houses/{uuid}/residents'}});
+    } else {
+        response = http.get(`${BASE_URL}/houses?limit=15`, {tags: {name: 'GET /houses'}});
+    }
+    check(response, {'status is 2xx': (r) => r.status >= 200 && r.status < 300});
+}
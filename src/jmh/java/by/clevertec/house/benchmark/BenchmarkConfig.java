@@ -0,0 +1,87 @@
+package by.clevertec.house.benchmark;
+
+import by.clevertec.house.config.CacheConfig;
+import by.clevertec.house.config.MetricsConfig;
+import by.clevertec.house.config.PersistenceConfig;
+import by.clevertec.house.config.ValidationConfig;
+import by.clevertec.house.config.YamlPropertySourceFactory;
+import by.clevertec.house.json.JsonMappers;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+
+/**
+ * Конфигурация Spring для бенчмарков.
+ * Поднимает слой DAO и сервисов без Web MVC поверх встроенной базы H2 в режиме совместимости с PostgreSQL.
+ */
+@Configuration
+@Import({PersistenceConfig.class, CacheConfig.class, ValidationConfig.class, MetricsConfig.class})
+@ComponentScan(basePackages = "by.clevertec.house",
+        excludeFilters = @ComponentScan.Filter(type = FilterType.ANNOTATION,
+                classes = {Configuration.class, Controller.class, ControllerAdvice.class}))
+@PropertySource(value = "classpath:application.yml", factory = YamlPropertySourceFactory.class)
+public class BenchmarkConfig {
+
+    private static final String H2_URL = "jdbc:h2:mem:house;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+            + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    /**
+     * Создает транзакционный EntityManager, разделяемый между DAO.
+     *
+     * @param entityManagerFactory фабрика EntityManager.
+     * @return прокси EntityManager, привязанный к текущей транзакции.
+     */
+    @Bean
+    public EntityManager entityManager(EntityManagerFactory entityManagerFactory) {
+        return SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+    }
+
+    /**
+     * Создает ObjectMapper с той же конфигурацией, что и в приложении.
+     *
+     * @return экземпляр ObjectMapper.
+     */
+    @Bean
+    public ObjectMapper objectMapper() {
+        return JsonMappers.create();
+    }
+
+    /**
+     * Запускает контекст приложения поверх пустой базы H2.
+     * Схема создается Hibernate, миграции Flyway не выполняются.
+     *
+     * @return запущенный контекст приложения.
+     */
+    public static AnnotationConfigApplicationContext start() {
+        Map<String, Object> overrides = new HashMap<>();
+        overrides.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        overrides.put("spring.datasource.url", H2_URL);
+        overrides.put("spring.datasource.username", "sa");
+        overrides.put("spring.datasource.password", "");
+        overrides.put("spring.datasource.rewrite-batched-inserts", false);
+        overrides.put("spring.jpa.hibernate.hbm2ddl.auto", "create");
+        overrides.put("spring.jpa.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        overrides.put("flyway.enabled", false);
+        overrides.put("stats.refresh.enabled", false);
+        overrides.put("changes.outbox.enabled", false);
+
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", overrides));
+        context.register(BenchmarkConfig.class);
+        context.refresh();
+        return context;
+    }
+}
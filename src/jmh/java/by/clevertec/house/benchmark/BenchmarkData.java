@@ -0,0 +1,139 @@
+package by.clevertec.house.benchmark;
+
+import by.clevertec.house.dto.HouseRequestDto;
+import by.clevertec.house.dto.HouseResponseDto;
+import by.clevertec.house.dto.PersonRequestDto;
+import by.clevertec.house.dto.PersonResponseDto;
+import by.clevertec.house.entity.House;
+import by.clevertec.house.entity.PassportData;
+import by.clevertec.house.entity.Person;
+import by.clevertec.house.entity.Sex;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Генератор детерминированных тестовых данных для бенчмарков.
+ */
+@UtilityClass
+public class BenchmarkData {
+
+    private static final LocalDateTime CREATE_DATE = LocalDateTime.of(2024, 1, 15, 10, 30, 15, 123_000_000);
+
+    /**
+     * Создает запрос на создание дома с номером i.
+     *
+     * @param i порядковый номер дома.
+     * @return DTO запроса.
+     */
+    public static HouseRequestDto houseRequest(int i) {
+        HouseRequestDto dto = new HouseRequestDto();
+        dto.setArea(50.0 + i % 200);
+        dto.setCountry("Country " + i % 20);
+        dto.setCity("City " + i % 100);
+        dto.setStreet("Street " + i % 1000);
+        dto.setNumber(String.valueOf(i));
+        return dto;
+    }
+
+    /**
+     * Создает запрос на создание персоны с номером i, проживающей в указанном доме.
+     * Номер паспорта уникален для каждого i.
+     *
+     * @param i         порядковый номер персоны.
+     * @param houseUuid UUID дома проживания.
+     * @return DTO запроса.
+     */
+    public static PersonRequestDto personRequest(int i, UUID houseUuid) {
+        PersonRequestDto.PassportDataDto passport = new PersonRequestDto.PassportDataDto();
+        passport.setPassportSeries("AB");
+        passport.setPassportNumber(String.format("%07d", i));
+
+        PersonRequestDto dto = new PersonRequestDto();
+        dto.setName("Name " + i % 500);
+        dto.setSurname("Surname " + i);
+        dto.setSex(i % 2 == 0 ? Sex.MALE : Sex.FEMALE);
+        dto.setPassportData(passport);
+        dto.setHouseUuid(houseUuid);
+        dto.setOwnedHouseUuids(new ArrayList<>());
+        return dto;
+    }
+
+    /**
+     * Создает сущность дома с заполненными полями без сохранения в базе.
+     *
+     * @param i порядковый номер дома.
+     * @return сущность дома.
+     */
+    public static House house(int i) {
+        House house = new House();
+        house.setId((long) i);
+        house.setUuid(UUID.nameUUIDFromBytes(("house-" + i).getBytes()));
+        house.setArea(50.0 + i % 200);
+        house.setCountry("Country " + i % 20);
+        house.setCity("City " + i % 100);
+        house.setStreet("Street " + i % 1000);
+        house.setNumber(String.valueOf(i));
+        house.setCreateDate(CREATE_DATE);
+        return house;
+    }
+
+    /**
+     * Создает сущность персоны с заполненными полями без сохранения в базе.
+     *
+     * @param i     порядковый номер персоны.
+     * @param house дом проживания.
+     * @return сущность персоны.
+     */
+    public static Person person(int i, House house) {
+        PassportData passport = new PassportData();
+        passport.setPassportSeries("AB");
+        passport.setPassportNumber(String.format("%07d", i));
+
+        Person person = new Person();
+        person.setId((long) i);
+        person.setUuid(UUID.nameUUIDFromBytes(("person-" + i).getBytes()));
+        person.setName("Name " + i % 500);
+        person.setSurname("Surname " + i);
+        person.setSex(i % 2 == 0 ? Sex.MALE : Sex.FEMALE);
+        person.setPassportData(passport);
+        person.setCreateDate(CREATE_DATE);
+        person.setUpdateDate(CREATE_DATE);
+        person.setHouse(house);
+        return person;
+    }
+
+    /**
+     * Создает страницу DTO домов заданного размера.
+     *
+     * @param size размер страницы.
+     * @return список DTO домов.
+     */
+    public static List<HouseResponseDto> housePage(int size) {
+        return IntStream.range(0, size)
+                .mapToObj(BenchmarkData::house)
+                .map(house -> new HouseResponseDto(house.getUuid(), house.getArea(), house.getCountry(),
+                        house.getCity(), house.getStreet(), house.getNumber(), house.getCreateDate()))
+                .toList();
+    }
+
+    /**
+     * Создает страницу DTO персон заданного размера.
+     *
+     * @param size размер страницы.
+     * @return список DTO персон.
+     */
+    public static List<PersonResponseDto> personPage(int size) {
+        House house = house(0);
+        return IntStream.range(0, size)
+                .mapToObj(i -> person(i, house))
+                .map(person -> new PersonResponseDto(person.getUuid(), person.getName(), person.getSurname(),
+                        person.getSex(), person.getPassportData().getPassportSeries(),
+                        person.getPassportData().getPassportNumber(), person.getCreateDate(),
+                        person.getUpdateDate()))
+                .toList();
+    }
+}
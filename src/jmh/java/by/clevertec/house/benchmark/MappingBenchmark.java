@@ -0,0 +1,62 @@
+package by.clevertec.house.benchmark;
+
+import by.clevertec.house.dto.HouseRequestDto;
+import by.clevertec.house.dto.HouseResponseDto;
+import by.clevertec.house.dto.PersonResponseDto;
+import by.clevertec.house.entity.House;
+import by.clevertec.house.entity.Person;
+import by.clevertec.house.mapper.HouseMapper;
+import by.clevertec.house.mapper.PersonMapper;
+import java.util.concurrent.TimeUnit;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Бенчмарк преобразования сущностей в DTO и обратно сгенерированными мапперами MapStruct.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    private final HouseMapper houseMapper = Mappers.getMapper(HouseMapper.class);
+    private final PersonMapper personMapper = Mappers.getMapper(PersonMapper.class);
+
+    private House house;
+    private Person person;
+    private HouseRequestDto houseRequest;
+
+    @Setup
+    public void setUp() {
+        house = BenchmarkData.house(1);
+        person = BenchmarkData.person(1, house);
+        houseRequest = BenchmarkData.houseRequest(1);
+    }
+
+    @Benchmark
+    public HouseResponseDto houseToDto() {
+        return houseMapper.toDto(house);
+    }
+
+    @Benchmark
+    public PersonResponseDto personToDto() {
+        return personMapper.toDto(person);
+    }
+
+    @Benchmark
+    public House houseToEntity() {
+        return houseMapper.toEntity(houseRequest);
+    }
+}
@@ -0,0 +1,206 @@
+package by.clevertec.house.benchmark;
+
+import by.clevertec.house.dto.HouseResponseDto;
+import by.clevertec.house.dto.PersonResponseDto;
+import by.clevertec.house.entity.House;
+import by.clevertec.house.entity.PassportData;
+import by.clevertec.house.entity.Person;
+import by.clevertec.house.entity.Sex;
+import by.clevertec.house.mapper.HouseMapper;
+import by.clevertec.house.mapper.PersonMapper;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import lombok.Data;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Бенчмарк сериализации страниц DTO в JSON.
+ * Сравнивает ObjectMapper приложения (сериализаторы DTO без отражения, даты без промежуточных строк)
+ * с прежним путем: сериализация по отражению и форматирование каждой даты в новую строку через DateTimeFormatter.
+ * Бенчмарки *Mapped измеряют ответ целиком, от страницы сущностей до байтов JSON: маппер MapStruct и ObjectMapper
+ * приложения против прежних DTO со строковыми датами, которые форматировал маппер, и сериализации по отражению.
+ * Выделение памяти на страницу выводит профилировщик gc (gc.alloc.rate.norm, байт на операцию).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"15", "100", "1000"})
+    private int pageSize;
+
+    private final ObjectMapper objectMapper = new BenchmarkConfig().objectMapper();
+    private final ObjectMapper reflectionMapper = new ObjectMapper()
+            .registerModule(new SimpleModule().addSerializer(LocalDateTime.class, new FormatterSerializer()));
+    private final ObjectMapper legacyMapper = new ObjectMapper();
+    private final HouseMapper houseMapper = Mappers.getMapper(HouseMapper.class);
+    private final PersonMapper personMapper = Mappers.getMapper(PersonMapper.class);
+
+    private List<HouseResponseDto> houses;
+    private List<PersonResponseDto> persons;
+    private List<House> houseEntities;
+    private List<Person> personEntities;
+
+    @Setup
+    public void setUp() {
+        houses = BenchmarkData.housePage(pageSize);
+        persons = BenchmarkData.personPage(pageSize);
+        houseEntities = IntStream.range(0, pageSize).mapToObj(BenchmarkData::house).toList();
+        House house = BenchmarkData.house(0);
+        personEntities = IntStream.range(0, pageSize).mapToObj(i -> BenchmarkData.person(i, house)).toList();
+    }
+
+    @Benchmark
+    public byte[] housePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(houses);
+    }
+
+    @Benchmark
+    public byte[] personPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(persons);
+    }
+
+    @Benchmark
+    public byte[] housePageReflection() throws JsonProcessingException {
+        return reflectionMapper.writeValueAsBytes(houses);
+    }
+
+    @Benchmark
+    public byte[] personPageReflection() throws JsonProcessingException {
+        return reflectionMapper.writeValueAsBytes(persons);
+    }
+
+    @Benchmark
+    public byte[] housePageMapped() throws JsonProcessingException {
+        List<HouseResponseDto> page = new ArrayList<>(houseEntities.size());
+        for (House house : houseEntities) {
+            page.add(houseMapper.toDto(house));
+        }
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] personPageMapped() throws JsonProcessingException {
+        List<PersonResponseDto> page = new ArrayList<>(personEntities.size());
+        for (Person person : personEntities) {
+            page.add(personMapper.toDto(person));
+        }
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] housePageMappedLegacy() throws JsonProcessingException {
+        List<LegacyHouseDto> page = new ArrayList<>(houseEntities.size());
+        for (House house : houseEntities) {
+            page.add(LegacyHouseDto.of(house));
+        }
+        return legacyMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] personPageMappedLegacy() throws JsonProcessingException {
+        List<LegacyPersonDto> page = new ArrayList<>(personEntities.size());
+        for (Person person : personEntities) {
+            page.add(LegacyPersonDto.of(person));
+        }
+        return legacyMapper.writeValueAsBytes(page);
+    }
+
+    /**
+     * Прежнее форматирование дат: строка DateTimeFormatter.ISO_DATE_TIME на каждое значение.
+     */
+    private static class FormatterSerializer extends StdSerializer<LocalDateTime> {
+
+        FormatterSerializer() {
+            super(LocalDateTime.class);
+        }
+
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeString(value.format(DateTimeFormatter.ISO_DATE_TIME));
+        }
+    }
+
+    /**
+     * Прежний DTO дома: дата создания - строка, отформатированная маппером, поля сериализуются по отражению.
+     * Метод of повторяет код, который MapStruct генерировал для прежнего HouseMapper.toDto.
+     */
+    @Data
+    public static class LegacyHouseDto {
+
+        private UUID uuid;
+        private double area;
+        private String country;
+        private String city;
+        private String street;
+        private String number;
+        private String createDate;
+
+        static LegacyHouseDto of(House entity) {
+            LegacyHouseDto dto = new LegacyHouseDto();
+            dto.setUuid(entity.getUuid());
+            dto.setArea(entity.getArea());
+            dto.setCountry(entity.getCountry());
+            dto.setCity(entity.getCity());
+            dto.setStreet(entity.getStreet());
+            dto.setNumber(entity.getNumber());
+            dto.setCreateDate(entity.getCreateDate().format(DateTimeFormatter.ISO_DATE_TIME));
+            return dto;
+        }
+    }
+
+    /**
+     * Прежний DTO персоны: даты - строки, отформатированные маппером, поля сериализуются по отражению.
+     * Метод of повторяет код, который MapStruct генерировал для прежнего PersonMapper.toDto.
+     */
+    @Data
+    public static class LegacyPersonDto {
+
+        private UUID uuid;
+        private String name;
+        private String surname;
+        private Sex sex;
+        private PassportData passportData;
+        private String createDate;
+        private String updateDate;
+
+        static LegacyPersonDto of(Person entity) {
+            LegacyPersonDto dto = new LegacyPersonDto();
+            dto.setUuid(entity.getUuid());
+            dto.setName(entity.getName());
+            dto.setSurname(entity.getSurname());
+            dto.setSex(entity.getSex());
+            dto.setPassportData(entity.getPassportData());
+            dto.setCreateDate(entity.getCreateDate().format(DateTimeFormatter.ISO_DATE_TIME));
+            dto.setUpdateDate(entity.getUpdateDate().format(DateTimeFormatter.ISO_DATE_TIME));
+            return dto;
+        }
+    }
+}
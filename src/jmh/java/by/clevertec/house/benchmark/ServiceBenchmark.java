@@ -0,0 +1,125 @@
+package by.clevertec.house.benchmark;
+
+import by.clevertec.house.dto.CursorPageDto;
+import by.clevertec.house.dto.HouseRequestDto;
+import by.clevertec.house.dto.HouseResponseDto;
+import by.clevertec.house.dto.PersonRequestDto;
+import by.clevertec.house.dto.PersonResponseDto;
+import by.clevertec.house.service.HouseService;
+import by.clevertec.house.service.PersonService;
+import by.clevertec.house.util.Constant.CountMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Сквозной бенчмарк сервисов поверх встроенной базы H2.
+ * Объем данных задается параметрами houses и persons, например {@code -p houses=10000 -p persons=50000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    private static final int SEED_CHUNK_SIZE = 1000;
+
+    @Param({"1000"})
+    private int houses;
+
+    @Param({"5000"})
+    private int persons;
+
+    @Param({"15"})
+    private int pageSize;
+
+    private AnnotationConfigApplicationContext context;
+    private HouseService houseService;
+    private PersonService personService;
+    private List<UUID> houseUuids;
+    private List<UUID> personUuids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkConfig.start();
+        houseService = context.getBean(HouseService.class);
+        personService = context.getBean(PersonService.class);
+
+        houseUuids = new ArrayList<>(houses);
+        List<HouseRequestDto> houseChunk = new ArrayList<>(SEED_CHUNK_SIZE);
+        for (int i = 0; i < houses; i++) {
+            HouseRequestDto dto = BenchmarkData.houseRequest(i);
+            houseUuids.add(dto.getUuid());
+            houseChunk.add(dto);
+            if (houseChunk.size() == SEED_CHUNK_SIZE || i == houses - 1) {
+                houseService.saveHouses(houseChunk);
+                houseChunk.clear();
+            }
+        }
+
+        personUuids = new ArrayList<>(persons);
+        List<PersonRequestDto> personChunk = new ArrayList<>(SEED_CHUNK_SIZE);
+        for (int i = 0; i < persons; i++) {
+            PersonRequestDto dto = BenchmarkData.personRequest(i, houseUuids.get(i % houses));
+            personUuids.add(dto.getUuid());
+            personChunk.add(dto);
+            if (personChunk.size() == SEED_CHUNK_SIZE || i == persons - 1) {
+                personService.savePersons(personChunk);
+                personChunk.clear();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public HouseResponseDto getHouseByUuid() {
+        return houseService.getHouseByUuid(randomOf(houseUuids));
+    }
+
+    @Benchmark
+    public PersonResponseDto getPersonByUuid() {
+        return personService.getPersonByUuid(randomOf(personUuids));
+    }
+
+    @Benchmark
+    public CursorPageDto<HouseResponseDto> getHousesOffsetPage() {
+        int pages = Math.max(1, houses / pageSize);
+        return houseService.getAllHouses(ThreadLocalRandom.current().nextInt(pages) + 1, pageSize, CountMode.NONE);
+    }
+
+    @Benchmark
+    public CursorPageDto<HouseResponseDto> getHousesFirstCursorPage() {
+        return houseService.getHousesPage(null, pageSize, CountMode.NONE);
+    }
+
+    @Benchmark
+    public CursorPageDto<PersonResponseDto> getResidents() {
+        return houseService.getResidents(randomOf(houseUuids), null, null, pageSize);
+    }
+
+    private static UUID randomOf(List<UUID> uuids) {
+        return uuids.get(ThreadLocalRandom.current().nextInt(uuids.size()));
+    }
+}
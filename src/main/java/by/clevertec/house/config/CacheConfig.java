@@ -0,0 +1,87 @@
+package by.clevertec.house.config;
+
+import by.clevertec.house.entity.House;
+import by.clevertec.house.entity.Person;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурационный класс для второго уровня кэша Hibernate.
+ * Создает менеджер JCache на основе Caffeine с ограниченными по размеру и времени жизни регионами
+ * для сущностей House и Person и их естественных идентификаторов (UUID).
+ */
+@Configuration
+public class CacheConfig {
+
+    @Value("${cache.house.maximum-size:10000}")
+    private long houseMaximumSize;
+
+    @Value("${cache.house.expire-after-write:600}")
+    private long houseExpireAfterWrite;
+
+    @Value("${cache.house.expire-after-access:0}")
+    private long houseExpireAfterAccess;
+
+    @Value("${cache.person.maximum-size:50000}")
+    private long personMaximumSize;
+
+    @Value("${cache.person.expire-after-write:600}")
+    private long personExpireAfterWrite;
+
+    @Value("${cache.person.expire-after-access:0}")
+    private long personExpireAfterAccess;
+
+    /**
+     * Создает менеджер JCache и регионы кэша.
+     *
+     * @return Настроенный экземпляр CacheManager.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager jcacheManager() {
+        CacheManager cacheManager = Caching
+                .getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+
+        CaffeineConfiguration<Object, Object> house =
+                regionConfiguration(houseMaximumSize, houseExpireAfterWrite, houseExpireAfterAccess);
+        cacheManager.createCache(House.CACHE_REGION, house);
+        cacheManager.createCache(House.NATURAL_ID_CACHE_REGION, house);
+
+        CaffeineConfiguration<Object, Object> person =
+                regionConfiguration(personMaximumSize, personExpireAfterWrite, personExpireAfterAccess);
+        cacheManager.createCache(Person.CACHE_REGION, person);
+        cacheManager.createCache(Person.NATURAL_ID_CACHE_REGION, person);
+
+        return cacheManager;
+    }
+
+    /**
+     * Создает конфигурацию региона кэша.
+     *
+     * @param maximumSize       максимальное количество элементов, при превышении которого элементы вытесняются.
+     * @param expireAfterWrite  время жизни элемента после записи в секундах, 0 - без ограничения.
+     * @param expireAfterAccess время жизни элемента после последнего обращения в секундах, 0 - без ограничения.
+     * @return Конфигурация региона.
+     */
+    private static CaffeineConfiguration<Object, Object> regionConfiguration(long maximumSize,
+                                                                             long expireAfterWrite,
+                                                                             long expireAfterAccess) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        if (expireAfterWrite > 0) {
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(expireAfterWrite)));
+        }
+        if (expireAfterAccess > 0) {
+            configuration.setExpireAfterAccess(OptionalLong.of(TimeUnit.SECONDS.toNanos(expireAfterAccess)));
+        }
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
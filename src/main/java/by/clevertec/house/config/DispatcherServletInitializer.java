@@ -37,4 +37,16 @@ public class DispatcherServletInitializer extends AbstractAnnotationConfigDispat
     protected String[] getServletMappings() {
         return new String[]{"/"};
     }
+
+    /**
+     * Включает асинхронную обработку запросов для DispatcherServlet и фильтров.
+     * Необходима для потоковых ответов и для выполнения обработчиков контроллеров вне потока контейнера
+     * в режимах platform и virtual параметра async.mode.
+     *
+     * @return true.
+     */
+    @Override
+    protected boolean isAsyncSupported() {
+        return true;
+    }
 }
@@ -1,5 +1,6 @@
 package by.clevertec.house.config;
 
+import java.util.Map;
 import org.flywaydb.core.Flyway;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -26,6 +27,8 @@ public class FlywayConfig {
 
     /**
      * Создает и настраивает экземпляр Flyway.
+     * Блокировка истории миграций берется сессионной advisory-блокировкой, а не в открытой транзакции:
+     * иначе CREATE INDEX CONCURRENTLY в миграциях без транзакции бесконечно ждет соединение самого Flyway.
      *
      * @return Настроенный экземпляр Flyway или null, если Flyway отключен.
      */
@@ -38,6 +41,7 @@ public class FlywayConfig {
         Flyway flyway = Flyway.configure()
                 .dataSource(url, username, password)
                 .baselineVersion("0")
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
                 .load();
         flyway.baseline();
         flyway.migrate();
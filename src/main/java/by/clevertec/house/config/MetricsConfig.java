@@ -0,0 +1,74 @@
+package by.clevertec.house.config;
+
+import by.clevertec.house.datasource.ReplicaSet;
+import by.clevertec.house.metrics.ConnectionPoolMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ClassLoaderMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmGcMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmMemoryMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmThreadMetrics;
+import io.micrometer.core.instrument.binder.system.ProcessorMetrics;
+import io.micrometer.core.instrument.binder.system.UptimeMetrics;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.HibernateMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурационный класс для метрик приложения.
+ * Создает реестр Micrometer в формате Prometheus и регистрирует в нем метрики JVM,
+ * статистику Hibernate, метрики пулов соединений и маршрутизации на реплики.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class MetricsConfig {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ConnectionPoolMetrics connectionPoolMetrics;
+    private final ReplicaSet replicaSet;
+
+    @Value("${metrics.application:house}")
+    private String application;
+
+    /**
+     * Создает реестр метрик Prometheus.
+     * Статистика Hibernate публикуется, только если включен параметр cache.statistics.
+     *
+     * @return Настроенный экземпляр PrometheusMeterRegistry.
+     */
+    @Bean
+    public PrometheusMeterRegistry meterRegistry() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        registry.config().commonTags("application", application);
+
+        new ClassLoaderMetrics().bindTo(registry);
+        new JvmMemoryMetrics().bindTo(registry);
+        new JvmThreadMetrics().bindTo(registry);
+        new ProcessorMetrics().bindTo(registry);
+        new UptimeMetrics().bindTo(registry);
+        connectionPoolMetrics.bindTo(registry);
+        replicaSet.bindTo(registry);
+        new HibernateMetrics(entityManagerFactory.unwrap(SessionFactory.class), application, Tags.empty())
+                .bindTo(registry);
+        return registry;
+    }
+
+    /**
+     * Создает метрики сборщика мусора. Слушатели событий GC снимаются при закрытии контекста.
+     *
+     * @param meterRegistry реестр метрик.
+     * @return Экземпляр JvmGcMetrics.
+     */
+    @Bean(destroyMethod = "close")
+    public JvmGcMetrics jvmGcMetrics(MeterRegistry meterRegistry) {
+        JvmGcMetrics gcMetrics = new JvmGcMetrics();
+        gcMetrics.bindTo(meterRegistry);
+        return gcMetrics;
+    }
+}
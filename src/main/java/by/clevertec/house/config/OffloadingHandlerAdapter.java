@@ -0,0 +1,62 @@
+package by.clevertec.house.config;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Адаптер обработчиков, выполняющий методы контроллеров на исполнителе асинхронной обработки
+ * (режимы platform и virtual параметра async.mode). Вызов метода оборачивается в Callable,
+ * поэтому контроллеры возвращают обычные типы, а в режиме sync используется стандартный адаптер
+ * и запрос целиком обрабатывается в потоке контейнера. Обработчики, которые сами возвращают
+ * асинхронный или потоковый результат, вызываются в потоке контейнера.
+ */
+class OffloadingHandlerAdapter extends RequestMappingHandlerAdapter {
+
+    private static final List<Class<?>> ASYNC_TYPES = List.of(Callable.class, WebAsyncTask.class,
+            DeferredResult.class, CompletionStage.class, ResponseBodyEmitter.class, StreamingResponseBody.class);
+
+    @Override
+    protected ServletInvocableHandlerMethod createInvocableHandlerMethod(HandlerMethod handlerMethod) {
+        if (isAsync(handlerMethod.getReturnType())) {
+            return super.createInvocableHandlerMethod(handlerMethod);
+        }
+        return new OffloadedHandlerMethod(handlerMethod);
+    }
+
+    private static boolean isAsync(MethodParameter returnType) {
+        Class<?> type = returnType.getParameterType();
+        if (HttpEntity.class.isAssignableFrom(type)) {
+            type = ResolvableType.forMethodParameter(returnType).getGeneric().resolve(Object.class);
+        }
+        Class<?> resultType = type;
+        return ASYNC_TYPES.stream().anyMatch(asyncType -> asyncType.isAssignableFrom(resultType));
+    }
+
+    /**
+     * Метод контроллера, вызов которого возвращает Callable. Обработчик возвращаемого значения
+     * выбирается по фактическому типу результата и запускает Callable на исполнителе; результат
+     * обрабатывается при повторной диспетчеризации запроса, как у метода, объявленного с Callable.
+     */
+    private static class OffloadedHandlerMethod extends ServletInvocableHandlerMethod {
+
+        OffloadedHandlerMethod(HandlerMethod handlerMethod) {
+            super(handlerMethod);
+        }
+
+        @Override
+        protected Object doInvoke(Object... args) {
+            return (Callable<Object>) () -> super.doInvoke(args);
+        }
+    }
+}
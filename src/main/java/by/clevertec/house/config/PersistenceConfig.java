@@ -1,13 +1,26 @@
 package by.clevertec.house.config;
 
+import by.clevertec.house.datasource.ReadOnlyRoutingDataSource;
+import by.clevertec.house.datasource.Replica;
+import by.clevertec.house.datasource.ReplicaSelection;
+import by.clevertec.house.datasource.ReplicaSet;
+import by.clevertec.house.datasource.ReplicaTransactionManager;
+import by.clevertec.house.metrics.ConnectionPoolMetrics;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Properties;
+import javax.cache.CacheManager;
 import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
-import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.orm.jpa.JpaVendorAdapter;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
@@ -20,8 +33,11 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
  */
 @Configuration
 @EnableTransactionManagement
+@RequiredArgsConstructor
 public class PersistenceConfig {
 
+    private final CacheManager jcacheManager;
+
     @Value("${spring.datasource.driver-class-name}")
     private String driverClassName;
 
@@ -34,12 +50,66 @@ public class PersistenceConfig {
     @Value("${spring.datasource.password}")
     private String password;
 
+    @Value("${spring.datasource.rewrite-batched-inserts:true}")
+    private boolean rewriteBatchedInserts;
+
+    @Value("${spring.datasource.pool.name:house-pool}")
+    private String poolName;
+
+    @Value("${spring.datasource.pool.minimum-idle:5}")
+    private int minimumIdle;
+
+    @Value("${spring.datasource.pool.maximum-pool-size:20}")
+    private int maximumPoolSize;
+
+    @Value("${spring.datasource.pool.connection-timeout:30000}")
+    private long connectionTimeout;
+
+    @Value("${spring.datasource.pool.idle-timeout:600000}")
+    private long idleTimeout;
+
+    @Value("${spring.datasource.pool.max-lifetime:1800000}")
+    private long maxLifetime;
+
+    @Value("${spring.datasource.pool.leak-detection-threshold:0}")
+    private long leakDetectionThreshold;
+
+    @Value("${spring.datasource.replicas.urls:}")
+    private String replicaUrls;
+
+    @Value("${spring.datasource.replicas.selection:round-robin}")
+    private String replicaSelection;
+
+    @Value("${spring.datasource.replicas.maximum-pool-size:20}")
+    private int replicaMaximumPoolSize;
+
+    @Value("${spring.datasource.replicas.max-lag:10}")
+    private double replicaMaxLag;
+
+    @Value("${spring.datasource.replicas.lag-check-interval:5000}")
+    private long replicaLagCheckInterval;
+
     @Value("${spring.jpa.hibernate.hbm2ddl.auto}")
     private String hbm2ddlAuto;
 
     @Value("${spring.jpa.hibernate.dialect}")
     private String dialect;
 
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int jdbcBatchSize;
+
+    @Value("${spring.jpa.properties.hibernate.order_inserts:true}")
+    private boolean orderInserts;
+
+    @Value("${spring.jpa.properties.hibernate.order_updates:true}")
+    private boolean orderUpdates;
+
+    @Value("${cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${cache.statistics:true}")
+    private boolean cacheStatistics;
+
     /**
      * Создает и настраивает EntityManagerFactory.
      *
@@ -61,31 +131,101 @@ public class PersistenceConfig {
 
     /**
      * Создает и настраивает PlatformTransactionManager.
+     * Менеджер выбирает для каждой транзакции основную базу или реплику; запросы вызывающего,
+     * недавно изменившего данные, читают с основной базы.
      *
      * @param emf Экземпляр EntityManagerFactory.
      * @return Настроенный экземпляр PlatformTransactionManager.
      */
     @Bean
     public PlatformTransactionManager transactionManager(EntityManagerFactory emf) {
-        JpaTransactionManager transactionManager = new JpaTransactionManager();
+        ReplicaTransactionManager transactionManager = new ReplicaTransactionManager(replicaSet(),
+                ReadYourWritesInterceptor::isPrimaryRequired);
         transactionManager.setEntityManagerFactory(emf);
 
         return transactionManager;
     }
 
     /**
-     * Создает и настраивает DataSource.
+     * Создает сборщик статистики пулов соединений.
      *
-     * @return Настроенный экземпляр DataSource.
+     * @return Экземпляр ConnectionPoolMetrics.
      */
     @Bean
+    public ConnectionPoolMetrics connectionPoolMetrics() {
+        return new ConnectionPoolMetrics();
+    }
+
+    /**
+     * Создает DataSource приложения.
+     * Если реплики не заданы, используется пул основной базы. Иначе соединения направляются на цель,
+     * выбранную менеджером транзакций; получение соединения откладывается до первого запроса,
+     * когда цель транзакции уже выбрана.
+     *
+     * @return Настроенный экземпляр DataSource.
+     */
+    @Bean(destroyMethod = "")
+    @Primary
     public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName(driverClassName);
-        dataSource.setUrl(url);
-        dataSource.setUsername(username);
-        dataSource.setPassword(password);
-        return dataSource;
+        ReplicaSet replicas = replicaSet();
+        if (replicas.isEmpty()) {
+            return primaryDataSource();
+        }
+        return new LazyConnectionDataSourceProxy(new ReadOnlyRoutingDataSource(primaryDataSource(), replicas));
+    }
+
+    /**
+     * Создает и настраивает пул соединений HikariCP основной базы.
+     * Параметры пула задаются в application.yml в секции spring.datasource.pool.
+     *
+     * @return Настроенный экземпляр HikariDataSource.
+     */
+    @Bean(destroyMethod = "close")
+    public HikariDataSource primaryDataSource() {
+        HikariConfig config = hikariConfig(poolName, url, maximumPoolSize);
+        config.setMinimumIdle(minimumIdle);
+        config.setLeakDetectionThreshold(leakDetectionThreshold);
+        config.addDataSourceProperty("reWriteBatchedInserts", rewriteBatchedInserts);
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * Создает пулы соединений реплик и запускает проверку их отставания.
+     * Реплики задаются в application.yml списком URL через запятую в spring.datasource.replicas.urls.
+     *
+     * @return Набор реплик, возможно пустой.
+     */
+    @Bean(destroyMethod = "close")
+    public ReplicaSet replicaSet() {
+        List<String> urls = Arrays.stream(replicaUrls.split(","))
+                .map(String::trim)
+                .filter(replicaUrl -> !replicaUrl.isEmpty())
+                .toList();
+        List<Replica> replicas = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            String name = "replica-" + i;
+            HikariConfig config = hikariConfig(name, urls.get(i), replicaMaximumPoolSize);
+            config.setReadOnly(true);
+            replicas.add(new Replica(name, new HikariDataSource(config)));
+        }
+        ReplicaSet replicaSet = new ReplicaSet(replicas, ReplicaSelection.of(replicaSelection), replicaMaxLag);
+        replicaSet.startLagMonitor(replicaLagCheckInterval);
+        return replicaSet;
+    }
+
+    private HikariConfig hikariConfig(String name, String jdbcUrl, int maxPoolSize) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setDriverClassName(driverClassName);
+        config.setJdbcUrl(jdbcUrl);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setMaximumPoolSize(maxPoolSize);
+        config.setConnectionTimeout(connectionTimeout);
+        config.setIdleTimeout(idleTimeout);
+        config.setMaxLifetime(maxLifetime);
+        config.setMetricsTrackerFactory(connectionPoolMetrics());
+        return config;
     }
 
     /**
@@ -97,6 +237,18 @@ public class PersistenceConfig {
         Properties properties = new Properties();
         properties.setProperty("hibernate.hbm2ddl.auto", hbm2ddlAuto);
         properties.setProperty("hibernate.dialect", dialect);
+        properties.setProperty("hibernate.jdbc.batch_size", String.valueOf(jdbcBatchSize));
+        properties.setProperty("hibernate.order_inserts", String.valueOf(orderInserts));
+        properties.setProperty("hibernate.order_updates", String.valueOf(orderUpdates));
+        properties.setProperty("hibernate.query.in_clause_parameter_padding", "true");
+        properties.setProperty("hibernate.generate_statistics", String.valueOf(cacheStatistics));
+        properties.setProperty("hibernate.cache.use_second_level_cache", String.valueOf(cacheEnabled));
+        if (cacheEnabled) {
+            properties.setProperty("jakarta.persistence.sharedCache.mode", "ENABLE_SELECTIVE");
+            properties.setProperty("hibernate.cache.region.factory_class", "jcache");
+            properties.put("hibernate.javax.cache.cache_manager", jcacheManager);
+            properties.setProperty("hibernate.javax.cache.missing_cache_strategy", "create-warn");
+        }
         return properties;
     }
 }
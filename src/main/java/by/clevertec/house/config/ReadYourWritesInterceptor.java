@@ -0,0 +1,60 @@
+package by.clevertec.house.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.Arrays;
+import java.util.Set;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Перехватчик, направляющий чтения вызывающего на основную базу, пока реплики могут не содержать его изменений.
+ * Запрос, изменяющий данные, получает cookie со сроком жизни, равным допустимому отставанию реплик
+ * и интервалу его проверки; запросы с этой cookie, как и сам изменяющий запрос, читают с основной базы.
+ * Признак хранится в атрибутах запроса, поэтому доступен и в потоке исполнителя обработчиков.
+ */
+class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    static final String COOKIE = "read-primary";
+
+    private static final String PRIMARY_ATTRIBUTE = ReadYourWritesInterceptor.class.getName() + ".primary";
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final int windowSeconds;
+
+    ReadYourWritesInterceptor(int windowSeconds) {
+        this.windowSeconds = windowSeconds;
+    }
+
+    /**
+     * Проверяет, нужно ли текущему запросу читать с основной базы.
+     *
+     * @return true, если запрос изменяет данные или пришел вскоре после изменяющего запроса того же клиента.
+     */
+    static boolean isPrimaryRequired() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null
+                && attributes.getAttribute(PRIMARY_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(PRIMARY_ATTRIBUTE) != null) {
+            return true;
+        }
+        if (!SAFE_METHODS.contains(request.getMethod())) {
+            request.setAttribute(PRIMARY_ATTRIBUTE, Boolean.TRUE);
+            Cookie cookie = new Cookie(COOKIE, "1");
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge(windowSeconds);
+            response.addCookie(cookie);
+        } else if (request.getCookies() != null
+                && Arrays.stream(request.getCookies()).anyMatch(cookie -> COOKIE.equals(cookie.getName()))) {
+            request.setAttribute(PRIMARY_ATTRIBUTE, Boolean.TRUE);
+        }
+        return true;
+    }
+}
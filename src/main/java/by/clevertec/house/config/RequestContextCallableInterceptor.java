@@ -0,0 +1,39 @@
+package by.clevertec.house.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.concurrent.Callable;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+/**
+ * Привязывает атрибуты текущего запроса к потоку исполнителя на время выполнения Callable,
+ * чтобы обработчики могли использовать RequestContextHolder (например, ServletUriComponentsBuilder.fromCurrentRequest).
+ */
+class RequestContextCallableInterceptor implements CallableProcessingInterceptor {
+
+    private static final String BOUND_ATTRIBUTE = RequestContextCallableInterceptor.class.getName() + ".bound";
+
+    /**
+     * Привязывает атрибуты запроса, если поток еще не связан с запросом.
+     */
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        if (RequestContextHolder.getRequestAttributes() == null) {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(
+                    request.getNativeRequest(HttpServletRequest.class),
+                    request.getNativeResponse(HttpServletResponse.class)));
+            request.setAttribute(BOUND_ATTRIBUTE, Boolean.TRUE, NativeWebRequest.SCOPE_REQUEST);
+        }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        if (request.getAttribute(BOUND_ATTRIBUTE, NativeWebRequest.SCOPE_REQUEST) != null) {
+            request.removeAttribute(BOUND_ATTRIBUTE, NativeWebRequest.SCOPE_REQUEST);
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+}
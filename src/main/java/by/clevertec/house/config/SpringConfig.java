@@ -1,28 +1,61 @@
 package by.clevertec.house.config;
 
+import by.clevertec.house.datasource.ReplicaSet;
+import by.clevertec.house.json.JsonMappers;
+import by.clevertec.house.metrics.RequestTimingInterceptor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.PropertySource;
-import org.springframework.web.servlet.config.annotation.EnableWebMvc;
-import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.DelegatingWebMvcConfiguration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
 
 /**
  * Конфигурационный класс Spring.
  * Включает в себя настройки Web MVC, сканирование компонентов и свойства приложения.
+ * Наследует DelegatingWebMvcConfiguration вместо @EnableWebMvc, чтобы задать адаптер обработчиков.
  */
 @Configuration
-@EnableWebMvc
 @ComponentScan("by.clevertec.house")
 @PropertySource(value = "classpath:application.yml", factory = YamlPropertySourceFactory.class)
 @RequiredArgsConstructor
-public class SpringConfig implements WebMvcConfigurer {
+public class SpringConfig extends DelegatingWebMvcConfiguration {
 
     private final EntityManagerFactory entityManagerFactory;
+    private final RequestTimingInterceptor requestTimingInterceptor;
+    private final ReplicaSet replicaSet;
+
+    @Value("${spring.datasource.replicas.max-lag:10}")
+    private double replicaMaxLag;
+
+    @Value("${spring.datasource.replicas.lag-check-interval:5000}")
+    private long replicaLagCheckInterval;
+
+    @Value("${async.mode:sync}")
+    private String asyncMode;
+
+    @Value("${async.timeout:30000}")
+    private long asyncTimeout;
+
+    @Value("${async.pool-size:200}")
+    private int asyncPoolSize;
+
+    @Value("${async.concurrency-limit:-1}")
+    private int asyncConcurrencyLimit;
 
     /**
      * Создает и возвращает экземпляр EntityManager.
@@ -35,13 +68,103 @@ public class SpringConfig implements WebMvcConfigurer {
     }
 
     /**
-     * Создает и возвращает экземпляр ObjectMapper.
+     * Создает общий ObjectMapper приложения с сериализаторами DTO ответов.
      *
      * @return экземпляр ObjectMapper.
      */
     @Bean
     public ObjectMapper objectMapper() {
-        return new ObjectMapper();
+        return JsonMappers.create();
+    }
+
+    /**
+     * Создает исполнитель обработчиков контроллеров и потоковых ответов для режимов async.mode:
+     * virtual - отдельный виртуальный поток на запрос (требуется JDK 21+), platform - пул платформенных потоков.
+     * В режиме sync исполнитель не создается.
+     *
+     * @return Исполнитель обработчиков.
+     */
+    @Bean
+    @Lazy
+    public AsyncTaskExecutor handlerExecutor() {
+        if ("virtual".equals(asyncMode)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("handler-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(asyncConcurrencyLimit);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("handler-");
+        executor.setCorePoolSize(asyncPoolSize);
+        executor.setMaxPoolSize(asyncPoolSize);
+        return executor;
+    }
+
+    /**
+     * Создает адаптер обработчиков: в режимах platform и virtual методы контроллеров выполняются
+     * на исполнителе обработчиков, в режиме sync - в потоке контейнера без асинхронной обработки.
+     *
+     * @return Адаптер обработчиков.
+     */
+    @Override
+    protected RequestMappingHandlerAdapter createRequestMappingHandlerAdapter() {
+        return isOffloaded() ? new OffloadingHandlerAdapter() : super.createRequestMappingHandlerAdapter();
+    }
+
+    /**
+     * Настраивает асинхронную обработку запросов. В режимах platform и virtual регистрирует исполнитель
+     * обработчиков и привязку контекста запроса к его потокам; в режиме sync асинхронно обрабатываются
+     * только потоковые ответы, на исполнителе Spring MVC по умолчанию.
+     *
+     * @param configurer настройщик асинхронной обработки.
+     */
+    @Override
+    protected void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        super.configureAsyncSupport(configurer);
+        configurer.setDefaultTimeout(asyncTimeout);
+        if (isOffloaded()) {
+            configurer.setTaskExecutor(handlerExecutor());
+            configurer.registerCallableInterceptors(new RequestContextCallableInterceptor());
+        }
+    }
+
+    private boolean isOffloaded() {
+        return switch (asyncMode) {
+            case "sync" -> false;
+            case "platform", "virtual" -> true;
+            default -> throw new IllegalArgumentException("Unknown async.mode: " + asyncMode);
+        };
+    }
+
+    /**
+     * Заменяет ObjectMapper стандартного конвертера JSON Spring MVC общим ObjectMapper приложения,
+     * чтобы ответы контроллеров сериализовались теми же сериализаторами, что и потоковая выгрузка.
+     *
+     * @param converters конвертеры сообщений, зарегистрированные по умолчанию.
+     */
+    @Override
+    protected void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        super.extendMessageConverters(converters);
+        converters.replaceAll(converter -> converter instanceof MappingJackson2HttpMessageConverter
+                ? new MappingJackson2HttpMessageConverter(objectMapper())
+                : converter);
+    }
+
+    /**
+     * Регистрирует перехватчик, измеряющий время обработки запросов, и, если заданы реплики,
+     * перехватчик, направляющий чтения после изменений вызывающего на основную базу. Чтения идут на основную базу
+     * в течение допустимого отставания реплик и интервала его проверки.
+     *
+     * @param registry реестр перехватчиков.
+     */
+    @Override
+    protected void addInterceptors(InterceptorRegistry registry) {
+        super.addInterceptors(registry);
+        registry.addInterceptor(requestTimingInterceptor);
+        if (!replicaSet.isEmpty()) {
+            int windowSeconds = (int) Math.ceil(replicaMaxLag + replicaLagCheckInterval / 1000.0);
+            registry.addInterceptor(new ReadYourWritesInterceptor(windowSeconds));
+        }
     }
 
 }
@@ -0,0 +1,62 @@
+package by.clevertec.house.controller;
+
+import by.clevertec.house.dto.ChangeEventDto;
+import by.clevertec.house.service.ChangeEventService;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Контроллер ленты изменений домов и персон.
+ * Позиция чтения ленты - номер последнего полученного события.
+ */
+@RestController
+@RequestMapping("/changes")
+@RequiredArgsConstructor
+public class ChangeController {
+
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private final ChangeEventService changeEventService;
+    private final ChangeStream changeStream;
+
+    /**
+     * Получает события с номером больше since.
+     *
+     * @param since номер последнего полученного события (0 для чтения с начала).
+     * @param limit максимальное количество событий.
+     * @return ResponseEntity со списком событий в порядке номеров.
+     */
+    @GetMapping
+    public ResponseEntity<List<ChangeEventDto>> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(changeEventService.getChanges(since, limit));
+    }
+
+    /**
+     * Подписывает клиента на ленту изменений в формате Server-Sent Events.
+     * Каждое событие передается с идентификатором, равным его номеру, поэтому при переподключении
+     * браузер или клиент продолжает чтение с заголовком Last-Event-ID. Без заголовка и параметра since
+     * передаются только события, записанные после подписки.
+     *
+     * @param since       номер последнего полученного события.
+     * @param lastEventId номер последнего события, полученного до переподключения.
+     * @return SseEmitter подписки.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = LAST_EVENT_ID, required = false) Long lastEventId) {
+        long position = lastEventId != null ? lastEventId
+                : since != null ? since : changeEventService.getLastSequence();
+        return changeStream.subscribe(position);
+    }
+}
@@ -0,0 +1,259 @@
+package by.clevertec.house.controller;
+
+import by.clevertec.house.dto.ChangeEventDto;
+import by.clevertec.house.service.ChangeEventService;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Рассылка ленты изменений подписчикам Server-Sent Events.
+ * Фоновый поток опроса один раз за шаг читает новые события пакетами по batch-size и раскладывает их
+ * в ограниченные очереди подписчиков, догнавших ленту. Отправка выполняется пулом sender-threads потоков,
+ * поэтому медленный клиент не задерживает опрос и других подписчиков; подписчик, очередь которого
+ * переполнилась, отключается и переподключается с Last-Event-ID. Подписчик, начавший с более ранней позиции,
+ * сначала догоняет ленту собственными запросами в потоке отправки. Потоки запускаются при первой подписке.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class ChangeStream implements DisposableBean {
+
+    private static final String EVENT_NAME = "change";
+
+    private final ChangeEventService changeEventService;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Object fanOutLock = new Object();
+    private ScheduledExecutorService poller;
+    private ExecutorService sender;
+
+    /**
+     * Номер последнего события, разложенного по очередям; -1, пока опрос не прочитал границу ленты.
+     * Изменяется под fanOutLock вместе с раскладкой событий.
+     */
+    private long tail = -1;
+
+    @Value("${changes.stream.poll-interval:500}")
+    private long pollIntervalMillis;
+
+    @Value("${changes.stream.batch-size:500}")
+    private int batchSize;
+
+    @Value("${changes.stream.timeout:600000}")
+    private long timeoutMillis;
+
+    @Value("${changes.stream.heartbeat-interval:15000}")
+    private long heartbeatIntervalMillis;
+
+    @Value("${changes.stream.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${changes.stream.sender-threads:4}")
+    private int senderThreads;
+
+    /**
+     * Подписывает клиента на события с номером больше заданного.
+     *
+     * @param since номер последнего полученного клиентом события.
+     * @return SseEmitter подписки.
+     */
+    SseEmitter subscribe(long since) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, since);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        startPoller();
+        return emitter;
+    }
+
+    private synchronized void startPoller() {
+        if (poller == null) {
+            poller = Executors.newSingleThreadScheduledExecutor(daemonThreads("change-stream-poller"));
+            sender = Executors.newFixedThreadPool(senderThreads, daemonThreads("change-stream-sender"));
+            poller.scheduleWithFixedDelay(this::poll, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger number = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + number.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Читает новые события один раз для всех подписчиков, раскладывает их по очередям
+     * и планирует отправку. Ошибка чтения записывается в журнал, чтение повторяется на следующем шаге.
+     */
+    void poll() {
+        if (subscribers.isEmpty()) {
+            synchronized (fanOutLock) {
+                tail = -1;
+            }
+            return;
+        }
+        try {
+            long last = changeEventService.getLastSequence();
+            if (tail < 0) {
+                synchronized (fanOutLock) {
+                    tail = last;
+                }
+            }
+            while (tail < last) {
+                List<ChangeEventDto> events = changeEventService.getChanges(tail, batchSize);
+                if (events.isEmpty()) {
+                    break;
+                }
+                synchronized (fanOutLock) {
+                    tail = events.get(events.size() - 1).getSequence();
+                    subscribers.forEach(subscriber -> subscriber.offer(events));
+                }
+                if (events.size() < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to poll change events", e);
+        }
+        subscribers.forEach(Subscriber::schedule);
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (poller != null) {
+            poller.shutdownNow();
+            sender.shutdownNow();
+        }
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    /**
+     * Подписчик: позиция последнего отправленного события и очередь событий, разложенных опросом.
+     * Пока подписчик не догнал ленту, очередь не заполняется, а события читаются в потоке отправки.
+     * Отправка одного подписчика выполняется не более чем одной задачей одновременно.
+     */
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Deque<ChangeEventDto> queue = new ArrayDeque<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile long position;
+        private boolean live;
+        private boolean overflowed;
+        private long lastSentMillis = System.currentTimeMillis();
+
+        Subscriber(SseEmitter emitter, long position) {
+            this.emitter = emitter;
+            this.position = position;
+        }
+
+        /**
+         * Добавляет события в очередь догнавшего ленту подписчика. Вызывается под fanOutLock.
+         * При переполнении очередь очищается, а подписка завершается при следующей отправке.
+         *
+         * @param events события в порядке номеров.
+         */
+        void offer(List<ChangeEventDto> events) {
+            if (!live || overflowed) {
+                return;
+            }
+            if (queue.size() + events.size() > queueCapacity) {
+                overflowed = true;
+                queue.clear();
+                return;
+            }
+            queue.addAll(events);
+        }
+
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::send);
+                } catch (RuntimeException e) {
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        /**
+         * Отправляет подписчику накопленные события; если отправлять нечего дольше heartbeat-interval,
+         * отправляет комментарий, чтобы обнаружить закрытое соединение.
+         */
+        private void send() {
+            try {
+                catchUp();
+                List<ChangeEventDto> events;
+                synchronized (fanOutLock) {
+                    if (overflowed) {
+                        throw new IllegalStateException("Change stream subscriber queue overflow");
+                    }
+                    events = new ArrayList<>(queue);
+                    queue.clear();
+                }
+                sendAll(events);
+                if (System.currentTimeMillis() - lastSentMillis >= heartbeatIntervalMillis) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                    lastSentMillis = System.currentTimeMillis();
+                }
+            } catch (IOException | RuntimeException e) {
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+            } finally {
+                scheduled.set(false);
+            }
+        }
+
+        /**
+         * Догоняет ленту запросами с позиции подписчика, пока его позиция не достигнет номера,
+         * до которого опрос уже разложил события; после этого подписчик получает события из очереди.
+         */
+        private void catchUp() throws IOException {
+            while (!live) {
+                List<ChangeEventDto> events = changeEventService.getChanges(position, batchSize);
+                sendAll(events);
+                synchronized (fanOutLock) {
+                    live = tail >= 0 && position >= tail;
+                }
+                if (events.size() < batchSize) {
+                    return;
+                }
+            }
+        }
+
+        private void sendAll(List<ChangeEventDto> events) throws IOException {
+            for (ChangeEventDto event : events) {
+                if (event.getSequence() <= position) {
+                    continue;
+                }
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(event.getSequence()))
+                        .name(EVENT_NAME)
+                        .data(event, MediaType.APPLICATION_JSON));
+                position = event.getSequence();
+                lastSentMillis = System.currentTimeMillis();
+            }
+        }
+    }
+}
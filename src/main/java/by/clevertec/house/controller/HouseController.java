@@ -1,15 +1,24 @@
 package by.clevertec.house.controller;
 
+import by.clevertec.house.dto.BatchResultDto;
+import by.clevertec.house.dto.CursorPageDto;
+import by.clevertec.house.dto.EntityVersionDto;
+import by.clevertec.house.dto.HouseFilterDto;
 import by.clevertec.house.dto.HouseRequestDto;
 import by.clevertec.house.dto.HouseResponseDto;
+import by.clevertec.house.dto.HouseStatsResponseDto;
+import by.clevertec.house.dto.MultiGetResultDto;
 import by.clevertec.house.dto.PersonResponseDto;
 import by.clevertec.house.service.HouseService;
+import by.clevertec.house.service.HouseStatsService;
 import jakarta.validation.Valid;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,9 +27,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * Контроллер для работы с домами.
@@ -32,32 +44,95 @@ import org.springframework.web.bind.annotation.RestController;
 public class HouseController {
 
     private final HouseService houseService;
+    private final HouseStatsService houseStatsService;
 
     /**
      * Получает информацию о доме по его UUID.
+     * Ответ содержит заголовки ETag (версия дома) и Last-Modified. Если заголовки If-None-Match
+     * или If-Modified-Since совпадают с текущей версией, возвращается 304 без тела.
+     * Дом и версия читаются одной операцией, как правило из кэша второго уровня; DTO строится только для ответа 200.
      *
-     * @param uuid UUID дома.
-     * @return ResponseEntity с информацией о доме.
+     * @param uuid    UUID дома.
+     * @param request текущий запрос.
+     * @return ResponseEntity с информацией о доме или null, если ответ 304 уже сформирован.
      */
     @GetMapping("/{uuid}")
-    public ResponseEntity<HouseResponseDto> getHouseByUuid(@PathVariable UUID uuid) {
-        HouseResponseDto house = houseService.getHouseByUuid(uuid);
-        return ResponseEntity.ok(house);
+    public ResponseEntity<HouseResponseDto> getHouseByUuid(@PathVariable UUID uuid, WebRequest request) {
+        return houseService.getHouseByUuidIfModified(uuid,
+                        version -> request.checkNotModified(version.eTag(), version.lastModified()))
+                .map(ResponseEntity::ok)
+                .orElse(null);
+    }
+
+    /**
+     * Получает сводную статистику домов по странам или городам: количество домов, общую и среднюю площадь,
+     * количество жильцов и владельцев. Статистика читается из сводной таблицы, которая пересчитывается
+     * в фоне по затронутым городам не позднее stats.refresh.interval после изменения домов и персон.
+     *
+     * @param groupBy группировка: country или city.
+     * @return ResponseEntity со списком статистики.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<List<HouseStatsResponseDto>> getHouseStats(
+            @RequestParam(defaultValue = "country") String groupBy) {
+        return ResponseEntity.ok(houseStatsService.getStats(groupBy));
     }
 
     /**
      * Получает список всех домов с пагинацией.
+     * Если передан фильтр (country, city, street, areaFrom, areaTo, createdFrom, createdTo)
+     * или сортировка sort (id, area, country, city, createDate), список выбирается по курсору с фильтром и сортировкой.
+     * Если передан курсор after или размер страницы limit, используется выборка по курсору:
+     * курсор следующей страницы возвращается в заголовках Link и X-Next-Cursor.
+     * Иначе используется постраничная выборка по номеру страницы.
+     * Общее количество записей, удовлетворяющих фильтру, возвращается в заголовке X-Total-Count:
+     * count=exact - точное количество, кэшируемое на несколько секунд, если фильтр не задает границ диапазонов,
+     * count=approximate - оценка по статистике PostgreSQL для списка без фильтра, count=none - без подсчета.
+     * Страница и количество читаются одним вызовом сервиса в одной транзакции.
      *
      * @param pageNumber номер страницы.
      * @param pageSize   размер страницы.
+     * @param after      курсор последней записи предыдущей страницы.
+     * @param limit      размер страницы при выборке по курсору.
+     * @param sort       поле и направление сортировки, например "createDate,desc".
+     * @param count      режим подсчета общего количества: exact, approximate или none.
+     * @param filter     фильтр из параметров запроса.
      * @return ResponseEntity со списком домов.
      */
     @GetMapping
     public ResponseEntity<List<HouseResponseDto>> getAllHouses(
             @RequestParam(defaultValue = "1") int pageNumber,
-            @RequestParam(defaultValue = "15") int pageSize) {
-        List<HouseResponseDto> houses = houseService.getAllHouses(pageNumber, pageSize);
-        return ResponseEntity.ok(houses);
+            @RequestParam(defaultValue = "15") int pageSize,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "exact") String count,
+            HouseFilterDto filter) {
+        if (sort != null || !filter.isEmpty()) {
+            int cursorLimit = limit != null ? limit : pageSize;
+            CursorPageDto<HouseResponseDto> page = houseService.findHouses(filter, sort, after, cursorLimit, count);
+            return PagingHeaders.ok(page, cursorLimit);
+        }
+        if (after != null || limit != null) {
+            int cursorLimit = limit != null ? limit : pageSize;
+            CursorPageDto<HouseResponseDto> page = houseService.getHousesPage(after, cursorLimit, count);
+            return PagingHeaders.ok(page, cursorLimit);
+        }
+        return PagingHeaders.ok(houseService.getAllHouses(pageNumber, pageSize, count), pageSize);
+    }
+
+    /**
+     * Выгружает все дома в формате NDJSON.
+     * Ответ формируется потоково из серверного курсора, поэтому потребление памяти не зависит от размера таблицы.
+     *
+     * @return ResponseEntity с потоком DTO домов, по одному JSON-объекту на строку.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportHouses() {
+        StreamingResponseBody body = houseService::exportHouses;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     /**
@@ -72,6 +147,30 @@ public class HouseController {
         return new ResponseEntity<>(HttpStatus.CREATED);
     }
 
+    /**
+     * Получает дома по списку UUID одним запросом вместо отдельного GET на каждый UUID.
+     *
+     * @param uuids список UUID домов.
+     * @return ResponseEntity с найденными домами и списком отсутствующих UUID.
+     */
+    @PostMapping("/_mget")
+    public ResponseEntity<MultiGetResultDto<HouseResponseDto>> getHousesByUuids(
+            @RequestBody List<UUID> uuids) {
+        return ResponseEntity.ok(houseService.getHousesByUuids(uuids));
+    }
+
+    /**
+     * Сохраняет пакет новых домов.
+     * Элементы с ошибками не прерывают обработку пакета и возвращаются в списке ошибок с их индексом.
+     *
+     * @param houses список DTO с информацией о домах.
+     * @return ResponseEntity с результатом пакетного сохранения и кодом статуса CREATED.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResultDto> saveHouses(@RequestBody List<HouseRequestDto> houses) {
+        return new ResponseEntity<>(houseService.saveHouses(houses), HttpStatus.CREATED);
+    }
+
     /**
      * Обновляет информацию о существующем доме по его UUID.
      *
@@ -81,21 +180,27 @@ public class HouseController {
      */
     @PutMapping("/{uuid}")
     public ResponseEntity<Void> updateHouse(@PathVariable UUID uuid,
-                                            @Valid @RequestBody HouseRequestDto house) {
+                                                      @Valid @RequestBody HouseRequestDto house) {
         houseService.updateHouse(uuid, house);
         return ResponseEntity.ok().build();
     }
 
     /**
-     * Обновляет определенные поля дома по его UUID.
+     * Обновляет определенные поля дома по его UUID одним запросом UPDATE без загрузки дома;
+     * кроме него записывается событие ленты изменений, а при изменении площади или местоположения
+     * город дома отмечается для пересчета статистики.
+     * Если передан заголовок If-Match, обновление выполняется, только если версия дома совпадает с ним.
      *
      * @param uuid    UUID дома.
+     * @param ifMatch ETag ожидаемой версии дома или null.
      * @param updates Map с обновлениями полей.
-     * @return ResponseEntity с кодом статуса OK.
+     * @return ResponseEntity с кодом статуса OK или CONFLICT, если версия изменилась.
      */
     @PatchMapping("/{uuid}")
-    public ResponseEntity<Void> updateHouseFields(@PathVariable UUID uuid, @Valid @RequestBody Map<String, Object> updates) {
-        houseService.updateHouseFields(uuid, updates);
+    public ResponseEntity<Void> updateHouseFields(@PathVariable UUID uuid,
+                                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                            @Valid @RequestBody Map<String, Object> updates) {
+        houseService.updateHouseFields(uuid, EntityVersionDto.versionOf(ifMatch), updates);
         return ResponseEntity.ok().build();
     }
 
@@ -112,14 +217,42 @@ public class HouseController {
     }
 
     /**
-     * Получает список жителей дома по его UUID.
+     * Получает страницу жителей дома по его UUID.
+     * Курсор следующей страницы возвращается в заголовках Link и X-Next-Cursor,
+     * общее количество жителей - в заголовке X-Total-Count.
      *
-     * @param uuid UUID дома.
+     * @param uuid  UUID дома.
+     * @param sort  поле сортировки (id, name, surname, createDate) и направление, например "surname,desc".
+     * @param after курсор последней записи предыдущей страницы.
+     * @param limit размер страницы.
      * @return ResponseEntity со списком жителей дома.
      */
     @GetMapping("/{uuid}/residents")
-    public ResponseEntity<List<PersonResponseDto>> getResidents(@PathVariable UUID uuid) {
-        List<PersonResponseDto> residents = houseService.getResidents(uuid);
-        return ResponseEntity.ok(residents);
+    public ResponseEntity<List<PersonResponseDto>> getResidents(
+            @PathVariable UUID uuid,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "15") int limit) {
+        return PagingHeaders.ok(houseService.getResidents(uuid, sort, after, limit), limit);
+    }
+
+    /**
+     * Получает страницу владельцев дома по его UUID.
+     * Курсор следующей страницы возвращается в заголовках Link и X-Next-Cursor,
+     * общее количество владельцев - в заголовке X-Total-Count.
+     *
+     * @param uuid  UUID дома.
+     * @param sort  поле сортировки (id, name, surname, createDate) и направление, например "surname,desc".
+     * @param after курсор последней записи предыдущей страницы.
+     * @param limit размер страницы.
+     * @return ResponseEntity со списком владельцев дома.
+     */
+    @GetMapping("/{uuid}/owners")
+    public ResponseEntity<List<PersonResponseDto>> getOwners(
+            @PathVariable UUID uuid,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "15") int limit) {
+        return PagingHeaders.ok(houseService.getOwners(uuid, sort, after, limit), limit);
     }
 }
@@ -0,0 +1,31 @@
+package by.clevertec.house.controller;
+
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.prometheus.client.exporter.common.TextFormat;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Контроллер для выдачи метрик приложения в текстовом формате Prometheus.
+ */
+@RestController
+@RequiredArgsConstructor
+public class MetricsController {
+
+    private final PrometheusMeterRegistry meterRegistry;
+
+    /**
+     * Получает текущие значения всех метрик.
+     *
+     * @return ResponseEntity с метриками в формате Prometheus 0.0.4.
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<String> getMetrics() {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, TextFormat.CONTENT_TYPE_004)
+                .body(meterRegistry.scrape());
+    }
+}
@@ -0,0 +1,50 @@
+package by.clevertec.house.controller;
+
+import by.clevertec.house.dto.CursorPageDto;
+import java.util.List;
+import lombok.experimental.UtilityClass;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+/**
+ * Формирование ответов постраничной выборки по курсору.
+ * Курсор следующей страницы передается в заголовках Link (rel="next") и X-Next-Cursor,
+ * общее количество записей, если оно известно, - в заголовке X-Total-Count.
+ */
+@UtilityClass
+class PagingHeaders {
+
+    static final String NEXT_CURSOR = "X-Next-Cursor";
+    static final String TOTAL_COUNT = "X-Total-Count";
+
+    /**
+     * Создает ResponseEntity со списком элементов страницы и заголовками следующей страницы.
+     *
+     * @param page  страница результатов.
+     * @param limit размер страницы.
+     * @param <T>   тип элементов страницы.
+     * @return ResponseEntity со списком элементов.
+     */
+    static <T> ResponseEntity<List<T>> ok(CursorPageDto<T> page, int limit) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.getNextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("pageNumber")
+                    .replaceQueryParam("pageSize")
+                    .replaceQueryParam("after", page.getNextCursor())
+                    .replaceQueryParam("limit", limit)
+                    .toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+            headers.add(NEXT_CURSOR, page.getNextCursor());
+        }
+        addTotalCount(headers, page.getTotalCount());
+        return ResponseEntity.ok().headers(headers).body(page.getItems());
+    }
+
+    private static void addTotalCount(HttpHeaders headers, Long totalCount) {
+        if (totalCount != null) {
+            headers.add(TOTAL_COUNT, String.valueOf(totalCount));
+        }
+    }
+}
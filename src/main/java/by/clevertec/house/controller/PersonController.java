@@ -1,6 +1,11 @@
 package by.clevertec.house.controller;
 
+import by.clevertec.house.dto.BatchResultDto;
+import by.clevertec.house.dto.CursorPageDto;
+import by.clevertec.house.dto.EntityVersionDto;
 import by.clevertec.house.dto.HouseResponseDto;
+import by.clevertec.house.dto.MultiGetResultDto;
+import by.clevertec.house.dto.PersonFilterDto;
 import by.clevertec.house.dto.PersonRequestDto;
 import by.clevertec.house.dto.PersonResponseDto;
 import by.clevertec.house.service.PersonService;
@@ -9,7 +14,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,9 +25,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * Контроллер для работы с персонами.
@@ -35,29 +45,97 @@ public class PersonController {
 
     /**
      * Получает информацию о персоне по его UUID.
+     * Ответ содержит заголовки ETag (версия персоны) и Last-Modified. Если заголовки If-None-Match
+     * или If-Modified-Since совпадают с текущей версией, возвращается 304 без тела.
+     * Персона и версия читаются одной операцией, как правило из кэша второго уровня; DTO строится только для ответа 200.
      *
-     * @param uuid UUID персоны.
-     * @return ResponseEntity с информацией о персоне.
+     * @param uuid    UUID персоны.
+     * @param request текущий запрос.
+     * @return ResponseEntity с информацией о персоне или null, если ответ 304 уже сформирован.
      */
     @GetMapping("/{uuid}")
-    public ResponseEntity<PersonResponseDto> getPersonByUuid(@PathVariable UUID uuid) {
-        PersonResponseDto person = personService.getPersonByUuid(uuid);
-        return ResponseEntity.ok(person);
+    public ResponseEntity<PersonResponseDto> getPersonByUuid(@PathVariable UUID uuid, WebRequest request) {
+        return personService.getPersonByUuidIfModified(uuid,
+                        version -> request.checkNotModified(version.eTag(), version.lastModified()))
+                .map(ResponseEntity::ok)
+                .orElse(null);
     }
 
     /**
      * Получает список всех персон с пагинацией.
+     * Если передан фильтр (sex, houseUuid, createdFrom, createdTo)
+     * или сортировка sort (id, createDate), список выбирается по курсору с фильтром и сортировкой.
+     * Если передан курсор after или размер страницы limit, используется выборка по курсору:
+     * курсор следующей страницы возвращается в заголовках Link и X-Next-Cursor.
+     * Иначе используется постраничная выборка по номеру страницы.
+     * Общее количество записей, удовлетворяющих фильтру, возвращается в заголовке X-Total-Count:
+     * count=exact - точное количество, кэшируемое на несколько секунд, если фильтр не задает границ диапазонов,
+     * count=approximate - оценка по статистике PostgreSQL для списка без фильтра, count=none - без подсчета.
+     * Страница и количество читаются одним вызовом сервиса в одной транзакции.
      *
      * @param pageNumber номер страницы.
      * @param pageSize   размер страницы.
+     * @param after      курсор последней записи предыдущей страницы.
+     * @param limit      размер страницы при выборке по курсору.
+     * @param sort       поле и направление сортировки, например "createDate,desc".
+     * @param count      режим подсчета общего количества: exact, approximate или none.
+     * @param filter     фильтр из параметров запроса.
      * @return ResponseEntity со списком персон.
      */
     @GetMapping
     public ResponseEntity<List<PersonResponseDto>> getAllPersons(
             @RequestParam(defaultValue = "1") int pageNumber,
-            @RequestParam(defaultValue = "15") int pageSize) {
-        List<PersonResponseDto> persons = personService.getAllPersons(pageNumber, pageSize);
-        return ResponseEntity.ok(persons);
+            @RequestParam(defaultValue = "15") int pageSize,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "exact") String count,
+            PersonFilterDto filter) {
+        if (sort != null || !filter.isEmpty()) {
+            int cursorLimit = limit != null ? limit : pageSize;
+            CursorPageDto<PersonResponseDto> page = personService.findPersons(filter, sort, after, cursorLimit, count);
+            return PagingHeaders.ok(page, cursorLimit);
+        }
+        if (after != null || limit != null) {
+            int cursorLimit = limit != null ? limit : pageSize;
+            CursorPageDto<PersonResponseDto> page = personService.getPersonsPage(after, cursorLimit, count);
+            return PagingHeaders.ok(page, cursorLimit);
+        }
+        return PagingHeaders.ok(personService.getAllPersons(pageNumber, pageSize, count), pageSize);
+    }
+
+    /**
+     * Ищет персон по имени, фамилии или серии и номеру паспорта.
+     * Результаты выдаются страницами по курсору; курсор следующей страницы передается
+     * в заголовках Link и X-Next-Cursor.
+     *
+     * @param q     строка запроса: одно-два слова не короче трех символов или серия и номер паспорта.
+     * @param mode  режим сравнения слов: prefix (начало имени или фамилии) или fuzzy (сходство триграмм).
+     * @param after курсор последней записи предыдущей страницы.
+     * @param limit размер страницы.
+     * @return ResponseEntity со списком найденных персон.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<PersonResponseDto>> searchPersons(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "prefix") String mode,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "15") int limit) {
+        return PagingHeaders.ok(personService.searchPersons(q, mode, after, limit), limit);
+    }
+
+    /**
+     * Выгружает всех персон в формате NDJSON.
+     * Ответ формируется потоково из серверного курсора, поэтому потребление памяти не зависит от размера таблицы.
+     *
+     * @return ResponseEntity с потоком DTO персон, по одному JSON-объекту на строку.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportPersons() {
+        StreamingResponseBody body = personService::exportPersons;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     /**
@@ -72,6 +150,30 @@ public class PersonController {
         return new ResponseEntity<>(HttpStatus.CREATED);
     }
 
+    /**
+     * Получает персон по списку UUID одним запросом вместо отдельного GET на каждый UUID.
+     *
+     * @param uuids список UUID персон.
+     * @return ResponseEntity с найденными персонами и списком отсутствующих UUID.
+     */
+    @PostMapping("/_mget")
+    public ResponseEntity<MultiGetResultDto<PersonResponseDto>> getPersonsByUuids(
+            @RequestBody List<UUID> uuids) {
+        return ResponseEntity.ok(personService.getPersonsByUuids(uuids));
+    }
+
+    /**
+     * Сохраняет пакет новых персон.
+     * Элементы с ошибками не прерывают обработку пакета и возвращаются в списке ошибок с их индексом.
+     *
+     * @param persons список DTO с информацией о персонах.
+     * @return ResponseEntity с результатом пакетного сохранения и кодом статуса CREATED.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResultDto> savePersons(@RequestBody List<PersonRequestDto> persons) {
+        return new ResponseEntity<>(personService.savePersons(persons), HttpStatus.CREATED);
+    }
+
     /**
      * Обновляет информацию о существующей персоне по его UUID.
      *
@@ -81,21 +183,27 @@ public class PersonController {
      */
     @PutMapping("/{uuid}")
     public ResponseEntity<Void> updatePerson(@PathVariable UUID uuid,
-                                             @Valid @RequestBody PersonRequestDto person) {
+                                                       @Valid @RequestBody PersonRequestDto person) {
         personService.updatePerson(uuid, person);
         return ResponseEntity.ok().build();
     }
 
     /**
-     * Обновляет определенные поля персоны по его UUID.
+     * Обновляет определенные поля персоны по ее UUID одним запросом UPDATE без загрузки персоны;
+     * кроме него записывается событие ленты изменений, а при смене дома проживания
+     * города прежнего и нового дома отмечаются для пересчета статистики.
+     * Если передан заголовок If-Match, обновление выполняется, только если версия персоны совпадает с ним.
      *
      * @param uuid    UUID персоны.
+     * @param ifMatch ETag ожидаемой версии персоны или null.
      * @param updates Map с обновлениями полей.
-     * @return ResponseEntity с кодом статуса OK.
+     * @return ResponseEntity с кодом статуса OK или CONFLICT, если версия изменилась.
      */
     @PatchMapping("/{uuid}")
-    public ResponseEntity<Void> updatePersonFields(@PathVariable UUID uuid, @Valid @RequestBody Map<String, Object> updates) {
-        personService.updatePersonFields(uuid, updates);
+    public ResponseEntity<Void> updatePersonFields(@PathVariable UUID uuid,
+                                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                             @Valid @RequestBody Map<String, Object> updates) {
+        personService.updatePersonFields(uuid, EntityVersionDto.versionOf(ifMatch), updates);
         return ResponseEntity.ok().build();
     }
 
@@ -112,15 +220,22 @@ public class PersonController {
     }
 
     /**
-     * Получает список домов, принадлежащих персоне по его UUID.
+     * Получает страницу домов, принадлежащих персоне по ее UUID.
+     * Курсор следующей страницы возвращается в заголовках Link и X-Next-Cursor,
+     * общее количество домов - в заголовке X-Total-Count.
      *
-     * @param uuid UUID персоны.
+     * @param uuid  UUID персоны.
+     * @param sort  поле сортировки (id, area, country, city, createDate) и направление, например "area,desc".
+     * @param after курсор последней записи предыдущей страницы.
+     * @param limit размер страницы.
      * @return ResponseEntity со списком домов, принадлежащих персоне.
      */
     @GetMapping("/{uuid}/ownedHouses")
-    public ResponseEntity<List<HouseResponseDto>> getOwnedHouses(@PathVariable UUID uuid) {
-        List<HouseResponseDto> ownedHouses = personService.getOwnedHouses(uuid);
-        return ResponseEntity.ok(ownedHouses);
-
+    public ResponseEntity<List<HouseResponseDto>> getOwnedHouses(
+            @PathVariable UUID uuid,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "15") int limit) {
+        return PagingHeaders.ok(personService.getOwnedHouses(uuid, sort, after, limit), limit);
     }
 }
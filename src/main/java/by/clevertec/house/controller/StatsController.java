@@ -0,0 +1,44 @@
+package by.clevertec.house.controller;
+
+import by.clevertec.house.dto.CacheStatsResponseDto;
+import by.clevertec.house.dto.PoolStatsResponseDto;
+import by.clevertec.house.metrics.ConnectionPoolMetrics;
+import by.clevertec.house.metrics.HibernateCacheMetrics;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Контроллер для получения служебной статистики приложения.
+ */
+@RestController
+@RequestMapping("/stats")
+@RequiredArgsConstructor
+public class StatsController {
+
+    private final ConnectionPoolMetrics connectionPoolMetrics;
+    private final HibernateCacheMetrics hibernateCacheMetrics;
+
+    /**
+     * Получает статистику пулов соединений с базой данных.
+     *
+     * @return ResponseEntity со статистикой пулов.
+     */
+    @GetMapping("/pool")
+    public ResponseEntity<List<PoolStatsResponseDto>> getPoolStats() {
+        return ResponseEntity.ok(connectionPoolMetrics.snapshot());
+    }
+
+    /**
+     * Получает статистику попаданий и промахов второго уровня кэша Hibernate.
+     *
+     * @return ResponseEntity со статистикой кэша.
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<CacheStatsResponseDto> getCacheStats() {
+        return ResponseEntity.ok(hibernateCacheMetrics.snapshot());
+    }
+}
@@ -0,0 +1,22 @@
+package by.clevertec.house.dao;
+
+import by.clevertec.house.dto.ChangeEventDto;
+import by.clevertec.house.dto.ChangeSequencesDto;
+import by.clevertec.house.entity.ChangeEvent;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public interface ChangeEventDao {
+
+    void insertEvents(List<ChangeEvent> events);
+
+    Map<UUID, Long> findVersions(String entityName, Collection<UUID> uuids);
+
+    List<ChangeEventDto> getEventsAfter(long sequence, long horizon, int limit);
+
+    ChangeSequencesDto findSequencesAfter(long sequence, int limit);
+
+    ChangeSequencesDto getLastSequence();
+}
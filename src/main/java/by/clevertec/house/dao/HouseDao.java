@@ -1,21 +1,67 @@
 package by.clevertec.house.dao;
 
+import by.clevertec.house.dto.CursorPageDto;
+import by.clevertec.house.dto.EntityVersionDto;
+import by.clevertec.house.dto.HouseFilterDto;
+import by.clevertec.house.dto.HouseResponseDto;
+import by.clevertec.house.dto.PatchResultDto;
 import by.clevertec.house.entity.House;
+import by.clevertec.house.util.SortOrder;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface HouseDao {
 
     House getHouseByUuid(UUID uuid);
 
-    List<House> getAllHouses(int pageNumber, int pageSize);
+    Optional<House> findHouseByUuid(UUID uuid);
+
+    House getHouseReference(long id);
+
+    List<HouseResponseDto> findHouseDtosByUuids(List<UUID> uuids);
+
+    Optional<Long> findHouseIdByUuid(UUID uuid);
+
+    Map<UUID, Long> findHouseIdsByUuids(Collection<UUID> uuids);
+
+    Optional<Long> lockHouseIdByUuid(UUID uuid);
+
+    Optional<EntityVersionDto> findHouseVersionByUuid(UUID uuid);
+
+    List<HouseResponseDto> getAllHouses(int pageNumber, int pageSize);
+
+    CursorPageDto<HouseResponseDto> getHousesAfter(long afterId, int limit);
+
+    CursorPageDto<HouseResponseDto> findHouses(HouseFilterDto filter, SortOrder order, String after, int limit);
+
+    long countHouses(HouseFilterDto filter);
+
+    Optional<Long> estimateHouseCount();
+
+    void scrollAllHouses(Consumer<House> consumer);
 
     void saveHouse(House house);
 
     void updateHouse(House house);
 
-    void deleteHouse(UUID uuid);
+    Optional<PatchResultDto> updateHouseFields(UUID uuid, Long expectedVersion, Map<String, Object> columns);
+
+    int deleteHouse(long id);
+
+    void addOwnerships(long ownerId, Collection<Long> houseIds);
+
+    void addOwnerships(Map<Long, ? extends Collection<Long>> houseIdsByOwner);
+
+    void removeOwnerships(long ownerId, Collection<Long> houseIds);
+
+    void flushAndClear();
+
+    CursorPageDto<HouseResponseDto> getOwnedHousesPage(long ownerId, SortOrder order, String after, int limit);
 
-    List<House> getHousesByOwnerUuid(UUID uuid);
+    long countOwnedHouses(long ownerId);
 
 }
@@ -0,0 +1,15 @@
+package by.clevertec.house.dao;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface HouseIdResolver {
+
+    Optional<Long> findHouseId(UUID uuid);
+
+    Map<UUID, Long> findHouseIds(Collection<UUID> uuids);
+
+    void removeAfterCommit(UUID uuid);
+}
@@ -0,0 +1,30 @@
+package by.clevertec.house.dao;
+
+import by.clevertec.house.dto.HouseStatsResponseDto;
+import by.clevertec.house.entity.HouseLocation;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface HouseStatsDao {
+
+    List<HouseStatsResponseDto> getCityStats();
+
+    List<HouseStatsResponseDto> getCountryStats();
+
+    List<HouseLocation> findLocationsByHouseUuids(Collection<UUID> houseUuids);
+
+    Optional<HouseLocation> findResidenceLocation(UUID personUuid);
+
+    List<HouseLocation> findPersonLocations(UUID personUuid);
+
+    List<HouseLocation> findLocationsOwnedByResidents(UUID houseUuid);
+
+    void addPendingLocations(Collection<HouseLocation> locations);
+
+    Map<HouseLocation, List<Long>> findPendingLocations();
+
+    void refreshLocation(HouseLocation location, Collection<Long> pendingIds);
+}
@@ -1,19 +1,66 @@
 package by.clevertec.house.dao;
 
+import by.clevertec.house.dto.CursorPageDto;
+import by.clevertec.house.dto.EntityVersionDto;
+import by.clevertec.house.dto.PatchResultDto;
+import by.clevertec.house.dto.PersonFilterDto;
+import by.clevertec.house.dto.PersonResponseDto;
 import by.clevertec.house.entity.Person;
+import by.clevertec.house.util.SortOrder;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface PersonDao {
 
     Person getPersonByUuid(UUID uuid);
 
-    List<Person> getAllPersons(int pageNumber, int pageSize);
+    Optional<Long> findPersonIdByUuid(UUID uuid);
+
+    Optional<EntityVersionDto> findPersonVersionByUuid(UUID uuid);
+
+    List<PersonResponseDto> getAllPersons(int pageNumber, int pageSize);
+
+    CursorPageDto<PersonResponseDto> getPersonsAfter(long afterId, int limit);
+
+    CursorPageDto<PersonResponseDto> findPersons(PersonFilterDto filter, SortOrder order, String after, int limit);
+
+    long countPersons(PersonFilterDto filter);
+
+    Optional<Long> estimatePersonCount();
+
+    List<PersonResponseDto> findPersonDtosByUuids(List<UUID> uuids);
+
+    Optional<PersonResponseDto> findPersonByPassport(String passportSeries, String passportNumber);
+
+    CursorPageDto<PersonResponseDto> searchPersonsByPrefix(List<String> words, long afterId, int limit);
+
+    CursorPageDto<PersonResponseDto> searchPersonsBySimilarity(List<String> words, long afterId, int limit);
+
+    CursorPageDto<PersonResponseDto> getResidentsPage(long houseId, SortOrder order, String after, int limit);
+
+    long countResidents(long houseId);
+
+    List<UUID> findResidentUuids(long houseId);
+
+    CursorPageDto<PersonResponseDto> getOwnersPage(long houseId, SortOrder order, String after, int limit);
+
+    long countOwners(long houseId);
+
+    void scrollAllPersons(Consumer<Person> consumer);
 
     void savePerson(Person person);
 
     void updatePerson(Person person);
 
-    void deletePerson(UUID uuid);
+    Optional<PatchResultDto> updatePersonFields(UUID uuid, Long expectedVersion, Map<String, Object> columns);
+
+    int deletePerson(long id);
+
+    int deleteResidents(long houseId);
+
+    void flushAndClear();
 
 }
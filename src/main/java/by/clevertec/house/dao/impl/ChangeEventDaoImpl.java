@@ -0,0 +1,178 @@
+package by.clevertec.house.dao.impl;
+
+import static by.clevertec.house.util.Chunks.IN_CLAUSE_CHUNK_SIZE;
+
+import by.clevertec.house.dao.ChangeEventDao;
+import by.clevertec.house.dto.ChangeEventDto;
+import by.clevertec.house.dto.ChangeSequencesDto;
+import by.clevertec.house.entity.ChangeEvent;
+import by.clevertec.house.util.Chunks;
+import by.clevertec.house.util.SequenceHorizon;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Реализация DAO для таблицы исходящих событий change_events.
+ */
+@Transactional
+@Repository
+@RequiredArgsConstructor
+public class ChangeEventDaoImpl implements ChangeEventDao {
+
+    private static final String TABLE = "change_events";
+
+    /**
+     * Назначает текущей транзакции номер до выдачи номеров событий: номер транзакции должен быть
+     * меньше xmax любого снимка, в котором уже виден больший номер события (см. {@link SequenceHorizon}).
+     */
+    private static final String ASSIGN_TRANSACTION_ID = "SELECT pg_current_xact_id()";
+
+    /**
+     * Видимые номера событий и границы снимка, в котором они прочитаны, одним запросом.
+     * Запрос возвращает строку и без событий, с номером null.
+     */
+    private static final String SEQUENCES_AFTER = "SELECT e.id, "
+            + "CAST(CAST(pg_snapshot_xmin(s.snapshot) AS text) AS bigint), "
+            + "CAST(CAST(pg_snapshot_xmax(s.snapshot) AS text) AS bigint) "
+            + "FROM (SELECT pg_current_snapshot() AS snapshot) s "
+            + "LEFT JOIN LATERAL (SELECT id FROM " + TABLE + " WHERE id > :sequence ORDER BY id LIMIT :limit) e "
+            + "ON true ORDER BY e.id";
+
+    private static final String LAST_SEQUENCE = "SELECT (SELECT max(id) FROM " + TABLE + "), "
+            + "CAST(CAST(pg_snapshot_xmin(s.snapshot) AS text) AS bigint), "
+            + "CAST(CAST(pg_snapshot_xmax(s.snapshot) AS text) AS bigint) "
+            + "FROM (SELECT pg_current_snapshot() AS snapshot) s";
+
+    private static final String INSERT_EVENT = "INSERT INTO " + TABLE + " "
+            + "(entity_type, entity_uuid, operation, changed_fields, entity_version, create_date) "
+            + "VALUES (?, ?, ?, ?, ?, localtimestamp)";
+
+    @PersistenceContext
+    private final EntityManager entityManager;
+
+    /**
+     * Записывает события одним пакетом JDBC в текущей транзакции.
+     * Номера событий выдаются последовательностью таблицы без блокировки, поэтому параллельные транзакции
+     * фиксируются независимо; порядок выдачи потребителям обеспечивает граница {@link SequenceHorizon}.
+     *
+     * @param events события.
+     */
+    @Override
+    public void insertEvents(List<ChangeEvent> events) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (Statement assign = connection.createStatement()) {
+                assign.execute(ASSIGN_TRANSACTION_ID);
+            }
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_EVENT)) {
+                for (ChangeEvent event : events) {
+                    insert.setString(1, event.getEntityType());
+                    insert.setObject(2, event.getEntityUuid());
+                    insert.setString(3, event.getOperation().name());
+                    insert.setString(4, event.getChangedFields());
+                    insert.setObject(5, event.getEntityVersion(), Types.BIGINT);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        });
+    }
+
+    /**
+     * Получает текущие версии сущностей по их UUID порциями не более IN_CLAUSE_CHUNK_SIZE.
+     *
+     * @param entityName имя сущности JPQL: House или Person.
+     * @param uuids      UUID сущностей.
+     * @return Map UUID -> версия для найденных сущностей.
+     */
+    @Override
+    public Map<UUID, Long> findVersions(String entityName, Collection<UUID> uuids) {
+        Map<UUID, Long> versions = new HashMap<>();
+        for (List<UUID> chunk : Chunks.partition(new ArrayList<>(uuids), IN_CLAUSE_CHUNK_SIZE)) {
+            entityManager
+                    .createQuery("SELECT e.uuid, e.version FROM " + entityName + " e WHERE e.uuid IN :uuids",
+                            Object[].class)
+                    .setParameter("uuids", chunk)
+                    .getResultList()
+                    .forEach(row -> versions.put((UUID) row[0], (Long) row[1]));
+        }
+        return versions;
+    }
+
+    /**
+     * Получает события с номером больше заданного и не больше границы в порядке номеров.
+     *
+     * @param sequence номер последнего прочитанного события (0 для чтения с начала).
+     * @param horizon  граница ленты: номер последнего события, которое можно отдавать.
+     * @param limit    максимальное количество событий.
+     * @return Список DTO событий.
+     */
+    @Override
+    public List<ChangeEventDto> getEventsAfter(long sequence, long horizon, int limit) {
+        return entityManager
+                .createQuery("SELECT new by.clevertec.house.dto.ChangeEventDto(e.id, e.entityType, e.entityUuid, "
+                        + "e.operation, e.changedFields, e.entityVersion, e.createDate) "
+                        + "FROM ChangeEvent e WHERE e.id > :sequence AND e.id <= :horizon ORDER BY e.id",
+                        ChangeEventDto.class)
+                .setParameter("sequence", sequence)
+                .setParameter("horizon", horizon)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Получает видимые номера событий больше заданного вместе с границами снимка, в котором они прочитаны.
+     *
+     * @param sequence номер, после которого читаются номера.
+     * @param limit    максимальное количество номеров.
+     * @return Номера в порядке возрастания и границы снимка.
+     */
+    @Override
+    public ChangeSequencesDto findSequencesAfter(long sequence, int limit) {
+        List<Object[]> rows = nativeQuery(SEQUENCES_AFTER)
+                .setParameter("sequence", sequence)
+                .setParameter("limit", limit)
+                .getResultList();
+        List<Long> sequences = rows.stream()
+                .filter(row -> row[0] != null)
+                .map(row -> ((Number) row[0]).longValue())
+                .toList();
+        return snapshot(sequences, rows.get(0));
+    }
+
+    /**
+     * Получает номер последнего видимого события вместе с границами снимка, в котором он прочитан.
+     *
+     * @return Список из номера последнего события или пустой список, если событий нет, и границы снимка.
+     */
+    @Override
+    public ChangeSequencesDto getLastSequence() {
+        Object[] row = (Object[]) nativeQuery(LAST_SEQUENCE).getSingleResult();
+        List<Long> sequences = row[0] == null ? List.of() : List.of(((Number) row[0]).longValue());
+        return snapshot(sequences, row);
+    }
+
+    @SuppressWarnings("unchecked")
+    private NativeQuery<Object[]> nativeQuery(String sql) {
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(TABLE);
+    }
+
+    private static ChangeSequencesDto snapshot(List<Long> sequences, Object[] row) {
+        return new ChangeSequencesDto(sequences, ((Number) row[1]).longValue(), ((Number) row[2]).longValue());
+    }
+}
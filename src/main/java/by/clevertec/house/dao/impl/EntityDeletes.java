@@ -0,0 +1,51 @@
+package by.clevertec.house.dao.impl;
+
+import jakarta.persistence.EntityManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import lombok.experimental.UtilityClass;
+import org.hibernate.Session;
+
+/**
+ * Удаление строк кэшируемых сущностей SQL-запросом DELETE ... RETURNING id, uuid.
+ * JPQL- и нативный DELETE, выполняемые через Hibernate, очищают регион сущности и регион ее
+ * естественного идентификатора целиком; здесь запрос выполняется через JDBC, а из кэша удаляются
+ * только записи удаленных идентификаторов и UUID: сразу и повторно после фиксации транзакции,
+ * чтобы убрать строку, которую параллельное чтение успело положить в кэш до фиксации удаления.
+ */
+@UtilityClass
+class EntityDeletes {
+
+    /**
+     * Выполняет запрос удаления и удаляет из кэша второго уровня записи удаленных сущностей.
+     * Накопленные изменения контекста персистентности предварительно сбрасываются в базу данных.
+     *
+     * @param entityManager EntityManager.
+     * @param entityClass   класс удаляемой сущности.
+     * @param sql           запрос DELETE с одним параметром и RETURNING id, uuid.
+     * @param parameter     значение параметра запроса.
+     * @return Количество удаленных строк.
+     */
+    static int execute(EntityManager entityManager, Class<?> entityClass, String sql, long parameter) {
+        entityManager.flush();
+        Map<Long, UUID> deleted = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            Map<Long, UUID> rows = new HashMap<>();
+            try (PreparedStatement delete = connection.prepareStatement(sql)) {
+                delete.setLong(1, parameter);
+                try (ResultSet resultSet = delete.executeQuery()) {
+                    while (resultSet.next()) {
+                        rows.put(resultSet.getLong(1), resultSet.getObject(2, UUID.class));
+                    }
+                }
+            }
+            return rows;
+        });
+        if (!deleted.isEmpty()) {
+            EntityEvictions.evict(entityManager, entityClass, deleted, true);
+        }
+        return deleted.size();
+    }
+}
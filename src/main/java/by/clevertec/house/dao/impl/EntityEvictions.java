@@ -0,0 +1,56 @@
+package by.clevertec.house.dao.impl;
+
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.experimental.UtilityClass;
+import org.hibernate.cache.spi.access.NaturalIdDataAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Точечное удаление из кэша второго уровня записей сущностей, строки которых изменены SQL-запросом через JDBC.
+ * Записи удаляются сразу и повторно после фиксации транзакции, чтобы убрать строку, которую параллельное
+ * чтение успело положить в кэш до фиксации изменения.
+ */
+@UtilityClass
+class EntityEvictions {
+
+    /**
+     * Удаляет из кэша записи сущностей по идентификаторам и, если задано, записи их естественных идентификаторов.
+     *
+     * @param entityManager EntityManager.
+     * @param entityClass   класс сущности.
+     * @param rows          UUID измененных строк по идентификаторам.
+     * @param naturalIds    удалять ли записи естественных идентификаторов (UUID больше не соответствует строке).
+     */
+    static void evict(EntityManager entityManager, Class<?> entityClass, Map<Long, UUID> rows, boolean naturalIds) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        SessionFactoryImplementor factory = session.getFactory();
+        EntityPersister persister = factory.getMappingMetamodel().getEntityDescriptor(entityClass);
+        NaturalIdDataAccess naturalIdAccess = naturalIds ? persister.getNaturalIdCacheAccessStrategy() : null;
+        List<Object> naturalIdKeys = new ArrayList<>();
+        if (naturalIdAccess != null) {
+            rows.values().forEach(uuid -> naturalIdKeys.add(naturalIdAccess.generateCacheKey(uuid, persister, session)));
+        }
+        Runnable eviction = () -> {
+            rows.keySet().forEach(id -> factory.getCache().evictEntityData(entityClass, id));
+            naturalIdKeys.forEach(key -> naturalIdAccess.evict(key));
+        };
+
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
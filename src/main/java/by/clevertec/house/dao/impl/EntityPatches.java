@@ -0,0 +1,90 @@
+package by.clevertec.house.dao.impl;
+
+import by.clevertec.house.dto.PatchResultDto;
+import jakarta.persistence.EntityManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.experimental.UtilityClass;
+import org.hibernate.Session;
+
+/**
+ * Частичное обновление строк кэшируемых сущностей по UUID одним SQL-запросом без загрузки сущности.
+ * Запрос строится из столбцов реестра полей: UPDATE ... SET &lt;измененные столбцы&gt; WHERE uuid = ?
+ * [AND version = ?] RETURNING id, uuid, version, объединенный с чтением текущей версии строки,
+ * поэтому отсутствие строки, несовпадение версии и неизменившиеся значения различаются без второго запроса.
+ * Запрос выполняется через JDBC, как и {@link EntityDeletes}: из кэша второго уровня удаляется только
+ * запись обновленной сущности, а не весь регион, как при UPDATE через Hibernate.
+ */
+@UtilityClass
+class EntityPatches {
+
+    /**
+     * Обновляет переданные столбцы строки сущности.
+     * Строка обновляется, только если хотя бы одно значение действительно меняется; при этом версия
+     * увеличивается на единицу, а дата изменения обновляется. Если передана ожидаемая версия,
+     * строка обновляется, только если текущая версия совпадает с ней.
+     * Накопленные изменения контекста персистентности предварительно сбрасываются в базу данных.
+     *
+     * @param entityManager   EntityManager.
+     * @param entityClass     класс сущности.
+     * @param table           таблица сущности со столбцами id, uuid, version и update_date.
+     * @param uuid            UUID сущности.
+     * @param expectedVersion ожидаемая версия или null, если версия не проверяется.
+     * @param columns         новые значения столбцов из реестра полей.
+     * @return Результат обновления или пустой Optional, если строка не найдена.
+     */
+    static Optional<PatchResultDto> apply(EntityManager entityManager, Class<?> entityClass, String table, UUID uuid,
+                                          Long expectedVersion, Map<String, Object> columns) {
+        String sql = statement(table, columns.keySet(), expectedVersion != null);
+        entityManager.flush();
+        return Optional.ofNullable(entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement patch = connection.prepareStatement(sql)) {
+                int index = 1;
+                patch.setObject(index++, uuid);
+                for (Object value : columns.values()) {
+                    patch.setObject(index++, value);
+                }
+                patch.setTimestamp(index++, Timestamp.valueOf(LocalDateTime.now()));
+                if (expectedVersion != null) {
+                    patch.setLong(index++, expectedVersion);
+                }
+                for (Object value : columns.values()) {
+                    patch.setObject(index++, value);
+                }
+                try (ResultSet resultSet = patch.executeQuery()) {
+                    if (!resultSet.next()) {
+                        return null;
+                    }
+                    long updatedVersion = resultSet.getLong(3);
+                    if (resultSet.wasNull()) {
+                        return new PatchResultDto(false, resultSet.getLong(2));
+                    }
+                    EntityEvictions.evict(entityManager, entityClass, Map.of(resultSet.getLong(1), uuid), false);
+                    return new PatchResultDto(true, updatedVersion);
+                }
+            }
+        }));
+    }
+
+    private static String statement(String table, Iterable<String> columns, boolean versioned) {
+        StringBuilder set = new StringBuilder();
+        StringBuilder changed = new StringBuilder();
+        for (String column : columns) {
+            set.append(column).append(" = ?, ");
+            if (!changed.isEmpty()) {
+                changed.append(" OR ");
+            }
+            changed.append(column).append(" IS DISTINCT FROM ?");
+        }
+        return "WITH target AS (SELECT id, version FROM " + table + " WHERE uuid = ?), "
+                + "patched AS (UPDATE " + table + " SET " + set + "version = version + 1, update_date = ? "
+                + "WHERE id = (SELECT id FROM target)" + (versioned ? " AND version = ?" : "")
+                + " AND (" + changed + ") RETURNING id, uuid, version) "
+                + "SELECT target.id, target.version, patched.version FROM target LEFT JOIN patched ON patched.id = target.id";
+    }
+}
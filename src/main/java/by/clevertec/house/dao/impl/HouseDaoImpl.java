@@ -1,15 +1,44 @@
 package by.clevertec.house.dao.impl;
 
 import by.clevertec.house.dao.HouseDao;
+import by.clevertec.house.dto.CursorPageDto;
+import by.clevertec.house.dto.EntityVersionDto;
+import by.clevertec.house.dto.HouseFilterDto;
+import by.clevertec.house.dto.HouseResponseDto;
+import by.clevertec.house.dto.PatchResultDto;
 import by.clevertec.house.entity.House;
 import by.clevertec.house.exception.EntityNotFoundException;
+import by.clevertec.house.util.Chunks;
+import by.clevertec.house.util.Constant.Sort;
+import by.clevertec.house.util.SortOrder;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -21,9 +50,38 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class HouseDaoImpl implements HouseDao {
 
+    /**
+     * Проекция дома в DTO для JPQL-запросов чтения.
+     */
+    private static final String HOUSE_DTO = "new by.clevertec.house.dto.HouseResponseDto("
+            + "h.uuid, h.area, h.country, h.city, h.street, h.number, h.createDate)";
+
+    /**
+     * Атрибуты дома, выбираемые Criteria-запросами в порядке параметров конструктора HouseResponseDto.
+     */
+    private static final List<String> HOUSE_ATTRIBUTES = List.of(
+            "uuid", "area", "country", "city", "street", "number", "createDate");
+
+    /**
+     * Поля сортировки постраничных выборок домов, кроме идентификатора.
+     */
+    private static final Map<String, Keyset.Column> HOUSE_SORT = Map.of(
+            Sort.AREA, Keyset.number("area"),
+            Sort.COUNTRY, Keyset.string("country"),
+            Sort.CITY, Keyset.string("city"),
+            Sort.CREATE_DATE, Keyset.dateTime("createDate"));
+
+    private static final String INSERT_OWNERSHIP = "INSERT INTO house_owner (house_id, owner_id) VALUES (?, ?) "
+            + "ON CONFLICT DO NOTHING";
+
+    private static final String DELETE_OWNERSHIPS = "DELETE FROM house_owner WHERE owner_id = ? AND house_id = ANY (?)";
+
     @PersistenceContext
     private final EntityManager entityManager;
 
+    @Value("${export.fetch-size:1000}")
+    private int exportFetchSize;
+
     /**
      * Получает дом по его UUID из базы данных.
      *
@@ -33,31 +91,233 @@ public class HouseDaoImpl implements HouseDao {
      */
     @Override
     public House getHouseByUuid(UUID uuid) {
-        Optional<House> house = Optional.ofNullable(entityManager
-                .createQuery("SELECT h FROM House h WHERE h.uuid = :uuid", House.class)
+        return findHouseByUuid(uuid)
+                .orElseThrow(() -> EntityNotFoundException.of(House.class, uuid));
+    }
+
+    /**
+     * Ищет дом по его UUID.
+     * UUID является естественным идентификатором: поиск сначала обращается к кэшу естественных
+     * идентификаторов и второму уровню кэша и только при промахе выполняет запрос к базе данных.
+     *
+     * @param uuid UUID дома.
+     * @return Optional с HouseEntity или пустой Optional, если дом не найден.
+     */
+    @Override
+    public Optional<House> findHouseByUuid(UUID uuid) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(House.class)
+                .loadOptional(uuid);
+    }
+
+    /**
+     * Получает ссылку на дом по его внутреннему идентификатору без запроса к базе данных.
+     * Поля дома загружаются только при первом обращении к ним; для записи внешнего ключа они не нужны.
+     *
+     * @param id внутренний идентификатор дома.
+     * @return Ссылка на HouseEntity.
+     */
+    @Override
+    public House getHouseReference(long id) {
+        return entityManager.getReference(House.class, id);
+    }
+
+    /**
+     * Ищет DTO домов по списку различных UUID.
+     * Выбираются только возвращаемые клиенту столбцы, по одному запросу с условием IN
+     * на каждые IN_CLAUSE_CHUNK_SIZE UUID.
+     *
+     * @param uuids различные UUID домов.
+     * @return Список DTO найденных домов в произвольном порядке.
+     */
+    @Override
+    public List<HouseResponseDto> findHouseDtosByUuids(List<UUID> uuids) {
+        List<HouseResponseDto> houses = new ArrayList<>(uuids.size());
+        for (List<UUID> chunk : Chunks.partition(uuids, Chunks.IN_CLAUSE_CHUNK_SIZE)) {
+            houses.addAll(entityManager
+                    .createQuery("SELECT " + HOUSE_DTO + " FROM House h WHERE h.uuid IN :uuids",
+                            HouseResponseDto.class)
+                    .setParameter("uuids", chunk)
+                    .getResultList());
+        }
+        return houses;
+    }
+
+    /**
+     * Получает внутренний идентификатор дома по его UUID без загрузки сущности.
+     *
+     * @param uuid UUID дома.
+     * @return Optional с идентификатором или пустой Optional, если дом не найден.
+     */
+    @Override
+    public Optional<Long> findHouseIdByUuid(UUID uuid) {
+        return entityManager
+                .createQuery("SELECT h.id FROM House h WHERE h.uuid = :uuid", Long.class)
                 .setParameter("uuid", uuid)
                 .getResultStream()
+                .findFirst();
+    }
+
+    /**
+     * Получает внутренние идентификаторы домов по списку UUID без загрузки сущностей,
+     * по одному запросу с условием IN на каждые {@value Chunks#IN_CLAUSE_CHUNK_SIZE} UUID.
+     *
+     * @param uuids UUID домов.
+     * @return Идентификаторы найденных домов по их UUID; отсутствующие UUID в результат не попадают.
+     */
+    @Override
+    public Map<UUID, Long> findHouseIdsByUuids(Collection<UUID> uuids) {
+        Map<UUID, Long> ids = new HashMap<>();
+        List<UUID> distinctUuids = new ArrayList<>(new LinkedHashSet<>(uuids));
+        for (List<UUID> chunk : Chunks.partition(distinctUuids, Chunks.IN_CLAUSE_CHUNK_SIZE)) {
+            entityManager
+                    .createQuery("SELECT h.uuid, h.id FROM House h WHERE h.uuid IN :uuids", Object[].class)
+                    .setParameter("uuids", chunk)
+                    .getResultStream()
+                    .forEach(row -> ids.put((UUID) row[0], (Long) row[1]));
+        }
+        return ids;
+    }
+
+    /**
+     * Блокирует строку дома до конца транзакции и возвращает его внутренний идентификатор.
+     * Блокировка FOR UPDATE несовместима с блокировкой, которую берет внешний ключ при вставке жильца
+     * или владельца, поэтому до конца транзакции у дома не появляется новых связей.
+     *
+     * @param uuid UUID дома.
+     * @return Optional с идентификатором или пустой Optional, если дом не найден.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<Long> lockHouseIdByUuid(UUID uuid) {
+        return ((List<Number>) entityManager.createNativeQuery("SELECT id FROM houses WHERE uuid = :uuid FOR UPDATE")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(House.class)
+                .setParameter("uuid", uuid)
+                .getResultList())
+                .stream()
                 .findFirst()
-                .orElseThrow(() -> EntityNotFoundException.of(House.class, uuid)));
-        return house.get();
+                .map(Number::longValue);
     }
 
     /**
-     * Получает все HouseEntity из базы данных с пагинацией.
+     * Ищет версию и дату последнего изменения дома по его UUID.
+     * Выбираются только два столбца, сущность не загружается.
+     *
+     * @param uuid UUID дома.
+     * @return Optional с версией дома или пустой Optional, если дом не найден.
+     */
+    @Override
+    public Optional<EntityVersionDto> findHouseVersionByUuid(UUID uuid) {
+        return entityManager
+                .createQuery("SELECT new by.clevertec.house.dto.EntityVersionDto(h.version, h.updateDate) "
+                        + "FROM House h WHERE h.uuid = :uuid", EntityVersionDto.class)
+                .setParameter("uuid", uuid)
+                .getResultStream()
+                .findFirst();
+    }
+
+    /**
+     * Получает DTO всех домов из базы данных с пагинацией.
+     * Выбираются только возвращаемые клиенту столбцы, управляемые сущности не создаются.
      *
      * @param pageNumber номер страницы.
      * @param pageSize   размер страницы.
-     * @return Список HouseEntity.
+     * @return Список DTO домов.
      */
     @Override
-    public List<House> getAllHouses(int pageNumber, int pageSize) {
+    public List<HouseResponseDto> getAllHouses(int pageNumber, int pageSize) {
         return entityManager
-                .createQuery("SELECT h FROM House h", House.class)
+                .createQuery("SELECT " + HOUSE_DTO + " FROM House h ORDER BY h.id", HouseResponseDto.class)
                 .setFirstResult((pageNumber - 1) * pageSize)
                 .setMaxResults(pageSize)
                 .getResultList();
     }
 
+    /**
+     * Получает страницу DTO домов с идентификатором больше заданного, упорядоченных по идентификатору.
+     * Используется для постраничной выборки по ключу без OFFSET.
+     *
+     * @param afterId идентификатор последней записи предыдущей страницы (0 для первой страницы).
+     * @param limit   размер страницы.
+     * @return Страница DTO домов с курсором следующей страницы.
+     */
+    @Override
+    public CursorPageDto<HouseResponseDto> getHousesAfter(long afterId, int limit) {
+        List<Object[]> rows = entityManager
+                .createQuery("SELECT " + HOUSE_DTO + ", h.id FROM House h WHERE h.id > :afterId ORDER BY h.id",
+                        Object[].class)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit + 1)
+                .getResultList();
+        return CursorPageDto.fromRows(rows, limit);
+    }
+
+    /**
+     * Получает страницу DTO домов, удовлетворяющих фильтру, в заданном порядке.
+     * Запрос строится через Criteria API только из условий, заданных в фильтре;
+     * каждое условие использует один из индексов houses, миграция V1_1_10__add_list_filter_indexes.sql.
+     *
+     * @param filter фильтр домов.
+     * @param order  порядок сортировки.
+     * @param after  курсор последней записи предыдущей страницы или null для первой страницы.
+     * @param limit  размер страницы.
+     * @return Страница DTO домов с курсором следующей страницы.
+     */
+    @Override
+    public CursorPageDto<HouseResponseDto> findHouses(HouseFilterDto filter, SortOrder order, String after,
+                                                      int limit) {
+        return Keyset.fetch(entityManager, House.class, HOUSE_ATTRIBUTES, HouseDaoImpl::toHouseDto,
+                (builder, house) -> toPredicates(builder, house, filter), HOUSE_SORT, order, after, limit);
+    }
+
+    /**
+     * Считает дома, удовлетворяющие фильтру, с теми же условиями, что и выборка страницы в findHouses.
+     *
+     * @param filter фильтр домов; пустой фильтр считает все дома.
+     * @return Количество домов.
+     */
+    @Override
+    public long countHouses(HouseFilterDto filter) {
+        return RowCounts.count(entityManager, House.class, (builder, house) -> toPredicates(builder, house, filter));
+    }
+
+    /**
+     * Оценивает количество всех домов по статистике планировщика PostgreSQL, не читая таблицу houses.
+     *
+     * @return Оценка количества домов или пустой Optional, если статистика таблицы еще не собрана.
+     */
+    @Override
+    public Optional<Long> estimateHouseCount() {
+        return RowCounts.estimate(entityManager, "houses");
+    }
+
+    /**
+     * Последовательно передает потребителю все HouseEntity из базы данных.
+     * Использует серверный курсор в StatelessSession: сущности не накапливаются в контексте персистентности,
+     * а драйвер получает строки порциями по export.fetch-size.
+     *
+     * @param consumer потребитель HouseEntity.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void scrollAllHouses(Consumer<House> consumer) {
+        SessionFactory sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class);
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Transaction transaction = session.beginTransaction();
+            try (ScrollableResults<House> results = session
+                    .createQuery("SELECT h FROM House h", House.class)
+                    .setFetchSize(exportFetchSize)
+                    .setReadOnly(true)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+                while (results.next()) {
+                    consumer.accept(results.get());
+                }
+            }
+            transaction.commit();
+        }
+    }
+
     /**
      * Сохраняет HouseEntity в базе данных.
      *
@@ -79,34 +339,170 @@ public class HouseDaoImpl implements HouseDao {
     }
 
     /**
-     * Удаляет HouseEntity по его UUID из базы данных.
+     * Обновляет отдельные столбцы дома по его UUID одним запросом без загрузки дома.
+     * Из кэша второго уровня удаляется только запись этого дома.
      *
-     * @param uuid UUID HouseEntity.
+     * @param uuid            UUID дома.
+     * @param expectedVersion ожидаемая версия дома или null, если версия не проверяется.
+     * @param columns         новые значения столбцов.
+     * @return Результат обновления или пустой Optional, если дом не найден.
      */
     @Override
-    public void deleteHouse(UUID uuid) {
-        entityManager
-                .createQuery("DELETE FROM House h WHERE h.uuid = :uuid")
-                .setParameter("uuid", uuid)
+    public Optional<PatchResultDto> updateHouseFields(UUID uuid, Long expectedVersion, Map<String, Object> columns) {
+        return EntityPatches.apply(entityManager, House.class, "houses", uuid, expectedVersion, columns);
+    }
+
+    /**
+     * Удаляет дом по его идентификатору вместе со связями владения.
+     * Выполняется два запроса независимо от количества владельцев:
+     * удаление строк house_owner по house_id и удаление строки дома.
+     * Из кэша второго уровня удаляется только запись этого дома.
+     * Жильцы дома должны быть удалены или переселены заранее.
+     *
+     * @param id идентификатор дома.
+     * @return Количество удаленных строк: 0, если дом не найден.
+     */
+    @Override
+    public int deleteHouse(long id) {
+        entityManager.createNativeQuery("DELETE FROM house_owner WHERE house_id = :id")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("house_owner")
+                .setParameter("id", id)
                 .executeUpdate();
+        return EntityDeletes.execute(entityManager, House.class, "DELETE FROM houses WHERE id = ? RETURNING id, uuid", id);
     }
 
     /**
-     * Получает HouseEntity, принадлежащие владельцу по его UUID.
+     * Добавляет связи владения персоны с домами одним пакетом JDBC.
+     * Коллекции House.owners не загружаются; связь, уже добавленная параллельной транзакцией, пропускается.
      *
-     * @param uuid UUID владельца.
-     * @return Список HouseEntity.
-     * @throws EntityNotFoundException если HouseEntity, принадлежащие владельцу, не найдены.
+     * @param ownerId  идентификатор владельца.
+     * @param houseIds идентификаторы домов.
      */
     @Override
-    public List<House> getHousesByOwnerUuid(UUID uuid) {
-        List<House> houses = entityManager
-                .createQuery("SELECT h FROM House h JOIN h.owners o WHERE o.uuid = :ownerUuid", House.class)
-                .setParameter("ownerUuid", uuid)
-                .getResultList();
-        if (houses.isEmpty()) {
-            throw new EntityNotFoundException("No houses owned by the person with UUID " + uuid);
+    public void addOwnerships(long ownerId, Collection<Long> houseIds) {
+        addOwnerships(Map.of(ownerId, houseIds));
+    }
+
+    /**
+     * Добавляет связи владения нескольких персон с домами одним пакетом JDBC.
+     * Используется при пакетном создании персон после сброса порции, чтобы строки персон уже были в базе данных.
+     *
+     * @param houseIdsByOwner идентификаторы домов по идентификатору владельца.
+     */
+    @Override
+    public void addOwnerships(Map<Long, ? extends Collection<Long>> houseIdsByOwner) {
+        if (houseIdsByOwner.values().stream().allMatch(Collection::isEmpty)) {
+            return;
         }
-        return houses;
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_OWNERSHIP)) {
+                for (Map.Entry<Long, ? extends Collection<Long>> owner : houseIdsByOwner.entrySet()) {
+                    for (Long houseId : owner.getValue()) {
+                        insert.setLong(1, houseId);
+                        insert.setLong(2, owner.getKey());
+                        insert.addBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+        });
+    }
+
+    /**
+     * Удаляет связи владения персоны с домами одним запросом с массивом идентификаторов домов.
+     * Коллекции House.owners не загружаются.
+     *
+     * @param ownerId  идентификатор владельца.
+     * @param houseIds идентификаторы домов.
+     */
+    @Override
+    public void removeOwnerships(long ownerId, Collection<Long> houseIds) {
+        if (houseIds.isEmpty()) {
+            return;
+        }
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement delete = connection.prepareStatement(DELETE_OWNERSHIPS)) {
+                Array ids = connection.createArrayOf("bigint", houseIds.toArray());
+                delete.setLong(1, ownerId);
+                delete.setArray(2, ids);
+                delete.executeUpdate();
+                ids.free();
+            }
+        });
+    }
+
+    /**
+     * Выполняет накопленные операции пакетом и очищает контекст персистентности.
+     * Используется при пакетной вставке, чтобы контекст не рос вместе с размером пакета.
+     */
+    @Override
+    public void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Получает страницу DTO домов владельца по курсору.
+     * Дома выбираются через таблицу связи house_owner по индексу (owner_id, house_id),
+     * коллекция Person.ownedHouses не загружается.
+     *
+     * @param ownerId идентификатор владельца.
+     * @param order   порядок сортировки.
+     * @param after   курсор последней записи предыдущей страницы или null для первой страницы.
+     * @param limit   размер страницы.
+     * @return Страница DTO домов.
+     */
+    @Override
+    public CursorPageDto<HouseResponseDto> getOwnedHousesPage(long ownerId, SortOrder order, String after, int limit) {
+        return Keyset.fetch(entityManager, HOUSE_DTO, "Person o JOIN o.ownedHouses h WHERE o.id = :ownerId", "h",
+                HOUSE_SORT, order, after, limit, "ownerId", ownerId);
+    }
+
+    /**
+     * Считает дома владельца по индексу ix_house_owner_owner_id_house_id, не присоединяя дома.
+     *
+     * @param ownerId идентификатор владельца.
+     * @return Количество домов.
+     */
+    @Override
+    public long countOwnedHouses(long ownerId) {
+        return ((Number) entityManager.createNativeQuery("SELECT count(*) FROM house_owner WHERE owner_id = :ownerId")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("house_owner")
+                .setParameter("ownerId", ownerId)
+                .getSingleResult())
+                .longValue();
+    }
+
+    private static List<Predicate> toPredicates(CriteriaBuilder builder, Root<House> house, HouseFilterDto filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getCountry() != null) {
+            predicates.add(builder.equal(house.get("country"), filter.getCountry()));
+        }
+        if (filter.getCity() != null) {
+            predicates.add(builder.equal(house.get("city"), filter.getCity()));
+        }
+        if (filter.getStreet() != null) {
+            predicates.add(builder.equal(house.get("street"), filter.getStreet()));
+        }
+        if (filter.getAreaFrom() != null) {
+            predicates.add(builder.ge(house.<Double>get("area"), filter.getAreaFrom()));
+        }
+        if (filter.getAreaTo() != null) {
+            predicates.add(builder.le(house.<Double>get("area"), filter.getAreaTo()));
+        }
+        if (filter.getCreatedFrom() != null) {
+            predicates.add(builder.greaterThanOrEqualTo(house.<LocalDateTime>get("createDate"), filter.getCreatedFrom()));
+        }
+        if (filter.getCreatedTo() != null) {
+            predicates.add(builder.lessThan(house.<LocalDateTime>get("createDate"), filter.getCreatedTo()));
+        }
+        return predicates;
+    }
+
+    private static HouseResponseDto toHouseDto(Object[] row) {
+        return new HouseResponseDto((UUID) row[0], (Double) row[1], (String) row[2], (String) row[3],
+                (String) row[4], (String) row[5], (LocalDateTime) row[6]);
     }
 }
@@ -0,0 +1,255 @@
+package by.clevertec.house.dao.impl;
+
+import by.clevertec.house.dao.HouseDao;
+import by.clevertec.house.dao.HouseIdResolver;
+import by.clevertec.house.entity.House;
+import by.clevertec.house.util.UuidLongMap;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Разрешение UUID домов во внутренние идентификаторы по таблице в памяти процесса.
+ * Таблица {@link UuidLongMap} загружается целиком при первом обращении одним проходом серверного курсора
+ * и далее поддерживается слушателями Hibernate, которые вызываются после фиксации транзакции:
+ * вставка дома добавляет запись, удаление сущности - удаляет. Дома, удаленные запросом DELETE,
+ * удаляются из таблицы через {@link #removeAfterCommit(UUID)}. Отсутствующие в таблице UUID ищутся в базе данных,
+ * поэтому дом, созданный другим экземпляром приложения, все равно будет найден.
+ * Удаление дома другим экземпляром таблица не видит: при нескольких экземплярах, изменяющих дома,
+ * таблицу следует отключить параметром houses.id-resolver.enabled.
+ */
+@Repository
+public class HouseIdResolverImpl implements HouseIdResolver {
+
+    private final HouseDao houseDao;
+    private final SessionFactory sessionFactory;
+    private final boolean enabled;
+    private final int loadFetchSize;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile UuidLongMap ids;
+
+    public HouseIdResolverImpl(HouseDao houseDao, EntityManagerFactory entityManagerFactory,
+                               @Value("${houses.id-resolver.enabled:true}") boolean enabled,
+                               @Value("${export.fetch-size:1000}") int loadFetchSize) {
+        this.houseDao = houseDao;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.enabled = enabled;
+        this.loadFetchSize = loadFetchSize;
+        if (enabled) {
+            EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                    .getServiceRegistry()
+                    .getService(EventListenerRegistry.class);
+            HouseListener listener = new HouseListener();
+            registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+            registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        }
+    }
+
+    /**
+     * Получает внутренний идентификатор дома по его UUID.
+     * Запрос к базе данных выполняется, только если UUID нет в таблице.
+     *
+     * @param uuid UUID дома.
+     * @return Optional с идентификатором или пустой Optional, если дом не найден.
+     */
+    @Override
+    public Optional<Long> findHouseId(UUID uuid) {
+        if (!enabled) {
+            return houseDao.findHouseIdByUuid(uuid);
+        }
+        long id = get(uuid);
+        return id != UuidLongMap.MISSING ? Optional.of(id) : houseDao.findHouseIdByUuid(uuid);
+    }
+
+    /**
+     * Получает внутренние идентификаторы домов по списку UUID.
+     * UUID, которых нет в таблице, ищутся в базе данных одним запросом с условием IN на порцию.
+     *
+     * @param uuids UUID домов.
+     * @return Идентификаторы найденных домов по их UUID; отсутствующие UUID в результат не попадают.
+     */
+    @Override
+    public Map<UUID, Long> findHouseIds(Collection<UUID> uuids) {
+        if (!enabled) {
+            return houseDao.findHouseIdsByUuids(uuids);
+        }
+        Map<UUID, Long> result = new HashMap<>();
+        List<UUID> missingUuids = new ArrayList<>();
+        UuidLongMap table = loaded();
+        lock.readLock().lock();
+        try {
+            for (UUID uuid : new LinkedHashSet<>(uuids)) {
+                long id = table.get(uuid);
+                if (id == UuidLongMap.MISSING) {
+                    missingUuids.add(uuid);
+                } else {
+                    result.put(uuid, id);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (!missingUuids.isEmpty()) {
+            result.putAll(houseDao.findHouseIdsByUuids(missingUuids));
+        }
+        return result;
+    }
+
+    /**
+     * Удаляет UUID дома из таблицы после фиксации текущей транзакции.
+     * Вызывается при удалении дома запросом DELETE, для которого Hibernate не создает событий удаления сущности.
+     * Вне транзакции UUID удаляется сразу.
+     *
+     * @param uuid UUID удаляемого дома.
+     */
+    @Override
+    public void removeAfterCommit(UUID uuid) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update(table -> table.remove(uuid));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update(table -> table.remove(uuid));
+            }
+        });
+    }
+
+    private long get(UUID uuid) {
+        UuidLongMap table = loaded();
+        lock.readLock().lock();
+        try {
+            return table.get(uuid);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Изменяет таблицу, если она уже загружена. До загрузки изменение не нужно: загрузка прочитает
+     * зафиксированное состояние, а изменения, зафиксированные во время загрузки, ждут ее окончания.
+     *
+     * @param change изменение таблицы.
+     */
+    private void update(Consumer<UuidLongMap> change) {
+        lock.writeLock().lock();
+        try {
+            if (ids != null) {
+                change.accept(ids);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает таблицу, загружая ее при первом обращении. Загрузка выполняется под блокировкой записи,
+     * поэтому изменения от слушателей, пришедшие во время загрузки, применяются после нее.
+     *
+     * @return Загруженная таблица.
+     */
+    private UuidLongMap loaded() {
+        UuidLongMap table = ids;
+        if (table != null) {
+            return table;
+        }
+        lock.writeLock().lock();
+        try {
+            if (ids == null) {
+                ids = load();
+            }
+            return ids;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Читает UUID и идентификаторы всех домов серверным курсором в отдельной транзакции,
+     * без создания сущностей и без данных незафиксированной транзакции вызывающего потока.
+     *
+     * @return Заполненная таблица.
+     */
+    private UuidLongMap load() {
+        UuidLongMap table = new UuidLongMap(loadFetchSize);
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Transaction transaction = session.beginTransaction();
+            try (ScrollableResults<Object[]> rows = session
+                    .createQuery("SELECT h.uuid, h.id FROM House h", Object[].class)
+                    .setFetchSize(loadFetchSize)
+                    .setReadOnly(true)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+                while (rows.next()) {
+                    Object[] row = rows.get();
+                    table.put((UUID) row[0], (Long) row[1]);
+                }
+            }
+            transaction.commit();
+        }
+        return table;
+    }
+
+    /**
+     * Слушатель вставок и удалений домов, вызываемый после фиксации транзакции.
+     * Откаченные изменения в таблицу не попадают.
+     */
+    private class HouseListener implements PostCommitInsertEventListener, PostCommitDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            if (event.getEntity() instanceof House house) {
+                update(table -> table.put(house.getUuid(), house.getId()));
+            }
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            if (event.getEntity() instanceof House house) {
+                update(table -> table.remove(house.getUuid()));
+            }
+        }
+
+        @Override
+        public void onPostInsertCommitFailed(PostInsertEvent event) {
+        }
+
+        @Override
+        public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return House.class.equals(persister.getMappedClass());
+        }
+    }
+}
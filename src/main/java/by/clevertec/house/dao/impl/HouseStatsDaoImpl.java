@@ -0,0 +1,258 @@
+package by.clevertec.house.dao.impl;
+
+import by.clevertec.house.dao.HouseStatsDao;
+import by.clevertec.house.dto.HouseStatsResponseDto;
+import by.clevertec.house.entity.HouseLocation;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Реализация DAO для сводной статистики домов по городам.
+ * Статистика хранится в таблице house_city_stats и пересчитывается по одному городу,
+ * статистика по странам агрегируется из нее при чтении. Города, ожидающие пересчета,
+ * хранятся в таблице house_stats_pending.
+ */
+@Transactional
+@Repository
+@RequiredArgsConstructor
+public class HouseStatsDaoImpl implements HouseStatsDao {
+
+    private static final String STATS_TABLE = "house_city_stats";
+
+    private static final String PENDING_TABLE = "house_stats_pending";
+
+    private static final String INSERT_PENDING = "INSERT INTO " + PENDING_TABLE + " (country, city) VALUES (?, ?)";
+
+    private static final String SELECT_PENDING = "SELECT country, city, array_agg(id) FROM " + PENDING_TABLE
+            + " GROUP BY country, city";
+
+    private static final String DELETE_PENDING = "DELETE FROM " + PENDING_TABLE + " WHERE id = ANY (?)";
+
+    /**
+     * Блокировка пересчета одного города до конца транзакции. Конкурирующие пересчеты выполняются
+     * последовательно, и последний из них читает данные после фиксации всех предыдущих изменений.
+     */
+    private static final String LOCK_LOCATION = "SELECT 1 FROM (SELECT pg_advisory_xact_lock("
+            + "hashtext('" + STATS_TABLE + "'), hashtext(:country || '/' || :city))) l";
+
+    private static final String UPSERT_LOCATION = "INSERT INTO " + STATS_TABLE
+            + " (country, city, house_count, total_area, resident_count, owner_count, update_date) "
+            + "SELECT h.country, h.city, count(*), sum(h.area), sum(r.residents), sum(o.owners), localtimestamp "
+            + "FROM houses h "
+            + "CROSS JOIN LATERAL (SELECT count(*) AS residents FROM persons p WHERE p.house_id = h.id) r "
+            + "CROSS JOIN LATERAL (SELECT count(*) AS owners FROM house_owner ho WHERE ho.house_id = h.id) o "
+            + "WHERE h.country = :country AND h.city = :city "
+            + "GROUP BY h.country, h.city "
+            + "ON CONFLICT (country, city) DO UPDATE SET house_count = EXCLUDED.house_count, "
+            + "total_area = EXCLUDED.total_area, resident_count = EXCLUDED.resident_count, "
+            + "owner_count = EXCLUDED.owner_count, update_date = EXCLUDED.update_date";
+
+    private static final String DELETE_LOCATION = "DELETE FROM " + STATS_TABLE
+            + " WHERE country = :country AND city = :city";
+
+    @PersistenceContext
+    private final EntityManager entityManager;
+
+    /**
+     * Получает статистику домов по всем городам.
+     *
+     * @return Список DTO статистики, упорядоченный по стране и городу.
+     */
+    @Override
+    public List<HouseStatsResponseDto> getCityStats() {
+        return entityManager
+                .createQuery("SELECT new by.clevertec.house.dto.HouseStatsResponseDto(s.location.country, "
+                        + "s.location.city, s.houseCount, s.totalArea, s.residentCount, s.ownerCount) "
+                        + "FROM HouseCityStats s ORDER BY s.location.country, s.location.city",
+                        HouseStatsResponseDto.class)
+                .getResultList();
+    }
+
+    /**
+     * Получает статистику домов по всем странам, суммируя статистику их городов.
+     *
+     * @return Список DTO статистики, упорядоченный по стране.
+     */
+    @Override
+    public List<HouseStatsResponseDto> getCountryStats() {
+        return entityManager
+                .createQuery("SELECT new by.clevertec.house.dto.HouseStatsResponseDto(s.location.country, "
+                        + "sum(s.houseCount), sum(s.totalArea), sum(s.residentCount), sum(s.ownerCount)) "
+                        + "FROM HouseCityStats s GROUP BY s.location.country ORDER BY s.location.country",
+                        HouseStatsResponseDto.class)
+                .getResultList();
+    }
+
+    /**
+     * Получает местоположения домов по их UUID.
+     *
+     * @param houseUuids UUID домов.
+     * @return Список различных местоположений найденных домов.
+     */
+    @Override
+    public List<HouseLocation> findLocationsByHouseUuids(Collection<UUID> houseUuids) {
+        if (houseUuids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager
+                .createQuery("SELECT DISTINCT new by.clevertec.house.entity.HouseLocation(h.country, h.city) "
+                        + "FROM House h WHERE h.uuid IN :uuids", HouseLocation.class)
+                .setParameter("uuids", houseUuids)
+                .getResultList();
+    }
+
+    /**
+     * Получает местоположение дома, в котором проживает персона.
+     *
+     * @param personUuid UUID персоны.
+     * @return Optional с местоположением дома или пустой Optional, если персона не найдена.
+     */
+    @Override
+    public Optional<HouseLocation> findResidenceLocation(UUID personUuid) {
+        return entityManager
+                .createQuery("SELECT new by.clevertec.house.entity.HouseLocation(h.country, h.city) "
+                        + "FROM Person p JOIN p.house h WHERE p.uuid = :uuid", HouseLocation.class)
+                .setParameter("uuid", personUuid)
+                .getResultStream()
+                .findFirst();
+    }
+
+    /**
+     * Получает местоположения дома проживания и домов во владении персоны без загрузки ее коллекций.
+     *
+     * @param personUuid UUID персоны.
+     * @return Список различных местоположений или пустой список, если персона не найдена.
+     */
+    @Override
+    public List<HouseLocation> findPersonLocations(UUID personUuid) {
+        return entityManager
+                .createQuery("SELECT DISTINCT new by.clevertec.house.entity.HouseLocation(h.country, h.city) "
+                        + "FROM House h WHERE h.id IN (SELECT p.house.id FROM Person p WHERE p.uuid = :uuid) "
+                        + "OR h.id IN (SELECT o.id FROM Person p JOIN p.ownedHouses o WHERE p.uuid = :uuid)",
+                        HouseLocation.class)
+                .setParameter("uuid", personUuid)
+                .getResultList();
+    }
+
+    /**
+     * Получает местоположения домов, которыми владеют жильцы дома.
+     *
+     * @param houseUuid UUID дома.
+     * @return Список различных местоположений.
+     */
+    @Override
+    public List<HouseLocation> findLocationsOwnedByResidents(UUID houseUuid) {
+        return entityManager
+                .createQuery("SELECT DISTINCT new by.clevertec.house.entity.HouseLocation(h.country, h.city) "
+                        + "FROM Person p JOIN p.ownedHouses h WHERE p.house.uuid = :uuid", HouseLocation.class)
+                .setParameter("uuid", houseUuid)
+                .getResultList();
+    }
+
+    /**
+     * Отмечает города для пересчета статистики одним пакетом JDBC в текущей транзакции.
+     * Таблица только пополняется, поэтому параллельные транзакции, изменяющие один город, не блокируют друг друга.
+     *
+     * @param locations местоположения.
+     */
+    @Override
+    public void addPendingLocations(Collection<HouseLocation> locations) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_PENDING)) {
+                for (HouseLocation location : locations) {
+                    insert.setString(1, location.getCountry());
+                    insert.setString(2, location.getCity());
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        });
+    }
+
+    /**
+     * Получает города, ожидающие пересчета, вместе с идентификаторами их зафиксированных отметок.
+     *
+     * @return Идентификаторы отметок по местоположению.
+     */
+    @Override
+    public Map<HouseLocation, List<Long>> findPendingLocations() {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            Map<HouseLocation, List<Long>> pending = new LinkedHashMap<>();
+            try (PreparedStatement select = connection.prepareStatement(SELECT_PENDING);
+                 ResultSet rows = select.executeQuery()) {
+                while (rows.next()) {
+                    Array ids = rows.getArray(3);
+                    pending.put(new HouseLocation(rows.getString(1), rows.getString(2)),
+                            List.of((Long[]) ids.getArray()));
+                    ids.free();
+                }
+            }
+            return pending;
+        });
+    }
+
+    /**
+     * Пересчитывает статистику одного города по таблицам домов, жильцов и владельцев
+     * и удаляет обработанные отметки города в отдельной транзакции. Если домов в городе не осталось,
+     * строка статистики удаляется. Удаляются только отметки, прочитанные до пересчета: их изменения уже
+     * зафиксированы и видны запросу пересчета, а отметки, зафиксированные позже, остаются до следующего пересчета.
+     * При ошибке транзакция откатывается и отметки сохраняются.
+     * Запросы используют индексы houses (country, city), persons (house_id) и первичный ключ house_owner.
+     *
+     * @param location   страна и город.
+     * @param pendingIds идентификаторы обработанных отметок города.
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void refreshLocation(HouseLocation location, Collection<Long> pendingIds) {
+        entityManager.createNativeQuery(LOCK_LOCATION)
+                .setParameter("country", location.getCountry())
+                .setParameter("city", location.getCity())
+                .getSingleResult();
+        int upserted = executeUpdate(UPSERT_LOCATION, location);
+        if (upserted == 0) {
+            executeUpdate(DELETE_LOCATION, location);
+        }
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement delete = connection.prepareStatement(DELETE_PENDING)) {
+                Array ids = connection.createArrayOf("bigint", pendingIds.toArray());
+                delete.setArray(1, ids);
+                delete.executeUpdate();
+                ids.free();
+            }
+        });
+    }
+
+    /**
+     * Выполняет изменяющий нативный запрос над таблицей статистики.
+     * Пространство запроса ограничено таблицей статистики, чтобы Hibernate не очищал
+     * второй уровень кэша домов и персон.
+     *
+     * @param sql      текст запроса.
+     * @param location страна и город.
+     * @return Количество измененных строк.
+     */
+    private int executeUpdate(String sql, HouseLocation location) {
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(STATS_TABLE)
+                .setParameter("country", location.getCountry())
+                .setParameter("city", location.getCity())
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,288 @@
+package by.clevertec.house.dao.impl;
+
+import by.clevertec.house.dto.CursorPageDto;
+import by.clevertec.house.util.Constant.Sort;
+import by.clevertec.house.util.CursorCodec;
+import by.clevertec.house.util.SortOrder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import lombok.Value;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Постраничная выборка по составному ключу (значение поля сортировки, идентификатор).
+ * Условие "после курсора" совпадает с порядком сортировки, поэтому страница читается
+ * диапазоном без пропуска строк через OFFSET. Идентификатор делает ключ уникальным при равных значениях поля.
+ * Условие содержит избыточную границу k >= :afterKey (k <= :afterKey при убывании): без нее PostgreSQL
+ * не выделяет из дизъюнкции начало диапазона индекса (k, id) и читает индекс с начала, отбрасывая строки.
+ */
+@UtilityClass
+class Keyset {
+
+    private static final char KEY_SEPARATOR = ':';
+    private static final String ID = "id";
+
+    /**
+     * Создает поле сортировки строкового типа.
+     *
+     * @param attribute имя атрибута сущности.
+     * @return Поле сортировки.
+     */
+    static Column string(String attribute) {
+        return new Column(attribute, value -> value);
+    }
+
+    /**
+     * Создает поле сортировки типа LocalDateTime.
+     *
+     * @param attribute имя атрибута сущности.
+     * @return Поле сортировки.
+     */
+    static Column dateTime(String attribute) {
+        return new Column(attribute, LocalDateTime::parse);
+    }
+
+    /**
+     * Создает поле сортировки типа Double.
+     *
+     * @param attribute имя атрибута сущности.
+     * @return Поле сортировки.
+     */
+    static Column number(String attribute) {
+        return new Column(attribute, Double::valueOf);
+    }
+
+    /**
+     * Выбирает страницу строк JPQL-запроса, следующих за курсором в заданном порядке.
+     * Строки выбираются с лимитом limit + 1: наличие лишней строки означает, что существует следующая страница.
+     *
+     * @param entityManager менеджер сущностей.
+     * @param projection    выражение JPQL элемента страницы.
+     * @param fromWhere     часть запроса от FROM до условия WHERE включительно.
+     * @param alias         псевдоним сущности, по атрибутам которой выполняется сортировка.
+     * @param columns       разрешенные поля сортировки, кроме идентификатора.
+     * @param order         порядок сортировки.
+     * @param after         курсор последней записи предыдущей страницы или null для первой страницы.
+     * @param limit         размер страницы.
+     * @param parameter     имя параметра условия WHERE.
+     * @param value         значение параметра условия WHERE.
+     * @param <T>           тип элементов страницы.
+     * @return Страница с курсором, указывающим на ключ последнего элемента.
+     * @throws IllegalArgumentException если курсор поврежден или получен при другой сортировке.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> CursorPageDto<T> fetch(EntityManager entityManager, String projection, String fromWhere, String alias,
+                                      Map<String, Column> columns, SortOrder order, String after, int limit,
+                                      String parameter, Object value) {
+        Column column = column(columns, order);
+        CursorCodec.Key key = decode(after, column);
+        String idPath = alias + "." + ID;
+        String keyPath = column == null ? null : alias + "." + column.getAttribute();
+        String operator = order.isDescending() ? " < " : " > ";
+        String bound = order.isDescending() ? " <= " : " >= ";
+        String direction = order.isDescending() ? " DESC" : "";
+
+        StringBuilder jpql = new StringBuilder("SELECT ").append(projection).append(", ").append(idPath);
+        if (column != null) {
+            jpql.append(", ").append(keyPath);
+        }
+        jpql.append(" FROM ").append(fromWhere);
+        if (key != null && column == null) {
+            jpql.append(" AND ").append(idPath).append(operator).append(":afterId");
+        } else if (key != null) {
+            jpql.append(" AND ").append(keyPath).append(bound).append(":afterKey")
+                    .append(" AND (").append(keyPath).append(operator).append(":afterKey OR (")
+                    .append(keyPath).append(" = :afterKey AND ")
+                    .append(idPath).append(operator).append(":afterId))");
+        }
+        jpql.append(" ORDER BY ");
+        if (column != null) {
+            jpql.append(keyPath).append(direction).append(", ");
+        }
+        jpql.append(idPath).append(direction);
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class)
+                .setParameter(parameter, value)
+                .setMaxResults(limit + 1);
+        if (key != null) {
+            query.setParameter("afterId", key.getId());
+            if (column != null) {
+                query.setParameter("afterKey", parseKey(column, order, key, after));
+            }
+        }
+        return page(query.getResultList(), limit, order, column != null, row -> (T) row[0], 1);
+    }
+
+    /**
+     * Выбирает страницу строк Criteria-запроса, следующих за курсором в заданном порядке.
+     * Выбираются только перечисленные атрибуты, идентификатор и значение поля сортировки;
+     * управляемые сущности не создаются.
+     *
+     * @param entityManager менеджер сущностей.
+     * @param entityClass   класс сущности.
+     * @param attributes    выбираемые атрибуты сущности; вложенные атрибуты записываются через точку.
+     * @param mapper        преобразование значений атрибутов в элемент страницы.
+     * @param filters       условия фильтрации.
+     * @param columns       разрешенные поля сортировки, кроме идентификатора.
+     * @param order         порядок сортировки.
+     * @param after         курсор последней записи предыдущей страницы или null для первой страницы.
+     * @param limit         размер страницы.
+     * @param <E>           тип сущности.
+     * @param <T>           тип элементов страницы.
+     * @return Страница с курсором, указывающим на ключ последнего элемента.
+     * @throws IllegalArgumentException если курсор поврежден или получен при другой сортировке.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <E, T> CursorPageDto<T> fetch(EntityManager entityManager, Class<E> entityClass, List<String> attributes,
+                                         Function<Object[], T> mapper,
+                                         BiFunction<CriteriaBuilder, Root<E>, List<Predicate>> filters,
+                                         Map<String, Column> columns, SortOrder order, String after, int limit) {
+        Column column = column(columns, order);
+        CursorCodec.Key key = decode(after, column);
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = builder.createQuery(Object[].class);
+        Root<E> root = query.from(entityClass);
+        Expression<Long> id = root.get(ID);
+        Expression<Comparable> sortKey = column == null ? null : path(root, column.getAttribute());
+
+        List<Selection<?>> selections = new ArrayList<>();
+        attributes.forEach(attribute -> selections.add(path(root, attribute)));
+        selections.add(id);
+        if (sortKey != null) {
+            selections.add(sortKey);
+        }
+
+        List<Predicate> predicates = new ArrayList<>(filters.apply(builder, root));
+        if (key != null) {
+            Predicate afterId = order.isDescending()
+                    ? builder.lessThan(id, key.getId())
+                    : builder.greaterThan(id, key.getId());
+            if (sortKey == null) {
+                predicates.add(afterId);
+            } else {
+                Comparable afterKey = (Comparable) parseKey(column, order, key, after);
+                predicates.add(order.isDescending()
+                        ? builder.lessThanOrEqualTo(sortKey, afterKey)
+                        : builder.greaterThanOrEqualTo(sortKey, afterKey));
+                predicates.add(builder.or(
+                        order.isDescending()
+                                ? builder.lessThan(sortKey, afterKey)
+                                : builder.greaterThan(sortKey, afterKey),
+                        builder.and(builder.equal(sortKey, afterKey), afterId)));
+            }
+        }
+
+        List<Order> orders = new ArrayList<>();
+        if (sortKey != null) {
+            orders.add(order.isDescending() ? builder.desc(sortKey) : builder.asc(sortKey));
+        }
+        orders.add(order.isDescending() ? builder.desc(id) : builder.asc(id));
+
+        query.multiselect(selections)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(orders);
+        List<Object[]> rows = entityManager.createQuery(query)
+                .setMaxResults(limit + 1)
+                .getResultList();
+        return page(rows, limit, order, column != null, mapper, attributes.size());
+    }
+
+    private static Column column(Map<String, Column> columns, SortOrder order) {
+        if (Sort.ID.equals(order.getField())) {
+            return null;
+        }
+        Column column = columns.get(order.getField());
+        if (column == null) {
+            throw new IllegalArgumentException("Unsupported sort field: " + order.getField());
+        }
+        return column;
+    }
+
+    private static CursorCodec.Key decode(String after, Column column) {
+        if (after == null || after.isEmpty()) {
+            return null;
+        }
+        CursorCodec.Key key = CursorCodec.decodeKey(after);
+        if (column == null && key.getValue() != null) {
+            throw new IllegalArgumentException("Invalid cursor: " + after);
+        }
+        return key;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <X> Path<X> path(Root<?> root, String attribute) {
+        Path<?> path = root;
+        for (String name : attribute.split("\\.")) {
+            path = path.get(name);
+        }
+        return (Path<X>) path;
+    }
+
+    /**
+     * Формирует страницу из строк вида [значения элемента..., идентификатор, значение поля сортировки].
+     *
+     * @param rows    строки, выбранные с лимитом limit + 1.
+     * @param limit   размер страницы.
+     * @param order   порядок сортировки.
+     * @param keyed   содержат ли строки значение поля сортировки.
+     * @param mapper  преобразование строки в элемент страницы.
+     * @param idIndex индекс идентификатора в строке.
+     * @param <T>     тип элементов страницы.
+     * @return Страница с курсором следующей страницы.
+     */
+    private static <T> CursorPageDto<T> page(List<Object[]> rows, int limit, SortOrder order, boolean keyed,
+                                             Function<Object[], T> mapper, int idIndex) {
+        boolean hasNext = rows.size() > limit;
+        List<Object[]> pageRows = hasNext ? rows.subList(0, limit) : rows;
+        List<T> items = new ArrayList<>(pageRows.size());
+        for (Object[] row : pageRows) {
+            items.add(mapper.apply(row));
+        }
+        String nextCursor = null;
+        if (hasNext) {
+            Object[] last = pageRows.get(limit - 1);
+            long id = (Long) last[idIndex];
+            nextCursor = keyed
+                    ? CursorCodec.encode(id, order.getField() + KEY_SEPARATOR + last[idIndex + 1])
+                    : CursorCodec.encode(id);
+        }
+        return new CursorPageDto<>(items, nextCursor);
+    }
+
+    private static Object parseKey(Column column, SortOrder order, CursorCodec.Key key, String cursor) {
+        String prefix = order.getField() + KEY_SEPARATOR;
+        if (key.getValue() == null || !key.getValue().startsWith(prefix)) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        try {
+            return column.getParser().apply(key.getValue().substring(prefix.length()));
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    /**
+     * Поле сортировки: атрибут сущности и разбор значения поля из курсора.
+     */
+    @Value
+    static class Column {
+
+        String attribute;
+        Function<String, Object> parser;
+    }
+}
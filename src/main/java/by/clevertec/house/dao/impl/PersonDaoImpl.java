@@ -1,15 +1,41 @@
 package by.clevertec.house.dao.impl;
 
 import by.clevertec.house.dao.PersonDao;
+import by.clevertec.house.dto.CursorPageDto;
+import by.clevertec.house.dto.EntityVersionDto;
+import by.clevertec.house.dto.PatchResultDto;
+import by.clevertec.house.dto.PersonFilterDto;
+import by.clevertec.house.dto.PersonResponseDto;
 import by.clevertec.house.entity.Person;
+import by.clevertec.house.entity.Sex;
 import by.clevertec.house.exception.EntityNotFoundException;
+import by.clevertec.house.util.Chunks;
+import by.clevertec.house.util.Constant.Sort;
+import by.clevertec.house.util.SortOrder;
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -21,11 +47,43 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class PersonDaoImpl implements PersonDao {
 
+    /**
+     * Проекция персоны в DTO для JPQL-запросов чтения.
+     */
+    private static final String PERSON_DTO = "new by.clevertec.house.dto.PersonResponseDto("
+            + "p.uuid, p.name, p.surname, p.sex, p.passportData.passportSeries, p.passportData.passportNumber, "
+            + "p.createDate, p.updateDate)";
+
+    /**
+     * Атрибуты персоны, выбираемые Criteria-запросами в порядке параметров конструктора PersonResponseDto.
+     */
+    private static final List<String> PERSON_ATTRIBUTES = List.of("uuid", "name", "surname", "sex",
+            "passportData.passportSeries", "passportData.passportNumber", "createDate", "updateDate");
+
+    /**
+     * Поля сортировки постраничных выборок персон, кроме идентификатора.
+     */
+    private static final Map<String, Keyset.Column> PERSON_SORT = Map.of(
+            Sort.NAME, Keyset.string("name"),
+            Sort.SURNAME, Keyset.string("surname"),
+            Sort.CREATE_DATE, Keyset.dateTime("createDate"));
+
+    /**
+     * Столбцы PersonResponseDto и идентификатор для нативных запросов поиска.
+     */
+    private static final String PERSON_COLUMNS = "SELECT p.uuid, p.name, p.surname, p.sex, p.passport_series, "
+            + "p.passport_number, p.create_date, p.update_date, p.id FROM persons p ";
+
     @PersistenceContext
     private final EntityManager entityManager;
 
+    @Value("${export.fetch-size:1000}")
+    private int exportFetchSize;
+
     /**
-     * Получает PersonEntity по его UUID из базы данных.
+     * Получает PersonEntity по его UUID.
+     * UUID является естественным идентификатором: поиск сначала обращается к кэшу естественных
+     * идентификаторов и второму уровню кэша и только при промахе выполняет запрос к базе данных.
      *
      * @param uuid UUID PersonEntity.
      * @return PersonEntity.
@@ -33,32 +91,334 @@ public class PersonDaoImpl implements PersonDao {
      */
     @Override
     public Person getPersonByUuid(UUID uuid) {
-        try {
-            return entityManager
-                    .createQuery("SELECT p FROM Person p WHERE p.uuid = :uuid", Person.class)
-                    .setParameter("uuid", uuid)
-                    .getSingleResult();
-        } catch (NoResultException e) {
-            throw EntityNotFoundException.of(Person.class, uuid);
-        }
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Person.class)
+                .loadOptional(uuid)
+                .orElseThrow(() -> EntityNotFoundException.of(Person.class, uuid));
+    }
+
+    /**
+     * Получает внутренний идентификатор персоны по ее UUID без загрузки сущности.
+     *
+     * @param uuid UUID персоны.
+     * @return Optional с идентификатором или пустой Optional, если персона не найдена.
+     */
+    @Override
+    public Optional<Long> findPersonIdByUuid(UUID uuid) {
+        return entityManager
+                .createQuery("SELECT p.id FROM Person p WHERE p.uuid = :uuid", Long.class)
+                .setParameter("uuid", uuid)
+                .getResultStream()
+                .findFirst();
+    }
+
+    /**
+     * Ищет версию и дату последнего изменения персоны по ее UUID.
+     * Выбираются только два столбца, сущность не загружается.
+     *
+     * @param uuid UUID персоны.
+     * @return Optional с версией персоны или пустой Optional, если персона не найдена.
+     */
+    @Override
+    public Optional<EntityVersionDto> findPersonVersionByUuid(UUID uuid) {
+        return entityManager
+                .createQuery("SELECT new by.clevertec.house.dto.EntityVersionDto(p.version, p.updateDate) "
+                        + "FROM Person p WHERE p.uuid = :uuid", EntityVersionDto.class)
+                .setParameter("uuid", uuid)
+                .getResultStream()
+                .findFirst();
     }
 
     /**
-     * Получает все PersonEntity из базы данных с пагинацией.
+     * Получает DTO всех персон из базы данных с пагинацией.
+     * Выбираются только возвращаемые клиенту столбцы: дом персоны не присоединяется,
+     * управляемые сущности не создаются.
      *
      * @param pageNumber номер страницы.
      * @param pageSize   размер страницы.
-     * @return Список PersonEntity.
+     * @return Список DTO персон.
      */
     @Override
-    public List<Person> getAllPersons(int pageNumber, int pageSize) {
+    public List<PersonResponseDto> getAllPersons(int pageNumber, int pageSize) {
         return entityManager
-                .createQuery("SELECT p FROM Person p", Person.class)
+                .createQuery("SELECT " + PERSON_DTO + " FROM Person p ORDER BY p.id", PersonResponseDto.class)
                 .setFirstResult((pageNumber - 1) * pageSize)
                 .setMaxResults(pageSize)
                 .getResultList();
     }
 
+    /**
+     * Получает страницу DTO персон с идентификатором больше заданного, упорядоченных по идентификатору.
+     * Используется для постраничной выборки по ключу без OFFSET.
+     *
+     * @param afterId идентификатор последней записи предыдущей страницы (0 для первой страницы).
+     * @param limit   размер страницы.
+     * @return Страница DTO персон с курсором следующей страницы.
+     */
+    @Override
+    public CursorPageDto<PersonResponseDto> getPersonsAfter(long afterId, int limit) {
+        List<Object[]> rows = entityManager
+                .createQuery("SELECT " + PERSON_DTO + ", p.id FROM Person p WHERE p.id > :afterId ORDER BY p.id",
+                        Object[].class)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit + 1)
+                .getResultList();
+        return CursorPageDto.fromRows(rows, limit);
+    }
+
+    /**
+     * Получает страницу DTO персон, удовлетворяющих фильтру, в заданном порядке.
+     * Запрос строится через Criteria API только из условий, заданных в фильтре;
+     * каждое условие использует один из индексов persons, миграция V1_1_10__add_list_filter_indexes.sql.
+     *
+     * @param filter фильтр персон.
+     * @param order  порядок сортировки.
+     * @param after  курсор последней записи предыдущей страницы или null для первой страницы.
+     * @param limit  размер страницы.
+     * @return Страница DTO персон с курсором следующей страницы.
+     */
+    @Override
+    public CursorPageDto<PersonResponseDto> findPersons(PersonFilterDto filter, SortOrder order, String after,
+                                                        int limit) {
+        return Keyset.fetch(entityManager, Person.class, PERSON_ATTRIBUTES, PersonDaoImpl::toPersonDto,
+                (builder, person) -> toPredicates(builder, person, filter), PERSON_SORT, order, after, limit);
+    }
+
+    /**
+     * Считает персон, удовлетворяющих фильтру, с теми же условиями, что и выборка страницы в findPersons.
+     *
+     * @param filter фильтр персон; пустой фильтр считает всех персон.
+     * @return Количество персон.
+     */
+    @Override
+    public long countPersons(PersonFilterDto filter) {
+        return RowCounts.count(entityManager, Person.class, (builder, person) -> toPredicates(builder, person, filter));
+    }
+
+    /**
+     * Оценивает количество всех персон по статистике планировщика PostgreSQL, не читая таблицу persons.
+     *
+     * @return Оценка количества персон или пустой Optional, если статистика таблицы еще не собрана.
+     */
+    @Override
+    public Optional<Long> estimatePersonCount() {
+        return RowCounts.estimate(entityManager, "persons");
+    }
+
+    /**
+     * Ищет DTO персон по списку различных UUID.
+     * Выбираются только возвращаемые клиенту столбцы, по одному запросу с условием IN
+     * на каждые IN_CLAUSE_CHUNK_SIZE UUID.
+     *
+     * @param uuids различные UUID персон.
+     * @return Список DTO найденных персон в произвольном порядке.
+     */
+    @Override
+    public List<PersonResponseDto> findPersonDtosByUuids(List<UUID> uuids) {
+        List<PersonResponseDto> persons = new ArrayList<>(uuids.size());
+        for (List<UUID> chunk : Chunks.partition(uuids, Chunks.IN_CLAUSE_CHUNK_SIZE)) {
+            persons.addAll(entityManager
+                    .createQuery("SELECT " + PERSON_DTO + " FROM Person p WHERE p.uuid IN :uuids",
+                            PersonResponseDto.class)
+                    .setParameter("uuids", chunk)
+                    .getResultList());
+        }
+        return persons;
+    }
+
+    /**
+     * Ищет DTO персоны по серии и номеру паспорта.
+     * Запрос использует уникальный индекс (passport_series, passport_number).
+     *
+     * @param passportSeries серия паспорта.
+     * @param passportNumber номер паспорта.
+     * @return Optional с DTO персоны или пустой Optional, если персона не найдена.
+     */
+    @Override
+    public Optional<PersonResponseDto> findPersonByPassport(String passportSeries, String passportNumber) {
+        return entityManager
+                .createQuery("SELECT " + PERSON_DTO + " FROM Person p WHERE p.passportData.passportSeries = :series "
+                        + "AND p.passportData.passportNumber = :number", PersonResponseDto.class)
+                .setParameter("series", passportSeries)
+                .setParameter("number", passportNumber)
+                .getResultStream()
+                .findFirst();
+    }
+
+    /**
+     * Ищет DTO персон, у которых каждое слово запроса является началом имени или фамилии без учета регистра.
+     * Условия lower(...) LIKE 'слово%' используют индексы text_pattern_ops по lower(name) и lower(surname).
+     *
+     * @param words   слова запроса.
+     * @param afterId идентификатор последней записи предыдущей страницы (0 для первой страницы).
+     * @param limit   размер страницы.
+     * @return Страница DTO персон с курсором следующей страницы.
+     */
+    @Override
+    public CursorPageDto<PersonResponseDto> searchPersonsByPrefix(List<String> words, long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder("SELECT ").append(PERSON_DTO)
+                .append(", p.id FROM Person p WHERE p.id > :afterId");
+        for (int i = 0; i < words.size(); i++) {
+            jpql.append(" AND (lower(p.name) LIKE lower(:w").append(i).append(") ESCAPE '!'")
+                    .append(" OR lower(p.surname) LIKE lower(:w").append(i).append(") ESCAPE '!')");
+        }
+        TypedQuery<Object[]> query = entityManager
+                .createQuery(jpql.append(" ORDER BY p.id").toString(), Object[].class)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit + 1);
+        for (int i = 0; i < words.size(); i++) {
+            query.setParameter("w" + i, escapeLike(words.get(i)) + "%");
+        }
+        return CursorPageDto.fromRows(query.getResultList(), limit);
+    }
+
+    /**
+     * Ищет DTO персон, у которых каждое слово запроса похоже на имя или фамилию по сходству триграмм.
+     * Оператор % расширения pg_trgm поддерживается GIN-индексами по lower(name) и lower(surname);
+     * порог сходства задается параметром pg_trgm.similarity_threshold.
+     *
+     * @param words   слова запроса.
+     * @param afterId идентификатор последней записи предыдущей страницы (0 для первой страницы).
+     * @param limit   размер страницы.
+     * @return Страница DTO персон с курсором следующей страницы.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public CursorPageDto<PersonResponseDto> searchPersonsBySimilarity(List<String> words, long afterId, int limit) {
+        StringBuilder sql = new StringBuilder(PERSON_COLUMNS).append("WHERE p.id > :afterId");
+        for (int i = 0; i < words.size(); i++) {
+            sql.append(" AND (lower(p.name) % lower(:w").append(i).append(")")
+                    .append(" OR lower(p.surname) % lower(:w").append(i).append("))");
+        }
+        NativeQuery<Object[]> query = entityManager
+                .createNativeQuery(sql.append(" ORDER BY p.id LIMIT :limit").toString())
+                .unwrap(NativeQuery.class)
+                .addScalar("uuid", UUID.class)
+                .addScalar("name", String.class)
+                .addScalar("surname", String.class)
+                .addScalar("sex", String.class)
+                .addScalar("passport_series", String.class)
+                .addScalar("passport_number", String.class)
+                .addScalar("create_date", LocalDateTime.class)
+                .addScalar("update_date", LocalDateTime.class)
+                .addScalar("id", Long.class)
+                .addSynchronizedEntityClass(Person.class);
+        query.setParameter("afterId", afterId);
+        query.setParameter("limit", limit + 1);
+        for (int i = 0; i < words.size(); i++) {
+            query.setParameter("w" + i, words.get(i));
+        }
+        List<Object[]> rows = query.getResultList().stream()
+                .map(row -> new Object[]{new PersonResponseDto((UUID) row[0], (String) row[1], (String) row[2],
+                        Sex.valueOf((String) row[3]), (String) row[4], (String) row[5],
+                        (LocalDateTime) row[6], (LocalDateTime) row[7]), row[8]})
+                .toList();
+        return CursorPageDto.fromRows(rows, limit);
+    }
+
+    /**
+     * Получает страницу DTO жильцов дома по курсору.
+     * Жильцы выбираются запросом по внешнему ключу persons.house_id, коллекция House.residents не загружается.
+     *
+     * @param houseId идентификатор дома.
+     * @param order   порядок сортировки.
+     * @param after   курсор последней записи предыдущей страницы или null для первой страницы.
+     * @param limit   размер страницы.
+     * @return Страница DTO жильцов.
+     */
+    @Override
+    public CursorPageDto<PersonResponseDto> getResidentsPage(long houseId, SortOrder order, String after, int limit) {
+        return Keyset.fetch(entityManager, PERSON_DTO, "Person p WHERE p.house.id = :houseId", "p",
+                PERSON_SORT, order, after, limit, "houseId", houseId);
+    }
+
+    /**
+     * Считает жильцов дома. Подсчет выполняется по индексу ix_persons_house_id_id без чтения строк персон.
+     *
+     * @param houseId идентификатор дома.
+     * @return Количество жильцов.
+     */
+    @Override
+    public long countResidents(long houseId) {
+        return entityManager
+                .createQuery("SELECT count(p) FROM Person p WHERE p.house.id = :houseId", Long.class)
+                .setParameter("houseId", houseId)
+                .getSingleResult();
+    }
+
+    /**
+     * Получает UUID жильцов дома.
+     *
+     * @param houseId идентификатор дома.
+     * @return Список UUID жильцов.
+     */
+    @Override
+    public List<UUID> findResidentUuids(long houseId) {
+        return entityManager
+                .createQuery("SELECT p.uuid FROM Person p WHERE p.house.id = :houseId", UUID.class)
+                .setParameter("houseId", houseId)
+                .getResultList();
+    }
+
+    /**
+     * Получает страницу DTO владельцев дома по курсору.
+     * Владельцы выбираются через таблицу связи house_owner, коллекция House.owners не загружается.
+     *
+     * @param houseId идентификатор дома.
+     * @param order   порядок сортировки.
+     * @param after   курсор последней записи предыдущей страницы или null для первой страницы.
+     * @param limit   размер страницы.
+     * @return Страница DTO владельцев.
+     */
+    @Override
+    public CursorPageDto<PersonResponseDto> getOwnersPage(long houseId, SortOrder order, String after, int limit) {
+        return Keyset.fetch(entityManager, PERSON_DTO, "House h JOIN h.owners p WHERE h.id = :houseId", "p",
+                PERSON_SORT, order, after, limit, "houseId", houseId);
+    }
+
+    /**
+     * Считает владельцев дома по первичному ключу таблицы связи house_owner, не присоединяя персоны.
+     *
+     * @param houseId идентификатор дома.
+     * @return Количество владельцев.
+     */
+    @Override
+    public long countOwners(long houseId) {
+        return ((Number) entityManager.createNativeQuery("SELECT count(*) FROM house_owner WHERE house_id = :houseId")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("house_owner")
+                .setParameter("houseId", houseId)
+                .getSingleResult())
+                .longValue();
+    }
+
+    /**
+     * Последовательно передает потребителю все PersonEntity из базы данных.
+     * Использует серверный курсор в StatelessSession: сущности не накапливаются в контексте персистентности,
+     * а драйвер получает строки порциями по export.fetch-size.
+     * Дом присоединяется в том же запросе, чтобы не выполнять отдельную выборку на каждую строку.
+     *
+     * @param consumer потребитель PersonEntity.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void scrollAllPersons(Consumer<Person> consumer) {
+        SessionFactory sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class);
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Transaction transaction = session.beginTransaction();
+            try (ScrollableResults<Person> results = session
+                    .createQuery("SELECT p FROM Person p JOIN FETCH p.house", Person.class)
+                    .setFetchSize(exportFetchSize)
+                    .setReadOnly(true)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+                while (results.next()) {
+                    consumer.accept(results.get());
+                }
+            }
+            transaction.commit();
+        }
+    }
+
     /**
      * Сохраняет PersonEntity в базе данных.
      *
@@ -80,16 +440,99 @@ public class PersonDaoImpl implements PersonDao {
     }
 
     /**
-     * Удаляет PersonEntity по его UUID из базы данных.
+     * Обновляет отдельные столбцы персоны по ее UUID одним запросом без загрузки персоны.
+     * Из кэша второго уровня удаляется только запись этой персоны.
      *
-     * @param uuid UUID PersonEntity.
+     * @param uuid            UUID персоны.
+     * @param expectedVersion ожидаемая версия персоны или null, если версия не проверяется.
+     * @param columns         новые значения столбцов.
+     * @return Результат обновления или пустой Optional, если персона не найдена.
      */
     @Override
-    public void deletePerson(UUID uuid) {
-        entityManager
-                .createQuery("DELETE FROM Person p WHERE p.uuid = :uuid")
-                .setParameter("uuid", uuid)
+    public Optional<PatchResultDto> updatePersonFields(UUID uuid, Long expectedVersion, Map<String, Object> columns) {
+        return EntityPatches.apply(entityManager, Person.class, "persons", uuid, expectedVersion, columns);
+    }
+
+    /**
+     * Удаляет персону по ее идентификатору вместе со связями владения.
+     * Выполняется два запроса независимо от количества домов во владении:
+     * удаление строк house_owner по owner_id и удаление строки персоны.
+     * Коллекции Person.ownedHouses и House.owners не загружаются, из кэша второго уровня удаляется только запись этой персоны.
+     *
+     * @param id идентификатор персоны.
+     * @return Количество удаленных персон: 0, если персона не найдена.
+     */
+    @Override
+    public int deletePerson(long id) {
+        entityManager.createNativeQuery("DELETE FROM house_owner WHERE owner_id = :id")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("house_owner")
+                .setParameter("id", id)
                 .executeUpdate();
+        return EntityDeletes.execute(entityManager, Person.class, "DELETE FROM persons WHERE id = ? RETURNING id, uuid", id);
     }
 
+    /**
+     * Удаляет всех жильцов дома вместе с их связями владения двумя запросами
+     * независимо от количества жильцов и их домов.
+     * Из кэша второго уровня удаляются только записи удаленных жильцов.
+     *
+     * @param houseId идентификатор дома.
+     * @return Количество удаленных жильцов.
+     */
+    @Override
+    public int deleteResidents(long houseId) {
+        entityManager.createNativeQuery("DELETE FROM house_owner "
+                        + "WHERE owner_id IN (SELECT p.id FROM persons p WHERE p.house_id = :houseId)")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("house_owner")
+                .setParameter("houseId", houseId)
+                .executeUpdate();
+        return EntityDeletes.execute(entityManager, Person.class,
+                "DELETE FROM persons WHERE house_id = ? RETURNING id, uuid", houseId);
+    }
+
+    /**
+     * Экранирует служебные символы шаблона LIKE, чтобы слово запроса сравнивалось буквально.
+     *
+     * @param value слово запроса.
+     * @return Экранированное слово.
+     */
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+    /**
+     * Выполняет накопленные операции пакетом и очищает контекст персистентности.
+     * Используется при пакетной вставке, чтобы контекст не рос вместе с размером пакета.
+     */
+    @Override
+    public void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+
+    private static List<Predicate> toPredicates(CriteriaBuilder builder, Root<Person> person, PersonFilterDto filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getSex() != null) {
+            predicates.add(builder.equal(person.get("sex"), filter.getSex()));
+        }
+        if (filter.getHouseUuid() != null) {
+            predicates.add(builder.equal(person.get("house").get("uuid"), filter.getHouseUuid()));
+        }
+        if (filter.getCreatedFrom() != null) {
+            predicates.add(builder.greaterThanOrEqualTo(person.<LocalDateTime>get("createDate"),
+                    filter.getCreatedFrom()));
+        }
+        if (filter.getCreatedTo() != null) {
+            predicates.add(builder.lessThan(person.<LocalDateTime>get("createDate"), filter.getCreatedTo()));
+        }
+        return predicates;
+    }
+
+    private static PersonResponseDto toPersonDto(Object[] row) {
+        return new PersonResponseDto((UUID) row[0], (String) row[1], (String) row[2], (Sex) row[3],
+                (String) row[4], (String) row[5], (LocalDateTime) row[6], (LocalDateTime) row[7]);
+    }
 }
@@ -0,0 +1,66 @@
+package by.clevertec.house.dao.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import lombok.experimental.UtilityClass;
+import org.hibernate.query.NativeQuery;
+
+/**
+ * Подсчет строк таблиц: точный - запросом count(*) с теми же условиями, что и у выборки страницы,
+ * приблизительный - по статистике планировщика PostgreSQL без чтения таблицы.
+ */
+@UtilityClass
+class RowCounts {
+
+    /**
+     * Оценка количества строк так же, как ее делает планировщик: плотность строк на страницу
+     * из последнего ANALYZE, умноженная на текущее количество страниц таблицы.
+     * Если таблица еще не анализировалась или пуста, оценка отсутствует.
+     */
+    private static final String ESTIMATE = "SELECT CASE WHEN c.reltuples < 0 OR c.relpages = 0 THEN NULL "
+            + "ELSE CAST(c.reltuples / c.relpages "
+            + "* (pg_relation_size(c.oid) / CAST(current_setting('block_size') AS int)) AS bigint) END "
+            + "FROM pg_class c WHERE c.oid = to_regclass(:table)";
+
+    /**
+     * Считает строки сущности, удовлетворяющие условиям фильтрации.
+     *
+     * @param entityManager менеджер сущностей.
+     * @param entityClass   класс сущности.
+     * @param filters       условия фильтрации.
+     * @param <E>           тип сущности.
+     * @return Количество строк.
+     */
+    static <E> long count(EntityManager entityManager, Class<E> entityClass,
+                          BiFunction<CriteriaBuilder, Root<E>, List<Predicate>> filters) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<E> root = query.from(entityClass);
+        query.select(builder.count(root))
+                .where(filters.apply(builder, root).toArray(Predicate[]::new));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    /**
+     * Оценивает количество строк таблицы по статистике планировщика PostgreSQL.
+     *
+     * @param entityManager менеджер сущностей.
+     * @param table         имя таблицы.
+     * @return Оценка количества строк или пустой Optional, если статистика еще не собрана.
+     */
+    static Optional<Long> estimate(EntityManager entityManager, String table) {
+        Object estimate = entityManager.createNativeQuery(ESTIMATE)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(table)
+                .setParameter("table", table)
+                .uniqueResult();
+        return Optional.ofNullable(estimate)
+                .map(value -> ((Number) value).longValue());
+    }
+}
@@ -0,0 +1,30 @@
+package by.clevertec.house.datasource;
+
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * DataSource, направляющий соединения на цель, выбранную {@link ReplicaTransactionManager} при начале транзакции:
+ * транзакции только для чтения - на реплики, остальные - на основную базу.
+ * Транзакция начинается до выбора цели соединения, поэтому DataSource должен использоваться
+ * через LazyConnectionDataSourceProxy, откладывающий получение соединения до первого запроса.
+ */
+public class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaSet replicaSet;
+
+    public ReadOnlyRoutingDataSource(DataSource primary, ReplicaSet replicaSet) {
+        this.replicaSet = replicaSet;
+        Map<Object, Object> targets = replicaSet.targets();
+        targets.put(ReplicaSet.PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return replicaSet.current();
+    }
+}
@@ -0,0 +1,36 @@
+package by.clevertec.house.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Реплика базы данных: пул соединений, состояние отставания и счетчик направленных на нее соединений.
+ */
+@Getter
+@RequiredArgsConstructor
+public class Replica {
+
+    private final String name;
+    private final HikariDataSource dataSource;
+    private final LongAdder routed = new LongAdder();
+
+    @Setter
+    private volatile boolean healthy = true;
+
+    @Setter
+    private volatile double lagSeconds;
+
+    /**
+     * Возвращает количество занятых соединений пула реплики.
+     *
+     * @return Количество занятых соединений или 0, если пул еще не запущен.
+     */
+    public int activeConnections() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getActiveConnections();
+    }
+}
@@ -0,0 +1,39 @@
+package by.clevertec.house.datasource;
+
+import java.util.Arrays;
+
+/**
+ * Стратегия выбора реплики для транзакции только для чтения.
+ */
+public enum ReplicaSelection {
+
+    /**
+     * Реплики выбираются по очереди.
+     */
+    ROUND_ROBIN("round-robin"),
+
+    /**
+     * Выбирается реплика с наименьшим числом занятых соединений.
+     */
+    LEAST_BUSY("least-busy");
+
+    private final String value;
+
+    ReplicaSelection(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Возвращает стратегию по ее значению в application.yml.
+     *
+     * @param value значение параметра spring.datasource.replicas.selection.
+     * @return Стратегия выбора реплики.
+     * @throws IllegalArgumentException если значение неизвестно.
+     */
+    public static ReplicaSelection of(String value) {
+        return Arrays.stream(values())
+                .filter(selection -> selection.value.equalsIgnoreCase(value.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown replica selection: " + value));
+    }
+}
@@ -0,0 +1,217 @@
+package by.clevertec.house.datasource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Набор реплик для транзакций только для чтения.
+ * Выбирает реплику по заданной стратегии среди реплик с допустимым отставанием и, если таких нет,
+ * направляет транзакцию на основную базу. Отставание реплик периодически проверяется в фоновом потоке.
+ * Цель выбирается при начале транзакции и хранится в стеке текущего потока, чтобы вложенная транзакция
+ * REQUIRES_NEW не меняла цель приостановленной внешней.
+ */
+@Slf4j
+public class ReplicaSet implements MeterBinder, AutoCloseable {
+
+    public static final String PRIMARY = "primary";
+
+    /**
+     * Отставание реплики в секундах. Если реплика получила и применила весь WAL, отставание равно нулю,
+     * иначе считается от времени последней примененной транзакции.
+     */
+    private static final String LAG_QUERY = "SELECT CASE "
+            + "WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final List<Replica> replicas;
+    private final ReplicaSelection selection;
+    private final double maxLagSeconds;
+    private final ThreadLocal<Deque<String>> targets = ThreadLocal.withInitial(ArrayDeque::new);
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder primaryRouted = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+    private ScheduledExecutorService lagMonitor;
+
+    public ReplicaSet(List<Replica> replicas, ReplicaSelection selection, double maxLagSeconds) {
+        this.replicas = List.copyOf(replicas);
+        this.selection = selection;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    public boolean isEmpty() {
+        return replicas.isEmpty();
+    }
+
+    /**
+     * Возвращает источники данных реплик по их именам для маршрутизирующего DataSource.
+     *
+     * @return Map имя реплики - источник данных.
+     */
+    public Map<Object, Object> targets() {
+        Map<Object, Object> targets = new HashMap<>();
+        replicas.forEach(replica -> targets.put(replica.getName(), replica.getDataSource()));
+        return targets;
+    }
+
+    /**
+     * Выбирает цель для новой транзакции.
+     *
+     * @param readOnly true, если транзакция может выполняться на реплике.
+     * @return Имя реплики или {@link #PRIMARY}.
+     */
+    public String route(boolean readOnly) {
+        if (!readOnly) {
+            primaryRouted.increment();
+            return PRIMARY;
+        }
+        Replica replica = select();
+        if (replica == null) {
+            fallbacks.increment();
+            primaryRouted.increment();
+            return PRIMARY;
+        }
+        replica.getRouted().increment();
+        return replica.getName();
+    }
+
+    /**
+     * Делает цель текущей для транзакции, начинаемой в текущем потоке.
+     *
+     * @param target имя реплики или {@link #PRIMARY}.
+     */
+    public void enter(String target) {
+        targets.get().push(target);
+    }
+
+    /**
+     * Завершает текущую цель: текущей снова становится цель приостановленной внешней транзакции, если она есть.
+     */
+    public void exit() {
+        Deque<String> stack = targets.get();
+        stack.poll();
+        if (stack.isEmpty()) {
+            targets.remove();
+        }
+    }
+
+    /**
+     * Возвращает цель текущей транзакции.
+     *
+     * @return Имя реплики или {@link #PRIMARY}, если транзакции нет или она направлена на основную базу.
+     */
+    public String current() {
+        String target = targets.get().peek();
+        return target == null ? PRIMARY : target;
+    }
+
+    private Replica select() {
+        List<Replica> healthy = replicas.stream().filter(Replica::isHealthy).toList();
+        if (healthy.isEmpty()) {
+            return null;
+        }
+        return switch (selection) {
+            case ROUND_ROBIN -> healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size()));
+            case LEAST_BUSY -> healthy.stream().min(Comparator.comparingInt(Replica::activeConnections)).orElseThrow();
+        };
+    }
+
+    /**
+     * Запускает периодическую проверку отставания реплик.
+     *
+     * @param intervalMillis интервал проверки в миллисекундах.
+     */
+    public void startLagMonitor(long intervalMillis) {
+        if (replicas.isEmpty()) {
+            return;
+        }
+        lagMonitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lagMonitor.scheduleWithFixedDelay(this::checkLag, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Проверяет отставание каждой реплики. Реплика исключается из выбора, если ее отставание превышает
+     * допустимое или она недоступна, и возвращается, когда отставание снова становится допустимым.
+     */
+    void checkLag() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.getDataSource().getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+                resultSet.next();
+                double lag = resultSet.getDouble(1);
+                replica.setLagSeconds(lag);
+                updateHealth(replica, lag <= maxLagSeconds);
+            } catch (Exception e) {
+                log.warn("Replica {} lag check failed: {}", replica.getName(), e.getMessage());
+                updateHealth(replica, false);
+            }
+        }
+    }
+
+    private static void updateHealth(Replica replica, boolean healthy) {
+        if (replica.isHealthy() != healthy) {
+            log.info("Replica {} is {} (lag {} s)", replica.getName(), healthy ? "back in rotation" : "excluded",
+                    replica.getLagSeconds());
+        }
+        replica.setHealthy(healthy);
+    }
+
+    /**
+     * Регистрирует метрики маршрутизации: количество соединений по целям, переходы на основную базу,
+     * отставание и доступность реплик.
+     *
+     * @param registry реестр метрик.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("datasource.routing.connections", primaryRouted, LongAdder::sum)
+                .tag("target", PRIMARY)
+                .register(registry);
+        FunctionCounter.builder("datasource.routing.fallbacks", fallbacks, LongAdder::sum)
+                .description("Транзакции только для чтения, направленные на основную базу из-за отсутствия реплик")
+                .register(registry);
+        for (Replica replica : replicas) {
+            FunctionCounter.builder("datasource.routing.connections", replica.getRouted(), LongAdder::sum)
+                    .tag("target", replica.getName())
+                    .register(registry);
+            Gauge.builder("datasource.replica.lag.seconds", replica, Replica::getLagSeconds)
+                    .tag("target", replica.getName())
+                    .register(registry);
+            Gauge.builder("datasource.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+                    .tag("target", replica.getName())
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Останавливает проверку отставания и закрывает пулы соединений реплик.
+     */
+    @Override
+    public void close() {
+        if (lagMonitor != null) {
+            lagMonitor.shutdownNow();
+        }
+        replicas.forEach(replica -> replica.getDataSource().close());
+    }
+}
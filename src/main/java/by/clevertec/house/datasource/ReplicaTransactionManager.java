@@ -0,0 +1,74 @@
+package by.clevertec.house.datasource;
+
+import java.util.function.BooleanSupplier;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Менеджер транзакций JPA, выбирающий цель соединения при начале транзакции.
+ * На реплику направляются транзакции только для чтения, кроме помеченных меткой {@link #PRIMARY_LABEL}
+ * (проверки версий, по которым сравнивается ETag) и выполняемых, пока вызывающему нужны собственные
+ * недавние изменения (read-your-writes). Сессия транзакции на реплике работает с кэшем второго уровня
+ * в режиме {@link CacheMode#GET}: читает из кэша, но не кладет в него строки реплики, которые могут
+ * отставать от основной базы и остались бы в кэше до истечения срока хранения.
+ */
+public class ReplicaTransactionManager extends JpaTransactionManager {
+
+    /**
+     * Метка транзакции только для чтения, которая всегда выполняется на основной базе.
+     */
+    public static final String PRIMARY_LABEL = "primary";
+
+    private final ReplicaSet replicaSet;
+    private final BooleanSupplier primaryRequired;
+
+    /**
+     * @param replicaSet      набор реплик.
+     * @param primaryRequired признак того, что текущему вызывающему нужны его недавние изменения.
+     */
+    public ReplicaTransactionManager(ReplicaSet replicaSet, BooleanSupplier primaryRequired) {
+        this.replicaSet = replicaSet;
+        this.primaryRequired = primaryRequired;
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        String target = replicaSet.isEmpty() ? ReplicaSet.PRIMARY : replicaSet.route(replicaEligible(definition));
+        replicaSet.enter(target);
+        try {
+            super.doBegin(transaction, definition);
+        } catch (RuntimeException | Error e) {
+            replicaSet.exit();
+            throw e;
+        }
+        if (!ReplicaSet.PRIMARY.equals(target)) {
+            EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager
+                    .getResource(obtainEntityManagerFactory());
+            holder.getEntityManager().unwrap(Session.class).setCacheMode(CacheMode.GET);
+        }
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        try {
+            super.doCleanupAfterCompletion(transaction);
+        } finally {
+            replicaSet.exit();
+        }
+    }
+
+    private boolean replicaEligible(TransactionDefinition definition) {
+        if (!definition.isReadOnly()) {
+            return false;
+        }
+        if (definition instanceof TransactionAttribute attribute && attribute.getLabels().contains(PRIMARY_LABEL)) {
+            return false;
+        }
+        return !primaryRequired.getAsBoolean();
+    }
+}
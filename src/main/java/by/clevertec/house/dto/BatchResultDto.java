@@ -0,0 +1,35 @@
+package by.clevertec.house.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO для ответа на пакетное создание сущностей.
+ * Содержит количество созданных записей и ошибки по отдельным элементам запроса.
+ */
+@Data
+@NoArgsConstructor
+public class BatchResultDto {
+
+    private int created;
+    private List<BatchItemErrorDto> errors = new ArrayList<>();
+
+    /**
+     * Ошибка обработки элемента пакетного запроса.
+     * Индекс соответствует позиции элемента во входном массиве.
+     */
+    @Data
+    @NoArgsConstructor
+    public static class BatchItemErrorDto {
+
+        private int index;
+        private String message;
+
+        public BatchItemErrorDto(int index, String message) {
+            this.index = index;
+            this.message = message;
+        }
+    }
+}
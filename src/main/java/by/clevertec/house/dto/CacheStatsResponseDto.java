@@ -0,0 +1,38 @@
+package by.clevertec.house.dto;
+
+import java.util.List;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO для ответа со статистикой второго уровня кэша Hibernate.
+ * Содержит суммарные счетчики кэша сущностей и кэша естественных идентификаторов, а также счетчики по регионам.
+ */
+@Data
+@NoArgsConstructor
+public class CacheStatsResponseDto {
+
+    private long secondLevelCacheHitCount;
+    private long secondLevelCacheMissCount;
+    private long secondLevelCachePutCount;
+    private long naturalIdCacheHitCount;
+    private long naturalIdCacheMissCount;
+    private long naturalIdCachePutCount;
+    private long naturalIdQueryExecutionCount;
+    private List<RegionStatsDto> regions;
+
+    /**
+     * Статистика одного региона кэша.
+     */
+    @Data
+    @NoArgsConstructor
+    public static class RegionStatsDto {
+
+        private String regionName;
+        private long hitCount;
+        private long missCount;
+        private long putCount;
+        private long elementCountInMemory;
+        private double hitRatio;
+    }
+}
@@ -0,0 +1,39 @@
+package by.clevertec.house.dto;
+
+import by.clevertec.house.entity.ChangeOperation;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO для ответа с событием ленты изменений.
+ * Номер события возрастает в порядке фиксации транзакций и используется как позиция чтения ленты.
+ */
+@Data
+@NoArgsConstructor
+public class ChangeEventDto {
+
+    private long sequence;
+    private String entityType;
+    private UUID entityUuid;
+    private ChangeOperation operation;
+    private List<String> changedFields;
+    private Long version;
+    private LocalDateTime createDate;
+
+    /**
+     * Конструктор для проекции JPQL (SELECT new ...).
+     */
+    public ChangeEventDto(Long sequence, String entityType, UUID entityUuid, ChangeOperation operation,
+                          String changedFields, Long version, LocalDateTime createDate) {
+        this.sequence = sequence;
+        this.entityType = entityType;
+        this.entityUuid = entityUuid;
+        this.operation = operation;
+        this.changedFields = changedFields == null ? null : List.of(changedFields.split(","));
+        this.version = version;
+        this.createDate = createDate;
+    }
+}
@@ -0,0 +1,18 @@
+package by.clevertec.house.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Номера видимых событий ленты изменений и границы снимка PostgreSQL, в котором они прочитаны.
+ * Все транзакции с номером меньше xmin завершены; транзакции с номером не меньше xmax начались после снимка.
+ */
+@Data
+@AllArgsConstructor
+public class ChangeSequencesDto {
+
+    private List<Long> sequences;
+    private long xmin;
+    private long xmax;
+}
@@ -0,0 +1,48 @@
+package by.clevertec.house.dto;
+
+import by.clevertec.house.util.CursorCodec;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Страница результатов постраничной выборки по курсору.
+ * Содержит элементы страницы и курсор следующей страницы (null, если страница последняя).
+ * Общее количество записей заполняется только выборками, которые его считают.
+ *
+ * @param <T> тип элементов страницы.
+ */
+@Data
+@AllArgsConstructor
+public class CursorPageDto<T> {
+
+    private List<T> items;
+    private String nextCursor;
+    private Long totalCount;
+
+    public CursorPageDto(List<T> items, String nextCursor) {
+        this(items, nextCursor, null);
+    }
+
+    /**
+     * Создает страницу из строк проекции вида [элемент, идентификатор], выбранных с лимитом limit + 1.
+     * Наличие лишней строки означает, что существует следующая страница.
+     *
+     * @param rows  строки проекции, упорядоченные по идентификатору.
+     * @param limit размер страницы.
+     * @param <T>   тип элементов страницы.
+     * @return Страница с курсором, указывающим на идентификатор последнего элемента.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CursorPageDto<T> fromRows(List<Object[]> rows, int limit) {
+        boolean hasNext = rows.size() > limit;
+        List<Object[]> pageRows = hasNext ? rows.subList(0, limit) : rows;
+        List<T> items = new ArrayList<>(pageRows.size());
+        for (Object[] row : pageRows) {
+            items.add((T) row[0]);
+        }
+        String nextCursor = hasNext ? CursorCodec.encode((Long) pageRows.get(limit - 1)[1]) : null;
+        return new CursorPageDto<>(items, nextCursor);
+    }
+}
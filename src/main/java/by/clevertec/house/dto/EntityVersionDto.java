@@ -0,0 +1,63 @@
+package by.clevertec.house.dto;
+
+import static by.clevertec.house.util.Constant.ErrorMessages.INVALID_ETAG;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO с версией и датой последнего изменения сущности.
+ * Используется для формирования заголовков ETag и Last-Modified без загрузки самой сущности.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntityVersionDto {
+
+    private long version;
+    private LocalDateTime updateDate;
+
+    /**
+     * Возвращает сильный ETag, соответствующий версии сущности.
+     *
+     * @return значение заголовка ETag в кавычках.
+     */
+    public String eTag() {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Возвращает дату последнего изменения в миллисекундах от начала эпохи.
+     * Даты хранятся в часовом поясе сервера.
+     *
+     * @return значение для заголовка Last-Modified или -1, если дата неизвестна.
+     */
+    public long lastModified() {
+        return updateDate == null ? -1 : updateDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Извлекает версию сущности из значения заголовка If-Match.
+     *
+     * @param ifMatch значение заголовка или null.
+     * @return Версия или null, если заголовок не передан или равен "*".
+     * @throws IllegalArgumentException если значение не является ETag версии.
+     */
+    public static Long versionOf(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        try {
+            return Long.valueOf(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(INVALID_ETAG + ifMatch, e);
+        }
+    }
+}
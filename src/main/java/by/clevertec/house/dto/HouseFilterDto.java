@@ -0,0 +1,48 @@
+package by.clevertec.house.dto;
+
+import java.time.LocalDateTime;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+/**
+ * Фильтр списка домов из параметров запроса.
+ * Набор полей ограничен атрибутами, для которых есть индексы; границы диапазонов необязательны,
+ * нижняя граница включается в диапазон, верхняя граница даты создания - нет.
+ */
+@Data
+@NoArgsConstructor
+public class HouseFilterDto {
+
+    private String country;
+    private String city;
+    private String street;
+    private Double areaFrom;
+    private Double areaTo;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+
+    /**
+     * Проверяет, задано ли хотя бы одно условие фильтра.
+     *
+     * @return true, если фильтр пуст.
+     */
+    public boolean isEmpty() {
+        return country == null && city == null && street == null && areaFrom == null && areaTo == null
+                && createdFrom == null && createdTo == null;
+    }
+
+    /**
+     * Проверяет, задана ли хотя бы одна граница диапазона.
+     * Границы принимают произвольные значения, поэтому количество записей по такому фильтру не кэшируется.
+     *
+     * @return true, если задана граница диапазона.
+     */
+    public boolean hasRange() {
+        return areaFrom != null || areaTo != null || createdFrom != null || createdTo != null;
+    }
+}
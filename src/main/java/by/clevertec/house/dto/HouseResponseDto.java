@@ -1,5 +1,6 @@
 package by.clevertec.house.dto;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -18,5 +19,19 @@ public class HouseResponseDto {
     private String city;
     private String street;
     private String number;
-    private String createDate;
+    private LocalDateTime createDate;
+
+    /**
+     * Конструктор для проекции JPQL (SELECT new ...), позволяющей читать DTO без создания управляемых сущностей.
+     */
+    public HouseResponseDto(UUID uuid, double area, String country, String city, String street, String number,
+                            LocalDateTime createDate) {
+        this.uuid = uuid;
+        this.area = area;
+        this.country = country;
+        this.city = city;
+        this.street = street;
+        this.number = number;
+        this.createDate = createDate;
+    }
 }
@@ -0,0 +1,46 @@
+package by.clevertec.house.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO для ответа со сводной статистикой домов по стране или городу.
+ * При группировке по стране город не заполняется и не выводится.
+ * Количество владельцев равно количеству связей владения дом-персона.
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class HouseStatsResponseDto {
+
+    private String country;
+    private String city;
+    private long houseCount;
+    private double totalArea;
+    private double averageArea;
+    private long residentCount;
+    private long ownerCount;
+
+    /**
+     * Конструктор для проекции JPQL статистики по городу.
+     */
+    public HouseStatsResponseDto(String country, String city, Long houseCount, Double totalArea,
+                                 Long residentCount, Long ownerCount) {
+        this.country = country;
+        this.city = city;
+        this.houseCount = houseCount;
+        this.totalArea = totalArea;
+        this.averageArea = houseCount == 0 ? 0 : totalArea / houseCount;
+        this.residentCount = residentCount;
+        this.ownerCount = ownerCount;
+    }
+
+    /**
+     * Конструктор для проекции JPQL статистики по стране, агрегированной из статистики городов.
+     */
+    public HouseStatsResponseDto(String country, Long houseCount, Double totalArea,
+                                 Long residentCount, Long ownerCount) {
+        this(country, null, houseCount, totalArea, residentCount, ownerCount);
+    }
+}
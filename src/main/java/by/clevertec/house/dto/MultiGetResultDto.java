@@ -0,0 +1,23 @@
+package by.clevertec.house.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO для ответа на получение сущностей по списку UUID.
+ * Найденные сущности и отсутствующие UUID перечислены в порядке запроса, повторы исключены.
+ *
+ * @param <T> тип DTO сущности.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultiGetResultDto<T> {
+
+    private List<T> found = new ArrayList<>();
+    private List<UUID> missing = new ArrayList<>();
+}
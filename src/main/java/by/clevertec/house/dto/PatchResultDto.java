@@ -0,0 +1,17 @@
+package by.clevertec.house.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Результат частичного обновления существующей сущности.
+ * Если строка не обновлена, version содержит текущую версию сущности: она не совпала с ожидаемой
+ * либо новые значения совпали с текущими.
+ */
+@Data
+@AllArgsConstructor
+public class PatchResultDto {
+
+    private boolean updated;
+    private long version;
+}
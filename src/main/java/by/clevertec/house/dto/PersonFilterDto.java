@@ -0,0 +1,46 @@
+package by.clevertec.house.dto;
+
+import by.clevertec.house.entity.Sex;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+/**
+ * Фильтр списка персон из параметров запроса.
+ * Набор полей ограничен атрибутами, для которых есть индексы; нижняя граница даты создания
+ * включается в диапазон, верхняя - нет.
+ */
+@Data
+@NoArgsConstructor
+public class PersonFilterDto {
+
+    private Sex sex;
+    private UUID houseUuid;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+
+    /**
+     * Проверяет, задано ли хотя бы одно условие фильтра.
+     *
+     * @return true, если фильтр пуст.
+     */
+    public boolean isEmpty() {
+        return sex == null && houseUuid == null && createdFrom == null && createdTo == null;
+    }
+
+    /**
+     * Проверяет, задана ли хотя бы одна граница диапазона.
+     * Границы принимают произвольные значения, поэтому количество записей по такому фильтру не кэшируется.
+     *
+     * @return true, если задана граница диапазона.
+     */
+    public boolean hasRange() {
+        return createdFrom != null || createdTo != null;
+    }
+}
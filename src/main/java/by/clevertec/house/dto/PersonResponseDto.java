@@ -2,6 +2,7 @@ package by.clevertec.house.dto;
 
 import by.clevertec.house.entity.PassportData;
 import by.clevertec.house.entity.Sex;
+import java.time.LocalDateTime;
 import java.util.UUID;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -19,7 +20,22 @@ public class PersonResponseDto {
     private String surname;
     private Sex sex;
     private PassportData passportData;
-    private String createDate;
-    private String updateDate;
+    private LocalDateTime createDate;
+    private LocalDateTime updateDate;
 
+    /**
+     * Конструктор для проекции JPQL (SELECT new ...), позволяющей читать DTO без создания управляемых сущностей.
+     */
+    public PersonResponseDto(UUID uuid, String name, String surname, Sex sex, String passportSeries,
+                             String passportNumber, LocalDateTime createDate, LocalDateTime updateDate) {
+        this.uuid = uuid;
+        this.name = name;
+        this.surname = surname;
+        this.sex = sex;
+        this.passportData = new PassportData();
+        this.passportData.setPassportSeries(passportSeries);
+        this.passportData.setPassportNumber(passportNumber);
+        this.createDate = createDate;
+        this.updateDate = updateDate;
+    }
 }
@@ -0,0 +1,27 @@
+package by.clevertec.house.dto;
+
+import java.util.Map;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO для ответа со статистикой пула соединений.
+ * Гистограмма содержит количество получений соединения по верхней границе корзины в миллисекундах.
+ */
+@Data
+@NoArgsConstructor
+public class PoolStatsResponseDto {
+
+    private String poolName;
+    private int activeConnections;
+    private int idleConnections;
+    private int totalConnections;
+    private int pendingThreads;
+    private int minConnections;
+    private int maxConnections;
+    private long acquireCount;
+    private long acquireTimeoutCount;
+    private double acquireTimeAvgMillis;
+    private double acquireTimeMaxMillis;
+    private Map<String, Long> acquireTimeHistogramMillis;
+}
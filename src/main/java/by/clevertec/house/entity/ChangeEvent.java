@@ -0,0 +1,68 @@
+package by.clevertec.house.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Событие изменения дома или персоны в таблице исходящих событий (outbox).
+ * Записывается в той же транзакции, что и само изменение; идентификатор события является
+ * последовательным номером, по которому потребители читают ленту изменений.
+ */
+@Getter
+@NoArgsConstructor
+@ToString
+@Entity
+@Immutable
+@Table(name = "change_events")
+public class ChangeEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "entity_type", nullable = false)
+    private String entityType;
+
+    @Column(name = "entity_uuid", nullable = false)
+    private UUID entityUuid;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ChangeOperation operation;
+
+    /**
+     * Имена измененных полей через запятую; null для создания и удаления.
+     */
+    @Column(name = "changed_fields", length = 1024)
+    private String changedFields;
+
+    /**
+     * Версия сущности после изменения; null для удаления.
+     */
+    @Setter
+    @Column(name = "entity_version")
+    private Long entityVersion;
+
+    @Column(name = "create_date", nullable = false)
+    private LocalDateTime createDate;
+
+    public ChangeEvent(String entityType, UUID entityUuid, ChangeOperation operation, String changedFields) {
+        this.entityType = entityType;
+        this.entityUuid = entityUuid;
+        this.operation = operation;
+        this.changedFields = changedFields;
+    }
+}
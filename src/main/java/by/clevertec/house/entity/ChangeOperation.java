@@ -0,0 +1,5 @@
+package by.clevertec.house.entity;
+
+public enum ChangeOperation {
+    CREATE, UPDATE, DELETE
+}
@@ -1,16 +1,22 @@
 package by.clevertec.house.entity;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
@@ -20,6 +26,11 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.OptimisticLock;
 
 /**
  * HouseEntity.
@@ -31,13 +42,25 @@ import lombok.ToString;
 @EqualsAndHashCode(of = {"id", "uuid"})
 @ToString
 @Entity
-@Table(name = "houses")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = House.CACHE_REGION)
+@NaturalIdCache(region = House.NATURAL_ID_CACHE_REGION)
+@Table(name = "houses", indexes = {
+        @Index(name = "ix_houses_country_city_street", columnList = "country, city, street"),
+        @Index(name = "ix_houses_city_street", columnList = "city, street"),
+        @Index(name = "ix_houses_area_id", columnList = "area, id"),
+        @Index(name = "ix_houses_create_date_id", columnList = "create_date, id")})
 public class House {
 
+    public static final String CACHE_REGION = "houses";
+    public static final String NATURAL_ID_CACHE_REGION = "houses-natural-id";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "houses_seq")
+    @SequenceGenerator(name = "houses_seq", sequenceName = "houses_seq", allocationSize = 50)
     private Long id;
 
+    @NaturalId
     @Column(nullable = false, unique = true)
     private UUID uuid;
 
@@ -59,14 +82,37 @@ public class House {
     @Column(name = "create_date", nullable = false)
     private LocalDateTime createDate;
 
+    @Column(name = "update_date", nullable = false)
+    private LocalDateTime updateDate;
+
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "house")
     private List<Person> residents;
 
     @ManyToMany(fetch = FetchType.LAZY)
+    @OptimisticLock(excluded = true)
     @JoinTable(
             name = "house_owner",
             joinColumns = @JoinColumn(name = "house_id"),
-            inverseJoinColumns = @JoinColumn(name = "owner_id"))
+            inverseJoinColumns = @JoinColumn(name = "owner_id"),
+            indexes = @Index(name = "ix_house_owner_owner_id_house_id", columnList = "owner_id, house_id"))
     private Set<Person> owners;
 
+    @PrePersist
+    public void prePersist() {
+        if (this.createDate == null) {
+            this.createDate = LocalDateTime.now();
+        }
+        if (this.updateDate == null) {
+            this.updateDate = this.createDate;
+        }
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        this.updateDate = LocalDateTime.now();
+    }
 }
@@ -0,0 +1,41 @@
+package by.clevertec.house.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Сводная статистика домов по городу.
+ * Строки пересчитываются HouseStatsDao.refreshLocation в фоновом потоке после фиксации изменений домов и персон,
+ * приложение их только читает.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Immutable
+@Table(name = "house_city_stats")
+public class HouseCityStats {
+
+    @EmbeddedId
+    private HouseLocation location;
+
+    @Column(name = "house_count", nullable = false)
+    private long houseCount;
+
+    @Column(name = "total_area", nullable = false)
+    private double totalArea;
+
+    @Column(name = "resident_count", nullable = false)
+    private long residentCount;
+
+    @Column(name = "owner_count", nullable = false)
+    private long ownerCount;
+
+    @Column(name = "update_date", nullable = false)
+    private LocalDateTime updateDate;
+}
@@ -1,5 +1,6 @@
 package by.clevertec.house.entity;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
@@ -9,13 +10,16 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -24,6 +28,10 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 /**
  * PersonEntity.
@@ -35,14 +43,27 @@ import lombok.ToString;
 @EqualsAndHashCode(of = {"id", "uuid"})
 @ToString
 @Entity
-@Table(name = "persons", uniqueConstraints = @UniqueConstraint(columnNames = {"passport_series", "passport_number"}))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Person.CACHE_REGION)
+@NaturalIdCache(region = Person.NATURAL_ID_CACHE_REGION)
+@Table(name = "persons",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"passport_series", "passport_number"}),
+        indexes = {
+                @Index(name = "ix_persons_house_id_id", columnList = "house_id, id"),
+                @Index(name = "ix_persons_create_date_id", columnList = "create_date, id"),
+                @Index(name = "ix_persons_sex_id", columnList = "sex, id")})
 public class Person {
 
+    public static final String CACHE_REGION = "persons";
+    public static final String NATURAL_ID_CACHE_REGION = "persons-natural-id";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "persons_seq")
+    @SequenceGenerator(name = "persons_seq", sequenceName = "persons_seq", allocationSize = 50)
     private Long id;
 
-    @Column(nullable = false)
+    @NaturalId
+    @Column(nullable = false, unique = true)
     private UUID uuid;
 
     @Column(nullable = false)
@@ -64,6 +85,10 @@ public class Person {
     @Column(name = "update_date", nullable = false)
     private LocalDateTime updateDate;
 
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @ManyToOne
     @JoinColumn(name = "house_id", nullable = false)
     private House house;
@@ -0,0 +1,20 @@
+package by.clevertec.house.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Исключение, которое выбрасывается, когда версия сущности в запросе не совпадает с текущей.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class EntityConflictException extends RuntimeException {
+
+    public EntityConflictException(String message) {
+        super(message);
+    }
+
+    public static EntityConflictException of(Class<?> clazz, Object field, long expected, long actual) {
+        return new EntityConflictException(String.format("%s with UUID %s has version %d, expected %d",
+                clazz.getSimpleName(), field, actual, expected));
+    }
+}
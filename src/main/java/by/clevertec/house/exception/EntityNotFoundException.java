@@ -14,6 +14,10 @@ public class EntityNotFoundException extends RuntimeException {
     }
 
     public static EntityNotFoundException of(Class<?> clazz, Object field) {
-        return new EntityNotFoundException(String.format("%s with UUID %s does not exist", clazz.getSimpleName(), field));
+        return new EntityNotFoundException(message(clazz, field));
+    }
+
+    public static String message(Class<?> clazz, Object field) {
+        return String.format("%s with UUID %s does not exist", clazz.getSimpleName(), field);
     }
 }
@@ -1,11 +1,16 @@
 package by.clevertec.house.exception;
 
+import static by.clevertec.house.util.Constant.ErrorMessages.ENTITY_CONFLICT;
 import static by.clevertec.house.util.Constant.ErrorMessages.ENTITY_NOT_FOUND;
 import static by.clevertec.house.util.Constant.ErrorMessages.INVALID_ARGUMENTS;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 
 import by.clevertec.house.util.Constant.ErrorMessages;
+import by.clevertec.house.util.Violations;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.validation.ConstraintViolationException;
 import java.util.stream.Collectors;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
 import org.springframework.http.HttpStatus;
@@ -40,6 +45,20 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Обрабатывает нарушения ограничений, проверяемых в сервисах.
+     *
+     * @param exception Исключение ConstraintViolationException.
+     * @return ResponseEntity с сообщением об ошибке валидации.
+     */
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<ErrorResponse> handleException(ConstraintViolationException exception) {
+        ErrorResponse errorResponse = new ErrorResponse(Violations.format(exception.getConstraintViolations()),
+                ErrorMessages.VALIDATION_ERROR);
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Обрабатывает исключения недопустимых аргументов.
      *
@@ -62,6 +81,28 @@ public class GlobalExceptionHandler {
         return getErrorResponseEntity(exception, ENTITY_NOT_FOUND, NOT_FOUND);
     }
 
+    /**
+     * Обрабатывает исключения конфликта версий сущности.
+     *
+     * @param exception Исключение EntityConflictException.
+     * @return ResponseEntity с сообщением об ошибке конфликта версий.
+     */
+    @ExceptionHandler(EntityConflictException.class)
+    public ResponseEntity<ErrorResponse> handleException(EntityConflictException exception) {
+        return getErrorResponseEntity(exception, ENTITY_CONFLICT, CONFLICT);
+    }
+
+    /**
+     * Обрабатывает исключения одновременного изменения сущности другой транзакцией.
+     *
+     * @param exception Исключение OptimisticLockException.
+     * @return ResponseEntity с сообщением об ошибке конфликта версий.
+     */
+    @ExceptionHandler(OptimisticLockException.class)
+    public ResponseEntity<ErrorResponse> handleException(OptimisticLockException exception) {
+        return getErrorResponseEntity(exception, ENTITY_CONFLICT, CONFLICT);
+    }
+
     /**
      * Обрабатывает исключения null-указателя.
      *
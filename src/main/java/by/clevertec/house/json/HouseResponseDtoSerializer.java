@@ -0,0 +1,49 @@
+package by.clevertec.house.json;
+
+import by.clevertec.house.dto.HouseResponseDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+
+/**
+ * Сериализатор HouseResponseDto без отражения.
+ * Имена полей закодированы заранее, порядок и имена полей совпадают с сериализацией по умолчанию.
+ */
+public class HouseResponseDtoSerializer extends StdSerializer<HouseResponseDto> {
+
+    private static final SerializableString UUID = new SerializedString("uuid");
+    private static final SerializableString AREA = new SerializedString("area");
+    private static final SerializableString COUNTRY = new SerializedString("country");
+    private static final SerializableString CITY = new SerializedString("city");
+    private static final SerializableString STREET = new SerializedString("street");
+    private static final SerializableString NUMBER = new SerializedString("number");
+    private static final SerializableString CREATE_DATE = new SerializedString("createDate");
+
+    public HouseResponseDtoSerializer() {
+        super(HouseResponseDto.class);
+    }
+
+    @Override
+    public void serialize(HouseResponseDto value, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        generator.writeStartObject(value);
+        generator.writeFieldName(UUID);
+        JsonValues.writeUuid(generator, value.getUuid());
+        generator.writeFieldName(AREA);
+        generator.writeNumber(value.getArea());
+        generator.writeFieldName(COUNTRY);
+        JsonValues.writeString(generator, value.getCountry());
+        generator.writeFieldName(CITY);
+        JsonValues.writeString(generator, value.getCity());
+        generator.writeFieldName(STREET);
+        JsonValues.writeString(generator, value.getStreet());
+        generator.writeFieldName(NUMBER);
+        JsonValues.writeString(generator, value.getNumber());
+        generator.writeFieldName(CREATE_DATE);
+        JsonValues.writeDateTime(generator, value.getCreateDate());
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,24 @@
+package by.clevertec.house.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.experimental.UtilityClass;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Создание ObjectMapper приложения.
+ */
+@UtilityClass
+public class JsonMappers {
+
+    /**
+     * Создает ObjectMapper с настройками Spring MVC по умолчанию (неизвестные поля запроса игнорируются)
+     * и сериализаторами DTO ответов из ResponseJsonModule.
+     *
+     * @return ObjectMapper приложения.
+     */
+    public static ObjectMapper create() {
+        return Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(new ResponseJsonModule())
+                .build();
+    }
+}
@@ -0,0 +1,130 @@
+package by.clevertec.house.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Запись значений в JsonGenerator без создания промежуточных строк.
+ * Значения форматируются в массив символов потока, который передается генератору напрямую:
+ * генератор копирует символы в свой буфер, поэтому массив используется повторно.
+ */
+@UtilityClass
+public class JsonValues {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * Максимальная длина даты-времени: yyyy-MM-ddTHH:mm:ss.SSSSSSSSS.
+     */
+    private static final int DATE_TIME_MAX_LENGTH = 29;
+
+    private static final int UUID_LENGTH = 36;
+
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(
+            () -> new char[Math.max(DATE_TIME_MAX_LENGTH, UUID_LENGTH)]);
+
+    /**
+     * Записывает дату-время в том же виде, что и DateTimeFormatter.ISO_DATE_TIME:
+     * секунды выводятся всегда, доля секунды - без завершающих нулей и только если она не равна нулю.
+     * Годы вне диапазона 0-9999, требующие знака, форматируются самим DateTimeFormatter.
+     *
+     * @param generator генератор JSON.
+     * @param value     дата-время или null.
+     * @throws IOException при ошибке записи.
+     */
+    public static void writeDateTime(JsonGenerator generator, LocalDateTime value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+            return;
+        }
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            generator.writeString(value.format(DateTimeFormatter.ISO_DATE_TIME));
+            return;
+        }
+        char[] buffer = BUFFER.get();
+        int position = writeDigits(buffer, 0, year, 4);
+        buffer[position++] = '-';
+        position = writeDigits(buffer, position, value.getMonthValue(), 2);
+        buffer[position++] = '-';
+        position = writeDigits(buffer, position, value.getDayOfMonth(), 2);
+        buffer[position++] = 'T';
+        position = writeDigits(buffer, position, value.getHour(), 2);
+        buffer[position++] = ':';
+        position = writeDigits(buffer, position, value.getMinute(), 2);
+        buffer[position++] = ':';
+        position = writeDigits(buffer, position, value.getSecond(), 2);
+        int nano = value.getNano();
+        if (nano != 0) {
+            int digits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+            buffer[position++] = '.';
+            position = writeDigits(buffer, position, nano, digits);
+        }
+        generator.writeString(buffer, 0, position);
+    }
+
+    /**
+     * Записывает UUID в каноническом виде в нижнем регистре, как UUID.toString().
+     *
+     * @param generator генератор JSON.
+     * @param value     UUID или null.
+     * @throws IOException при ошибке записи.
+     */
+    public static void writeUuid(JsonGenerator generator, UUID value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+            return;
+        }
+        char[] buffer = BUFFER.get();
+        long most = value.getMostSignificantBits();
+        long least = value.getLeastSignificantBits();
+        writeHex(buffer, 0, most >>> 32, 8);
+        buffer[8] = '-';
+        writeHex(buffer, 9, most >>> 16, 4);
+        buffer[13] = '-';
+        writeHex(buffer, 14, most, 4);
+        buffer[18] = '-';
+        writeHex(buffer, 19, least >>> 48, 4);
+        buffer[23] = '-';
+        writeHex(buffer, 24, least, 12);
+        generator.writeString(buffer, 0, UUID_LENGTH);
+    }
+
+    /**
+     * Записывает строку или null.
+     *
+     * @param generator генератор JSON.
+     * @param value     строка или null.
+     * @throws IOException при ошибке записи.
+     */
+    public static void writeString(JsonGenerator generator, String value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value);
+        }
+    }
+
+    private static int writeDigits(char[] buffer, int position, int value, int width) {
+        for (int i = position + width - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return position + width;
+    }
+
+    private static void writeHex(char[] buffer, int position, long value, int width) {
+        for (int i = position + width - 1; i >= position; i--) {
+            buffer[i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
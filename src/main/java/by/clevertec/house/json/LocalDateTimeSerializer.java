@@ -0,0 +1,23 @@
+package by.clevertec.house.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Сериализатор LocalDateTime в строку формата ISO_DATE_TIME.
+ */
+public class LocalDateTimeSerializer extends StdSerializer<LocalDateTime> {
+
+    public LocalDateTimeSerializer() {
+        super(LocalDateTime.class);
+    }
+
+    @Override
+    public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        JsonValues.writeDateTime(generator, value);
+    }
+}
@@ -0,0 +1,65 @@
+package by.clevertec.house.json;
+
+import by.clevertec.house.dto.PersonResponseDto;
+import by.clevertec.house.entity.PassportData;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+
+/**
+ * Сериализатор PersonResponseDto без отражения.
+ * Имена полей закодированы заранее, порядок и имена полей совпадают с сериализацией по умолчанию.
+ */
+public class PersonResponseDtoSerializer extends StdSerializer<PersonResponseDto> {
+
+    private static final SerializableString UUID = new SerializedString("uuid");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString SURNAME = new SerializedString("surname");
+    private static final SerializableString SEX = new SerializedString("sex");
+    private static final SerializableString PASSPORT_DATA = new SerializedString("passportData");
+    private static final SerializableString PASSPORT_SERIES = new SerializedString("passportSeries");
+    private static final SerializableString PASSPORT_NUMBER = new SerializedString("passportNumber");
+    private static final SerializableString CREATE_DATE = new SerializedString("createDate");
+    private static final SerializableString UPDATE_DATE = new SerializedString("updateDate");
+
+    public PersonResponseDtoSerializer() {
+        super(PersonResponseDto.class);
+    }
+
+    @Override
+    public void serialize(PersonResponseDto value, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        generator.writeStartObject(value);
+        generator.writeFieldName(UUID);
+        JsonValues.writeUuid(generator, value.getUuid());
+        generator.writeFieldName(NAME);
+        JsonValues.writeString(generator, value.getName());
+        generator.writeFieldName(SURNAME);
+        JsonValues.writeString(generator, value.getSurname());
+        generator.writeFieldName(SEX);
+        JsonValues.writeString(generator, value.getSex() == null ? null : value.getSex().name());
+        generator.writeFieldName(PASSPORT_DATA);
+        writePassportData(generator, value.getPassportData());
+        generator.writeFieldName(CREATE_DATE);
+        JsonValues.writeDateTime(generator, value.getCreateDate());
+        generator.writeFieldName(UPDATE_DATE);
+        JsonValues.writeDateTime(generator, value.getUpdateDate());
+        generator.writeEndObject();
+    }
+
+    private static void writePassportData(JsonGenerator generator, PassportData passportData) throws IOException {
+        if (passportData == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject(passportData);
+        generator.writeFieldName(PASSPORT_SERIES);
+        JsonValues.writeString(generator, passportData.getPassportSeries());
+        generator.writeFieldName(PASSPORT_NUMBER);
+        JsonValues.writeString(generator, passportData.getPassportNumber());
+        generator.writeEndObject();
+    }
+}
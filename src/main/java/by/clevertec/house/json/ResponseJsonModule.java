@@ -0,0 +1,19 @@
+package by.clevertec.house.json;
+
+import by.clevertec.house.dto.HouseResponseDto;
+import by.clevertec.house.dto.PersonResponseDto;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import java.time.LocalDateTime;
+
+/**
+ * Модуль Jackson с сериализаторами DTO ответов и дат.
+ */
+public class ResponseJsonModule extends SimpleModule {
+
+    public ResponseJsonModule() {
+        super(ResponseJsonModule.class.getSimpleName());
+        addSerializer(LocalDateTime.class, new LocalDateTimeSerializer());
+        addSerializer(HouseResponseDto.class, new HouseResponseDtoSerializer());
+        addSerializer(PersonResponseDto.class, new PersonResponseDtoSerializer());
+    }
+}
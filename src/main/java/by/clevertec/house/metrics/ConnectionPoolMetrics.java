@@ -0,0 +1,175 @@
+package by.clevertec.house.metrics;
+
+import by.clevertec.house.dto.PoolStatsResponseDto;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+
+/**
+ * Сборщик статистики пулов соединений HikariCP.
+ * Хранит текущее состояние каждого пула и гистограмму времени ожидания соединения.
+ * После привязки к MeterRegistry публикует те же данные в виде метрик hikaricp.*.
+ */
+public class ConnectionPoolMetrics implements MetricsTrackerFactory, MeterBinder {
+
+    /**
+     * Верхние границы корзин гистограммы времени получения соединения в миллисекундах.
+     */
+    private static final long[] ACQUIRE_BUCKETS_MILLIS = {1, 5, 10, 25, 50, 100, 250, 500, 1000, 5000};
+
+    private static final Duration[] ACQUIRE_SLO = Arrays.stream(ACQUIRE_BUCKETS_MILLIS)
+            .mapToObj(Duration::ofMillis)
+            .toArray(Duration[]::new);
+
+    private final Map<String, PoolTracker> trackers = new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+
+    /**
+     * Создает трекер для нового пула. Вызывается HikariCP при старте пула.
+     *
+     * @param poolName  имя пула.
+     * @param poolStats текущее состояние пула.
+     * @return трекер метрик пула.
+     */
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        PoolTracker tracker = new PoolTracker(poolStats);
+        trackers.put(poolName, tracker);
+        if (registry != null) {
+            tracker.bindTo(registry, poolName);
+        }
+        return tracker;
+    }
+
+    /**
+     * Регистрирует метрики пулов в MeterRegistry.
+     * Пулы, созданные до привязки, регистрируются сразу, созданные позже - в момент старта.
+     *
+     * @param registry реестр метрик.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        trackers.forEach((poolName, tracker) -> tracker.bindTo(registry, poolName));
+    }
+
+    /**
+     * Возвращает снимок статистики всех зарегистрированных пулов.
+     *
+     * @return Список статистик пулов.
+     */
+    public List<PoolStatsResponseDto> snapshot() {
+        return trackers.entrySet().stream()
+                .map(entry -> entry.getValue().toDto(entry.getKey()))
+                .toList();
+    }
+
+    /**
+     * Трекер одного пула: счетчики ожиданий и таймаутов, гистограмма времени получения соединения.
+     */
+    private static class PoolTracker implements IMetricsTracker {
+
+        private final PoolStats poolStats;
+        private final LongAdder[] buckets = new LongAdder[ACQUIRE_BUCKETS_MILLIS.length + 1];
+        private final LongAdder acquireCount = new LongAdder();
+        private final LongAdder acquireTimeNanos = new LongAdder();
+        private final LongAccumulator acquireTimeMaxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder timeouts = new LongAdder();
+        private volatile Timer acquireTimer;
+
+        PoolTracker(PoolStats poolStats) {
+            this.poolStats = poolStats;
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquireCount.increment();
+            acquireTimeNanos.add(elapsedAcquiredNanos);
+            acquireTimeMaxNanos.accumulate(elapsedAcquiredNanos);
+            buckets[bucketIndex(TimeUnit.NANOSECONDS.toMillis(elapsedAcquiredNanos))].increment();
+            Timer timer = acquireTimer;
+            if (timer != null) {
+                timer.record(elapsedAcquiredNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+        }
+
+        void bindTo(MeterRegistry registry, String poolName) {
+            gauge(registry, poolName, "hikaricp.connections.active", PoolStats::getActiveConnections);
+            gauge(registry, poolName, "hikaricp.connections.idle", PoolStats::getIdleConnections);
+            gauge(registry, poolName, "hikaricp.connections", PoolStats::getTotalConnections);
+            gauge(registry, poolName, "hikaricp.connections.pending", PoolStats::getPendingThreads);
+            gauge(registry, poolName, "hikaricp.connections.min", PoolStats::getMinConnections);
+            gauge(registry, poolName, "hikaricp.connections.max", PoolStats::getMaxConnections);
+            FunctionCounter.builder("hikaricp.connections.timeout", timeouts, LongAdder::sum)
+                    .tag("pool", poolName)
+                    .register(registry);
+            acquireTimer = Timer.builder("hikaricp.connections.acquire")
+                    .description("Время получения соединения из пула")
+                    .tag("pool", poolName)
+                    .serviceLevelObjectives(ACQUIRE_SLO)
+                    .register(registry);
+        }
+
+        private void gauge(MeterRegistry registry, String poolName, String name, ToIntFunction<PoolStats> value) {
+            Gauge.builder(name, poolStats, stats -> value.applyAsInt(stats))
+                    .tag("pool", poolName)
+                    .register(registry);
+        }
+
+        private static int bucketIndex(long millis) {
+            for (int i = 0; i < ACQUIRE_BUCKETS_MILLIS.length; i++) {
+                if (millis <= ACQUIRE_BUCKETS_MILLIS[i]) {
+                    return i;
+                }
+            }
+            return ACQUIRE_BUCKETS_MILLIS.length;
+        }
+
+        PoolStatsResponseDto toDto(String poolName) {
+            Map<String, Long> histogram = new LinkedHashMap<>();
+            for (int i = 0; i < ACQUIRE_BUCKETS_MILLIS.length; i++) {
+                histogram.put(String.valueOf(ACQUIRE_BUCKETS_MILLIS[i]), buckets[i].sum());
+            }
+            histogram.put("+Inf", buckets[ACQUIRE_BUCKETS_MILLIS.length].sum());
+
+            long count = acquireCount.sum();
+            PoolStatsResponseDto dto = new PoolStatsResponseDto();
+            dto.setPoolName(poolName);
+            dto.setActiveConnections(poolStats.getActiveConnections());
+            dto.setIdleConnections(poolStats.getIdleConnections());
+            dto.setTotalConnections(poolStats.getTotalConnections());
+            dto.setPendingThreads(poolStats.getPendingThreads());
+            dto.setMinConnections(poolStats.getMinConnections());
+            dto.setMaxConnections(poolStats.getMaxConnections());
+            dto.setAcquireCount(count);
+            dto.setAcquireTimeoutCount(timeouts.sum());
+            dto.setAcquireTimeAvgMillis(count == 0 ? 0 : acquireTimeNanos.sum() / count / 1_000_000.0);
+            dto.setAcquireTimeMaxMillis(acquireTimeMaxNanos.get() / 1_000_000.0);
+            dto.setAcquireTimeHistogramMillis(histogram);
+            return dto;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package by.clevertec.house.metrics;
+
+import by.clevertec.house.dto.CacheStatsResponseDto;
+import by.clevertec.house.dto.CacheStatsResponseDto.RegionStatsDto;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.Objects;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Источник статистики второго уровня кэша Hibernate.
+ * Счетчики собираются, только если включен параметр cache.statistics.
+ */
+@Component
+public class HibernateCacheMetrics {
+
+    private final Statistics statistics;
+
+    public HibernateCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Возвращает снимок статистики кэша.
+     *
+     * @return Статистика кэша по всем регионам.
+     */
+    public CacheStatsResponseDto snapshot() {
+        CacheStatsResponseDto dto = new CacheStatsResponseDto();
+        dto.setSecondLevelCacheHitCount(statistics.getSecondLevelCacheHitCount());
+        dto.setSecondLevelCacheMissCount(statistics.getSecondLevelCacheMissCount());
+        dto.setSecondLevelCachePutCount(statistics.getSecondLevelCachePutCount());
+        dto.setNaturalIdCacheHitCount(statistics.getNaturalIdCacheHitCount());
+        dto.setNaturalIdCacheMissCount(statistics.getNaturalIdCacheMissCount());
+        dto.setNaturalIdCachePutCount(statistics.getNaturalIdCachePutCount());
+        dto.setNaturalIdQueryExecutionCount(statistics.getNaturalIdQueryExecutionCount());
+        dto.setRegions(Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .map(statistics::getCacheRegionStatistics)
+                .filter(Objects::nonNull)
+                .map(HibernateCacheMetrics::toRegionDto)
+                .toList());
+        return dto;
+    }
+
+    private static RegionStatsDto toRegionDto(CacheRegionStatistics region) {
+        RegionStatsDto dto = new RegionStatsDto();
+        dto.setRegionName(region.getRegionName());
+        dto.setHitCount(region.getHitCount());
+        dto.setMissCount(region.getMissCount());
+        dto.setPutCount(region.getPutCount());
+        dto.setElementCountInMemory(region.getElementCountInMemory());
+        long requests = region.getHitCount() + region.getMissCount();
+        dto.setHitRatio(requests == 0 ? 0 : (double) region.getHitCount() / requests);
+        return dto;
+    }
+}
@@ -0,0 +1,63 @@
+package by.clevertec.house.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Перехватчик, измеряющий время обработки запросов контроллерами.
+ * Метрика http.server.requests размечается шаблоном маршрута, HTTP-методом, статусом ответа и методом контроллера.
+ * При асинхронной обработке время отсчитывается от первой диспетчеризации запроса до завершения повторной.
+ */
+@Component
+@RequiredArgsConstructor
+public class RequestTimingInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = RequestTimingInterceptor.class.getName() + ".start";
+    private static final String UNKNOWN = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(START_ATTRIBUTE) == null) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Timer.builder("http.server.requests")
+                .tag("uri", pattern == null ? UNKNOWN : pattern.toString())
+                .tag("method", request.getMethod())
+                .tag("status", String.valueOf(response.getStatus()))
+                .tag("handler", handlerName(handler))
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry)
+                .record(System.nanoTime() - (long) start, TimeUnit.NANOSECONDS);
+    }
+
+    private static String handlerName(Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        }
+        return UNKNOWN;
+    }
+}
@@ -0,0 +1,16 @@
+package by.clevertec.house.service;
+
+import by.clevertec.house.dto.ChangeEventDto;
+import by.clevertec.house.entity.ChangeOperation;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface ChangeEventService {
+
+    void record(Class<?> entityClass, UUID uuid, ChangeOperation operation, Collection<String> changedFields);
+
+    List<ChangeEventDto> getChanges(long since, int limit);
+
+    long getLastSequence();
+}
@@ -1,25 +1,50 @@
 package by.clevertec.house.service;
 
+import by.clevertec.house.dto.BatchResultDto;
+import by.clevertec.house.dto.CursorPageDto;
+import by.clevertec.house.dto.EntityVersionDto;
+import by.clevertec.house.dto.HouseFilterDto;
 import by.clevertec.house.dto.HouseRequestDto;
 import by.clevertec.house.dto.HouseResponseDto;
+import by.clevertec.house.dto.MultiGetResultDto;
 import by.clevertec.house.dto.PersonResponseDto;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Predicate;
 
 public interface HouseService {
 
     HouseResponseDto getHouseByUuid(UUID uuid);
 
-    List<HouseResponseDto> getAllHouses(int pageNumber, int pageSize);
+    Optional<HouseResponseDto> getHouseByUuidIfModified(UUID uuid, Predicate<EntityVersionDto> notModified);
+
+    EntityVersionDto getHouseVersion(UUID uuid);
+
+    MultiGetResultDto<HouseResponseDto> getHousesByUuids(List<UUID> uuids);
+
+    CursorPageDto<HouseResponseDto> getAllHouses(int pageNumber, int pageSize, String countMode);
+
+    CursorPageDto<HouseResponseDto> getHousesPage(String after, int limit, String countMode);
+
+    CursorPageDto<HouseResponseDto> findHouses(HouseFilterDto filter, String sort, String after, int limit,
+                                     String countMode);
+
+    void exportHouses(OutputStream outputStream);
 
     void saveHouse(HouseRequestDto houseDto);
 
+    BatchResultDto saveHouses(List<HouseRequestDto> houseDtos);
+
     void updateHouse(UUID uuid, HouseRequestDto houseDto);
 
     void deleteHouse(UUID uuid);
 
-    void updateHouseFields(UUID uuid, Map<String, Object> updates);
+    void updateHouseFields(UUID uuid, Long expectedVersion, Map<String, Object> updates);
+
+    CursorPageDto<PersonResponseDto> getResidents(UUID uuid, String sort, String after, int limit);
 
-    List<PersonResponseDto> getResidents(UUID uuid);
+    CursorPageDto<PersonResponseDto> getOwners(UUID uuid, String sort, String after, int limit);
 }
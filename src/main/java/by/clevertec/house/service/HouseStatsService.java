@@ -0,0 +1,22 @@
+package by.clevertec.house.service;
+
+import by.clevertec.house.dto.HouseStatsResponseDto;
+import by.clevertec.house.entity.House;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface HouseStatsService {
+
+    List<HouseStatsResponseDto> getStats(String groupBy);
+
+    void markHouse(House house);
+
+    void markHouses(Collection<UUID> houseUuids);
+
+    void markResidence(UUID personUuid);
+
+    void markPerson(UUID personUuid);
+
+    void markOwnedByResidents(UUID houseUuid);
+}
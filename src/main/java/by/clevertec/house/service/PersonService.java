@@ -1,27 +1,52 @@
 package by.clevertec.house.service;
 
+import by.clevertec.house.dto.BatchResultDto;
+import by.clevertec.house.dto.CursorPageDto;
+import by.clevertec.house.dto.EntityVersionDto;
 import by.clevertec.house.dto.HouseResponseDto;
+import by.clevertec.house.dto.MultiGetResultDto;
+import by.clevertec.house.dto.PersonFilterDto;
 import by.clevertec.house.dto.PersonRequestDto;
 import by.clevertec.house.dto.PersonResponseDto;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Predicate;
 
 public interface PersonService {
 
     PersonResponseDto getPersonByUuid(UUID uuid);
 
-    List<PersonResponseDto> getAllPersons(int pageNumber, int pageSize);
+    Optional<PersonResponseDto> getPersonByUuidIfModified(UUID uuid, Predicate<EntityVersionDto> notModified);
+
+    EntityVersionDto getPersonVersion(UUID uuid);
+
+    MultiGetResultDto<PersonResponseDto> getPersonsByUuids(List<UUID> uuids);
+
+    CursorPageDto<PersonResponseDto> getAllPersons(int pageNumber, int pageSize, String countMode);
+
+    CursorPageDto<PersonResponseDto> getPersonsPage(String after, int limit, String countMode);
+
+    CursorPageDto<PersonResponseDto> findPersons(PersonFilterDto filter, String sort, String after, int limit,
+                                       String countMode);
+
+    CursorPageDto<PersonResponseDto> searchPersons(String query, String mode, String after, int limit);
+
+    void exportPersons(OutputStream outputStream);
 
     void savePerson(PersonRequestDto person);
 
+    BatchResultDto savePersons(List<PersonRequestDto> persons);
+
     void updatePerson(UUID uuid, PersonRequestDto person);
 
     void deletePerson(UUID uuid);
 
-    void updatePersonFields(UUID uuid, Map<String, Object> updates);
+    void updatePersonFields(UUID uuid, Long expectedVersion, Map<String, Object> updates);
 
-    List<HouseResponseDto> getOwnedHouses(UUID uuid);
+    CursorPageDto<HouseResponseDto> getOwnedHouses(UUID uuid, String sort, String after, int limit);
 
 }
 
@@ -0,0 +1,166 @@
+package by.clevertec.house.service.impl;
+
+import static java.util.stream.Collectors.groupingBy;
+
+import by.clevertec.house.dao.ChangeEventDao;
+import by.clevertec.house.datasource.ReplicaTransactionManager;
+import by.clevertec.house.dto.ChangeEventDto;
+import by.clevertec.house.dto.ChangeSequencesDto;
+import by.clevertec.house.entity.ChangeEvent;
+import by.clevertec.house.entity.ChangeOperation;
+import by.clevertec.house.service.ChangeEventService;
+import by.clevertec.house.util.CursorCodec;
+import by.clevertec.house.util.SequenceHorizon;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Реализация сервиса ленты изменений домов и персон.
+ * Сервисы домов и персон регистрируют изменения в текущей транзакции; непосредственно перед ее фиксацией
+ * события дополняются версиями сущностей и записываются в таблицу change_events одним пакетом.
+ * При откате транзакции события отбрасываются вместе с изменениями.
+ * Записи событий не блокируют друг друга, а потребителям отдаются только события до границы
+ * {@link SequenceHorizon}, после которой еще может зафиксироваться событие с меньшим номером.
+ * Граница вычисляется по основной базе, поэтому чтение ленты тоже выполняется на ней.
+ */
+@Service
+@RequiredArgsConstructor
+public class ChangeEventServiceImpl implements ChangeEventService {
+
+    /**
+     * Количество номеров событий, читаемых за один запрос при продвижении границы.
+     */
+    private static final int HORIZON_SCAN_SIZE = 1000;
+
+    private final ChangeEventDao changeEventDao;
+    private final SequenceHorizon horizon = new SequenceHorizon();
+
+    @Value("${changes.outbox.enabled:true}")
+    private boolean outboxEnabled;
+
+    /**
+     * Регистрирует изменение сущности в текущей транзакции.
+     *
+     * @param entityClass   класс сущности: House или Person.
+     * @param uuid          UUID сущности.
+     * @param operation     вид изменения.
+     * @param changedFields имена измененных полей для обновления или null.
+     * @throws IllegalStateException если транзакция не активна.
+     */
+    @Override
+    public void record(Class<?> entityClass, UUID uuid, ChangeOperation operation, Collection<String> changedFields) {
+        if (!outboxEnabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Change events can only be recorded inside a transaction");
+        }
+        PendingEvents pending = (PendingEvents) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingEvents();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        String fields = changedFields == null ? null : String.join(",", changedFields);
+        pending.events.add(new ChangeEvent(entityClass.getSimpleName(), uuid, operation, fields));
+    }
+
+    /**
+     * Получает события с номером больше заданного и не больше границы ленты.
+     *
+     * @param since номер последнего полученного события (0 для чтения с начала).
+     * @param limit максимальное количество событий.
+     * @return Список DTO событий в порядке номеров.
+     * @throws IllegalArgumentException если размер выборки вне допустимого диапазона.
+     */
+    @Transactional(readOnly = true, label = ReplicaTransactionManager.PRIMARY_LABEL)
+    @Override
+    public List<ChangeEventDto> getChanges(long since, int limit) {
+        CursorCodec.checkLimit(limit);
+        long last;
+        synchronized (horizon) {
+            advanceHorizon();
+            if (!horizon.isKnown()) {
+                return List.of();
+            }
+            last = horizon.frontier();
+        }
+        return changeEventDao.getEventsAfter(since, last, limit);
+    }
+
+    /**
+     * Получает номер последнего события, которое можно отдавать потребителям.
+     *
+     * @return Граница ленты или 0, если событий нет.
+     */
+    @Transactional(readOnly = true, label = ReplicaTransactionManager.PRIMARY_LABEL)
+    @Override
+    public long getLastSequence() {
+        synchronized (horizon) {
+            advanceHorizon();
+            return horizon.frontier();
+        }
+    }
+
+    /**
+     * Продвигает границу ленты по номерам, видимым в текущем снимке. Вызывается под блокировкой границы.
+     */
+    private void advanceHorizon() {
+        if (!horizon.isStarted()) {
+            ChangeSequencesDto last = changeEventDao.getLastSequence();
+            horizon.start(last.getSequences().isEmpty() ? 0 : last.getSequences().get(0), last.getXmax());
+        }
+        ChangeSequencesDto batch;
+        do {
+            batch = changeEventDao.findSequencesAfter(horizon.frontier(), HORIZON_SCAN_SIZE);
+        } while (horizon.advance(batch.getSequences(), batch.getXmin(), batch.getXmax())
+                && batch.getSequences().size() == HORIZON_SCAN_SIZE);
+    }
+
+    /**
+     * Записывает события транзакции. Версии созданных и измененных сущностей читаются одним запросом
+     * на тип сущности после сброса изменений в базу данных.
+     *
+     * @param events события транзакции.
+     */
+    private void write(List<ChangeEvent> events) {
+        Map<String, List<ChangeEvent>> versioned = events.stream()
+                .filter(event -> event.getOperation() != ChangeOperation.DELETE)
+                .collect(groupingBy(ChangeEvent::getEntityType));
+        versioned.forEach((entityName, entityEvents) -> {
+            Map<UUID, Long> versions = changeEventDao.findVersions(entityName,
+                    entityEvents.stream().map(ChangeEvent::getEntityUuid).distinct().toList());
+            entityEvents.forEach(event -> event.setEntityVersion(versions.get(event.getEntityUuid())));
+        });
+        changeEventDao.insertEvents(events);
+    }
+
+    /**
+     * События, зарегистрированные в одной транзакции.
+     */
+    private class PendingEvents implements TransactionSynchronization {
+
+        private final List<ChangeEvent> events = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!events.isEmpty()) {
+                write(events);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ChangeEventServiceImpl.this);
+        }
+    }
+}
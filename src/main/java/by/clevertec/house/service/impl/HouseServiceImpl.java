@@ -5,28 +5,59 @@ import static by.clevertec.house.util.Constant.Attributes.CITY;
 import static by.clevertec.house.util.Constant.Attributes.COUNTRY;
 import static by.clevertec.house.util.Constant.Attributes.NUMBER;
 import static by.clevertec.house.util.Constant.Attributes.STREET;
+import static by.clevertec.house.util.Constant.ErrorMessages.HOUSE_HAS_RESIDENTS;
+import static by.clevertec.house.util.Constant.ErrorMessages.NULL_BATCH_ITEM;
+import static by.clevertec.house.util.Constant.ErrorMessages.STREET_FILTER_REQUIRES_CITY;
 
 import by.clevertec.house.dao.HouseDao;
+import by.clevertec.house.dao.HouseIdResolver;
+import by.clevertec.house.dao.PersonDao;
+import by.clevertec.house.datasource.ReplicaTransactionManager;
+import by.clevertec.house.dto.BatchResultDto;
+import by.clevertec.house.dto.BatchResultDto.BatchItemErrorDto;
+import by.clevertec.house.dto.CursorPageDto;
+import by.clevertec.house.dto.EntityVersionDto;
+import by.clevertec.house.dto.HouseFilterDto;
 import by.clevertec.house.dto.HouseRequestDto;
 import by.clevertec.house.dto.HouseResponseDto;
+import by.clevertec.house.dto.MultiGetResultDto;
+import by.clevertec.house.dto.PatchResultDto;
 import by.clevertec.house.dto.PersonResponseDto;
+import by.clevertec.house.entity.ChangeOperation;
 import by.clevertec.house.entity.House;
+import by.clevertec.house.entity.Person;
+import by.clevertec.house.exception.EntityConflictException;
 import by.clevertec.house.exception.EntityNotFoundException;
 import by.clevertec.house.mapper.HouseMapper;
-import by.clevertec.house.mapper.PersonMapper;
+import by.clevertec.house.service.ChangeEventService;
 import by.clevertec.house.service.HouseService;
+import by.clevertec.house.service.HouseStatsService;
+import by.clevertec.house.util.ChangedFields;
+import by.clevertec.house.util.Constant.Sort;
+import by.clevertec.house.util.CursorCodec;
+import by.clevertec.house.util.MultiGet;
+import by.clevertec.house.util.NdjsonWriter;
+import by.clevertec.house.util.PatchRegistry;
+import by.clevertec.house.util.Ranges;
+import by.clevertec.house.util.ResidentsPolicy;
+import by.clevertec.house.util.SortOrder;
+import by.clevertec.house.util.TotalCounter;
+import by.clevertec.house.util.Violations;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Validator;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -38,10 +69,55 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class HouseServiceImpl implements HouseService {
 
+    /**
+     * Поля дома, доступные для обновления через PATCH.
+     */
+    private static final PatchRegistry PATCH_FIELDS = new PatchRegistry()
+            .register(AREA, value -> Double.valueOf(value.toString()), HouseRequestDto.class)
+            .register(COUNTRY, String.class::cast, HouseRequestDto.class)
+            .register(CITY, String.class::cast, HouseRequestDto.class)
+            .register(STREET, String.class::cast, HouseRequestDto.class)
+            .register(NUMBER, String.class::cast, HouseRequestDto.class);
+
+    /**
+     * Поля дома, изменение которых влияет на сводную статистику по странам и городам.
+     */
+    private static final Set<String> STATS_ATTRIBUTES = Set.of(AREA, COUNTRY, CITY);
+
+    /**
+     * Поля местоположения дома: при их изменении дом переходит в строку статистики другого города.
+     */
+    private static final Set<String> LOCATION_ATTRIBUTES = Set.of(COUNTRY, CITY);
+
     private final HouseDao houseDao;
+    private final HouseIdResolver houseIdResolver;
+    private final PersonDao personDao;
     private final HouseMapper houseMapper;
-    private final PersonMapper personMapper;
+    private final HouseStatsService houseStatsService;
+    private final ChangeEventService changeEventService;
     private final Validator validator;
+    private final NdjsonWriter ndjsonWriter;
+    private final TotalCounter totalCounter;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Value("${mget.max-size:1000}")
+    private int multiGetMaxSize;
+
+    private ResidentsPolicy residentsPolicy;
+
+    /**
+     * Задает политику обработки жильцов при удалении дома. Значение разбирается при создании сервиса,
+     * поэтому неизвестное значение houses.delete.residents останавливает запуск приложения.
+     *
+     * @param residentsPolicy значение параметра houses.delete.residents.
+     * @throws IllegalArgumentException если значение неизвестно.
+     */
+    @Value("${houses.delete.residents:reject}")
+    void setResidentsPolicy(String residentsPolicy) {
+        this.residentsPolicy = ResidentsPolicy.of(residentsPolicy);
+    }
 
     /**
      * Получает DTO дома по его UUID.
@@ -56,18 +132,131 @@ public class HouseServiceImpl implements HouseService {
     }
 
     /**
-     * Получает список всех DTO домов с пагинацией.
+     * Получает DTO дома по его UUID, если версия дома не совпадает с условным запросом клиента.
+     * Сущность загружается один раз (как правило, из кэша второго уровня), поэтому тело ответа
+     * и его ETag соответствуют одному и тому же состоянию. Маппер вызывается только после проверки версии,
+     * ответ 304 обходится без построения DTO. При промахе кэша чтение выполняется на основной базе,
+     * чтобы ETag не отставал от последних изменений.
+     *
+     * @param uuid        UUID дома.
+     * @param notModified проверка версии по условным заголовкам запроса; true, если у клиента актуальная версия.
+     * @return DTO дома или пустой Optional, если у клиента актуальная версия.
+     * @throws EntityNotFoundException если дом не найден.
+     */
+    @Transactional(readOnly = true, label = ReplicaTransactionManager.PRIMARY_LABEL)
+    @Override
+    public Optional<HouseResponseDto> getHouseByUuidIfModified(UUID uuid, Predicate<EntityVersionDto> notModified) {
+        House house = houseDao.getHouseByUuid(uuid);
+        if (notModified.test(new EntityVersionDto(house.getVersion(), house.getUpdateDate()))) {
+            return Optional.empty();
+        }
+        return Optional.of(houseMapper.toDto(house));
+    }
+
+    /**
+     * Получает версию и дату последнего изменения дома по его UUID.
+     * Версия читается с основной базы: реплика может вернуть устаревшую версию.
+     *
+     * @param uuid UUID дома.
+     * @return Версия дома.
+     * @throws EntityNotFoundException если дом не найден.
+     */
+    @Transactional(readOnly = true, label = ReplicaTransactionManager.PRIMARY_LABEL)
+    @Override
+    public EntityVersionDto getHouseVersion(UUID uuid) {
+        return houseDao.findHouseVersionByUuid(uuid)
+                .orElseThrow(() -> EntityNotFoundException.of(House.class, uuid));
+    }
+
+    /**
+     * Получает DTO домов по списку UUID.
+     *
+     * @param uuids UUID домов.
+     * @return Найденные DTO домов и UUID, для которых дом не найден, в порядке запроса.
+     * @throws IllegalArgumentException если список содержит null или длиннее mget.max-size.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public MultiGetResultDto<HouseResponseDto> getHousesByUuids(List<UUID> uuids) {
+        List<UUID> distinctUuids = MultiGet.distinct(uuids, multiGetMaxSize);
+        return MultiGet.result(distinctUuids, houseDao.findHouseDtosByUuids(distinctUuids),
+                HouseResponseDto::getUuid);
+    }
+
+    /**
+     * Получает страницу DTO домов по номеру вместе с общим количеством домов.
+     * Количество считается в той же транзакции, что и выборка страницы.
      *
      * @param pageNumber номер страницы.
      * @param pageSize   размер страницы.
-     * @return Список DTO домов.
+     * @param countMode  режим подсчета общего количества: exact, approximate или none.
+     * @return Страница DTO домов без курсора следующей страницы.
+     * @throws IllegalArgumentException если режим подсчета неизвестен.
      */
     @Transactional(readOnly = true)
     @Override
-    public List<HouseResponseDto> getAllHouses(int pageNumber, int pageSize) {
-        return houseDao.getAllHouses(pageNumber, pageSize).stream()
-                .map(houseMapper::toDto)
-                .collect(Collectors.toList());
+    public CursorPageDto<HouseResponseDto> getAllHouses(int pageNumber, int pageSize, String countMode) {
+        return new CursorPageDto<>(houseDao.getAllHouses(pageNumber, pageSize), null,
+                countHouses(new HouseFilterDto(), countMode));
+    }
+
+    /**
+     * Получает страницу DTO домов, следующих за курсором.
+     *
+     * @param after     курсор последней записи предыдущей страницы или null для первой страницы.
+     * @param limit     размер страницы.
+     * @param countMode режим подсчета общего количества: exact, approximate или none.
+     * @return Страница DTO домов с курсором следующей страницы и общим количеством домов.
+     * @throws IllegalArgumentException если режим подсчета или размер страницы недопустимы.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPageDto<HouseResponseDto> getHousesPage(String after, int limit, String countMode) {
+        CursorCodec.checkLimit(limit);
+        CursorPageDto<HouseResponseDto> page = houseDao.getHousesAfter(CursorCodec.decodeOrZero(after), limit);
+        page.setTotalCount(countHouses(new HouseFilterDto(), countMode));
+        return page;
+    }
+
+    /**
+     * Получает страницу DTO домов, удовлетворяющих фильтру, в заданном порядке.
+     * Общее количество считается в той же транзакции, что и выборка страницы.
+     * Фильтр по улице допускается только вместе с городом: улица индексируется в составе (city, street).
+     *
+     * @param filter    фильтр домов.
+     * @param sort      поле и направление сортировки или null для сортировки по порядку добавления.
+     * @param after     курсор последней записи предыдущей страницы или null для первой страницы.
+     * @param limit     размер страницы.
+     * @param countMode режим подсчета общего количества: exact, approximate или none.
+     * @return Страница DTO домов с курсором следующей страницы и общим количеством записей, удовлетворяющих фильтру.
+     * @throws IllegalArgumentException если фильтр, сортировка, режим подсчета или размер страницы недопустимы.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPageDto<HouseResponseDto> findHouses(HouseFilterDto filter, String sort, String after, int limit,
+                                                      String countMode) {
+        CursorCodec.checkLimit(limit);
+        SortOrder order = SortOrder.parse(sort, Sort.HOUSE_FIELDS);
+        if (filter.getStreet() != null && filter.getCity() == null) {
+            throw new IllegalArgumentException(STREET_FILTER_REQUIRES_CITY);
+        }
+        Ranges.check(AREA, filter.getAreaFrom(), filter.getAreaTo());
+        Ranges.check(Sort.CREATE_DATE, filter.getCreatedFrom(), filter.getCreatedTo());
+        CursorPageDto<HouseResponseDto> page = houseDao.findHouses(filter, order, after, limit);
+        page.setTotalCount(countHouses(filter, countMode));
+        return page;
+    }
+
+    /**
+     * Выгружает DTO всех домов в выходной поток в формате NDJSON.
+     *
+     * @param outputStream выходной поток.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Override
+    public void exportHouses(OutputStream outputStream) {
+        ndjsonWriter.<HouseResponseDto>write(outputStream,
+                sink -> houseDao.scrollAllHouses(house -> sink.accept(houseMapper.toDto(house))));
     }
 
     /**
@@ -81,10 +270,46 @@ public class HouseServiceImpl implements HouseService {
         House house = houseMapper.toEntity(houseDto);
         house.setCreateDate(LocalDateTime.now());
         houseDao.saveHouse(house);
+        houseStatsService.markHouse(house);
+        changeEventService.record(House.class, house.getUuid(), ChangeOperation.CREATE, null);
+    }
+
+    /**
+     * Сохраняет пакет DTO домов в базе данных.
+     * Некорректные элементы пропускаются и попадают в список ошибок с их индексом,
+     * корректные сохраняются порциями размера hibernate.jdbc.batch_size с очисткой контекста после каждой порции.
+     *
+     * @param houseDtos список DTO домов.
+     * @return Результат пакетного сохранения.
+     */
+    @Transactional
+    @Override
+    public BatchResultDto saveHouses(List<HouseRequestDto> houseDtos) {
+        BatchResultDto result = new BatchResultDto();
+        for (int i = 0; i < houseDtos.size(); i++) {
+            HouseRequestDto houseDto = houseDtos.get(i);
+            if (houseDto == null) {
+                result.getErrors().add(new BatchItemErrorDto(i, NULL_BATCH_ITEM));
+                continue;
+            }
+            Set<ConstraintViolation<HouseRequestDto>> violations = validator.validate(houseDto);
+            if (!violations.isEmpty()) {
+                result.getErrors().add(new BatchItemErrorDto(i, Violations.format(violations)));
+                continue;
+            }
+            saveHouse(houseDto);
+            result.setCreated(result.getCreated() + 1);
+            if (result.getCreated() % batchSize == 0) {
+                houseDao.flushAndClear();
+            }
+        }
+        return result;
     }
 
     /**
      * Обновляет DTO дома в базе данных по его UUID.
+     * Город дома до и после изменения отмечается для пересчета сводной статистики, только если
+     * меняется площадь или местоположение.
      *
      * @param uuid     UUID дома.
      * @param houseDto DTO дома с новой информацией.
@@ -98,6 +323,17 @@ public class HouseServiceImpl implements HouseService {
         }
 
         House house = houseDao.getHouseByUuid(uuid);
+        ChangedFields changes = new ChangedFields()
+                .compare(AREA, house.getArea(), houseDto.getArea())
+                .compare(COUNTRY, house.getCountry(), houseDto.getCountry())
+                .compare(CITY, house.getCity(), houseDto.getCity())
+                .compare(STREET, house.getStreet(), houseDto.getStreet())
+                .compare(NUMBER, house.getNumber(), houseDto.getNumber());
+
+        boolean statsChanged = changes.names().stream().anyMatch(STATS_ATTRIBUTES::contains);
+        if (statsChanged) {
+            houseStatsService.markHouse(house);
+        }
 
         house.setArea(houseDto.getArea());
         house.setCountry(houseDto.getCountry());
@@ -106,58 +342,160 @@ public class HouseServiceImpl implements HouseService {
         house.setNumber(houseDto.getNumber());
 
         houseDao.updateHouse(house);
+        if (statsChanged) {
+            houseStatsService.markHouse(house);
+        }
+        if (!changes.isEmpty()) {
+            changeEventService.record(House.class, uuid, ChangeOperation.UPDATE, changes.names());
+        }
     }
 
     /**
      * Удаляет дом по его UUID из базы данных.
+     * Строка дома блокируется, после чего жильцы обрабатываются по политике houses.delete.residents:
+     * reject запрещает удаление дома с жильцами, cascade удаляет жильцов вместе с их связями владения.
+     * Количество запросов не зависит от количества жильцов и владельцев.
      *
      * @param uuid UUID дома.
+     * @throws EntityConflictException если в доме есть жильцы, а политика запрещает их удаление.
      */
     @Transactional
     @Override
     public void deleteHouse(UUID uuid) {
-        houseDao.deleteHouse(uuid);
+        Long houseId = houseDao.lockHouseIdByUuid(uuid).orElse(null);
+        if (houseId == null) {
+            return;
+        }
+        List<UUID> residentUuids = switch (residentsPolicy) {
+            case REJECT -> {
+                long residents = personDao.countResidents(houseId);
+                if (residents > 0) {
+                    throw new EntityConflictException(String.format(HOUSE_HAS_RESIDENTS, uuid, residents));
+                }
+                yield List.of();
+            }
+            case CASCADE -> personDao.findResidentUuids(houseId);
+        };
+
+        houseStatsService.markHouses(List.of(uuid));
+        if (!residentUuids.isEmpty()) {
+            houseStatsService.markOwnedByResidents(uuid);
+            personDao.deleteResidents(houseId);
+            residentUuids.forEach(residentUuid ->
+                    changeEventService.record(Person.class, residentUuid, ChangeOperation.DELETE, null));
+        }
+        houseDao.deleteHouse(houseId);
+        houseIdResolver.removeAfterCommit(uuid);
+        changeEventService.record(House.class, uuid, ChangeOperation.DELETE, null);
     }
 
     /**
      * Обновляет определенные поля дома по его UUID.
+     * Поля проверяются по реестру и записываются одним запросом UPDATE без загрузки дома; тот же запрос
+     * возвращает текущую версию, по которой отличаются 404, 409 и обновление без изменений.
+     * Если меняется площадь или местоположение, город дома до изменения отмечается для пересчета
+     * сводной статистики; новый город запрашивается и отмечается, только если меняется местоположение.
      *
-     * @param uuid    UUID дома.
-     * @param updates Map с обновлениями полей.
+     * @param uuid            UUID дома.
+     * @param expectedVersion ожидаемая версия дома из заголовка If-Match или null.
+     * @param updates         Map с обновлениями полей.
+     * @throws EntityNotFoundException если дом не найден.
+     * @throws EntityConflictException если версия дома не совпадает с ожидаемой.
      */
     @Transactional
     @Override
-    public void updateHouseFields(UUID uuid, Map<String, Object> updates) {
-        House existingHouse = Optional.ofNullable(houseDao.getHouseByUuid(uuid))
+    public void updateHouseFields(UUID uuid, Long expectedVersion, Map<String, Object> updates) {
+        Map<String, Object> values = PATCH_FIELDS.resolve(updates, validator);
+        if (values.isEmpty()) {
+            checkVersion(uuid, expectedVersion, getHouseVersion(uuid).getVersion());
+            return;
+        }
+        if (values.keySet().stream().anyMatch(STATS_ATTRIBUTES::contains)) {
+            houseStatsService.markHouses(List.of(uuid));
+        }
+        PatchResultDto result = houseDao.updateHouseFields(uuid, expectedVersion, PATCH_FIELDS.toColumns(values))
                 .orElseThrow(() -> EntityNotFoundException.of(House.class, uuid));
-        for (Map.Entry<String, Object> entry : updates.entrySet()) {
-            if (entry.getValue() != null) {
-                switch (entry.getKey()) {
-                    case AREA -> existingHouse.setArea(Double.parseDouble(entry.getValue().toString()));
-                    case COUNTRY -> existingHouse.setCountry((String) entry.getValue());
-                    case CITY -> existingHouse.setCity((String) entry.getValue());
-                    case STREET -> existingHouse.setStreet((String) entry.getValue());
-                    case NUMBER -> existingHouse.setNumber((String) entry.getValue());
-                }
-            }
+        if (!result.isUpdated()) {
+            checkVersion(uuid, expectedVersion, result.getVersion());
+            return;
         }
-        houseDao.updateHouse(existingHouse);
+        if (values.keySet().stream().anyMatch(LOCATION_ATTRIBUTES::contains)) {
+            houseStatsService.markHouses(List.of(uuid));
+        }
+        changeEventService.record(House.class, uuid, ChangeOperation.UPDATE, values.keySet());
     }
 
     /**
-     * Получает список DTO персон, проживающих в доме по его UUID.
+     * Проверяет, что версия дома, который не был обновлен, совпадает с ожидаемой.
      *
-     * @param uuid UUID дома.
-     * @return Список DTO персон.
+     * @param uuid            UUID дома.
+     * @param expectedVersion ожидаемая версия дома или null, если версия не проверяется.
+     * @param currentVersion  текущая версия дома.
+     * @throws EntityConflictException если версия дома не совпадает с ожидаемой.
+     */
+    private static void checkVersion(UUID uuid, Long expectedVersion, long currentVersion) {
+        if (expectedVersion != null && currentVersion != expectedVersion) {
+            throw EntityConflictException.of(House.class, uuid, expectedVersion, currentVersion);
+        }
+    }
+
+    /**
+     * Получает страницу DTO персон, проживающих в доме по его UUID, с общим количеством жильцов.
+     *
+     * @param uuid  UUID дома.
+     * @param sort  поле и направление сортировки или null для сортировки по порядку добавления.
+     * @param after курсор последней записи предыдущей страницы или null для первой страницы.
+     * @param limit размер страницы.
+     * @return Страница DTO персон.
+     * @throws EntityNotFoundException если дом не найден.
      */
     @Transactional(readOnly = true)
     @Override
-    public List<PersonResponseDto> getResidents(UUID uuid) {
-        House house = houseDao.getHouseByUuid(uuid);
-        return house.getResidents().stream()
-                .map(personMapper::toDto)
-                .distinct()
-                .collect(Collectors.toList());
+    public CursorPageDto<PersonResponseDto> getResidents(UUID uuid, String sort, String after, int limit) {
+        CursorCodec.checkLimit(limit);
+        SortOrder order = SortOrder.parse(sort, Sort.PERSON_FIELDS);
+        long houseId = houseDao.findHouseIdByUuid(uuid)
+                .orElseThrow(() -> EntityNotFoundException.of(House.class, uuid));
+        CursorPageDto<PersonResponseDto> page = personDao.getResidentsPage(houseId, order, after, limit);
+        page.setTotalCount(personDao.countResidents(houseId));
+        return page;
     }
 
+    /**
+     * Получает страницу DTO владельцев дома по его UUID с общим количеством владельцев.
+     *
+     * @param uuid  UUID дома.
+     * @param sort  поле и направление сортировки или null для сортировки по порядку добавления.
+     * @param after курсор последней записи предыдущей страницы или null для первой страницы.
+     * @param limit размер страницы.
+     * @return Страница DTO персон.
+     * @throws EntityNotFoundException если дом не найден.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPageDto<PersonResponseDto> getOwners(UUID uuid, String sort, String after, int limit) {
+        CursorCodec.checkLimit(limit);
+        SortOrder order = SortOrder.parse(sort, Sort.PERSON_FIELDS);
+        long houseId = houseDao.findHouseIdByUuid(uuid)
+                .orElseThrow(() -> EntityNotFoundException.of(House.class, uuid));
+        CursorPageDto<PersonResponseDto> page = personDao.getOwnersPage(houseId, order, after, limit);
+        page.setTotalCount(personDao.countOwners(houseId));
+        return page;
+    }
+
+    /**
+     * Получает общее количество домов, удовлетворяющих фильтру.
+     * Точное количество кэшируется на несколько секунд, если фильтр не задает границ диапазонов;
+     * приблизительное для списка без фильтра читается из статистики планировщика PostgreSQL,
+     * для списка с фильтром - совпадает с точным.
+     *
+     * @param filter фильтр домов.
+     * @param mode   режим подсчета: exact, approximate или none.
+     * @return Количество домов или null в режиме none.
+     * @throws IllegalArgumentException если режим подсчета неизвестен.
+     */
+    private Long countHouses(HouseFilterDto filter, String mode) {
+        return totalCounter.count(mode, filter, !filter.hasRange(), () -> houseDao.countHouses(filter),
+                filter.isEmpty() ? houseDao::estimateHouseCount : Optional::empty);
+    }
 }
@@ -0,0 +1,218 @@
+package by.clevertec.house.service.impl;
+
+import static by.clevertec.house.util.Constant.ErrorMessages.UNKNOWN_STATS_GROUP;
+import static by.clevertec.house.util.Constant.StatsGroup.CITY;
+import static by.clevertec.house.util.Constant.StatsGroup.COUNTRY;
+
+import by.clevertec.house.dao.HouseStatsDao;
+import by.clevertec.house.dto.HouseStatsResponseDto;
+import by.clevertec.house.entity.House;
+import by.clevertec.house.entity.HouseLocation;
+import by.clevertec.house.service.HouseStatsService;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Реализация сервиса сводной статистики домов по странам и городам.
+ * Сервисы домов и персон отмечают города, затронутые изменением; перед фиксацией транзакции
+ * города записываются в таблицу house_stats_pending той же транзакцией, а фоновый поток с периодом
+ * stats.refresh.interval пересчитывает каждый отмеченный город один раз, сколько бы изменений его ни затронуло.
+ * Запрос, изменивший данные, не ждет пересчета и не занимает второе соединение. При откате транзакции
+ * отметки откатываются вместе с ней, а отметки, не пересчитанные из-за ошибки или остановки приложения,
+ * остаются в таблице до следующего пересчета.
+ */
+@Slf4j
+@Service
+public class HouseStatsServiceImpl implements HouseStatsService, DisposableBean {
+
+    private final HouseStatsDao houseStatsDao;
+    private final boolean refreshEnabled;
+    private final ScheduledExecutorService refresher;
+
+    public HouseStatsServiceImpl(HouseStatsDao houseStatsDao,
+                                 @Value("${stats.refresh.enabled:true}") boolean refreshEnabled,
+                                 @Value("${stats.refresh.interval:1000}") long refreshInterval) {
+        this.houseStatsDao = houseStatsDao;
+        this.refreshEnabled = refreshEnabled;
+        if (refreshEnabled) {
+            refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "house-stats-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            refresher.scheduleWithFixedDelay(this::refreshDirty, refreshInterval, refreshInterval,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            refresher = null;
+        }
+    }
+
+    /**
+     * Получает сводную статистику домов.
+     *
+     * @param groupBy группировка: country или city.
+     * @return Список DTO статистики.
+     * @throws IllegalArgumentException если группировка неизвестна.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<HouseStatsResponseDto> getStats(String groupBy) {
+        return switch (groupBy) {
+            case COUNTRY -> houseStatsDao.getCountryStats();
+            case CITY -> houseStatsDao.getCityStats();
+            default -> throw new IllegalArgumentException(UNKNOWN_STATS_GROUP + groupBy);
+        };
+    }
+
+    /**
+     * Отмечает город дома для пересчета статистики после фиксации текущей транзакции.
+     * При изменении страны или города дома отмечается и прежнее, и новое местоположение.
+     *
+     * @param house дом.
+     */
+    @Override
+    public void markHouse(House house) {
+        mark(List.of(new HouseLocation(house.getCountry(), house.getCity())));
+    }
+
+    /**
+     * Отмечает города домов по их UUID в их текущем состоянии.
+     * Вызывается до изменения или удаления домов, чтобы учесть прежнее местоположение.
+     *
+     * @param houseUuids UUID домов.
+     */
+    @Override
+    public void markHouses(Collection<UUID> houseUuids) {
+        if (refreshEnabled) {
+            mark(houseStatsDao.findLocationsByHouseUuids(houseUuids));
+        }
+    }
+
+    /**
+     * Отмечает город дома, в котором сейчас проживает персона.
+     *
+     * @param personUuid UUID персоны.
+     */
+    @Override
+    public void markResidence(UUID personUuid) {
+        if (refreshEnabled) {
+            houseStatsDao.findResidenceLocation(personUuid).ifPresent(location -> mark(List.of(location)));
+        }
+    }
+
+    /**
+     * Отмечает города дома проживания и домов во владении персоны.
+     * Вызывается до удаления персоны, пока ее связи еще существуют.
+     *
+     * @param personUuid UUID персоны.
+     */
+    @Override
+    public void markPerson(UUID personUuid) {
+        if (refreshEnabled) {
+            mark(houseStatsDao.findPersonLocations(personUuid));
+        }
+    }
+
+    /**
+     * Отмечает города домов, которыми владеют жильцы дома.
+     * Вызывается до удаления дома вместе с жильцами.
+     *
+     * @param houseUuid UUID дома.
+     */
+    @Override
+    public void markOwnedByResidents(UUID houseUuid) {
+        if (refreshEnabled) {
+            mark(houseStatsDao.findLocationsOwnedByResidents(houseUuid));
+        }
+    }
+
+    /**
+     * Останавливает фоновый пересчет, пересчитав города, отмеченные до остановки.
+     * Отметки, которые не удалось пересчитать, остаются в таблице и пересчитываются после запуска.
+     */
+    @Override
+    public void destroy() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+            refreshDirty();
+        }
+    }
+
+    /**
+     * Добавляет местоположения в набор, записываемый в таблицу отметок перед фиксацией текущей транзакции.
+     * Вне транзакции местоположения сразу записываются в таблицу отметок.
+     *
+     * @param locations местоположения.
+     */
+    private void mark(Collection<HouseLocation> locations) {
+        if (!refreshEnabled || locations.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            houseStatsDao.addPendingLocations(locations);
+            return;
+        }
+        PendingRefresh pending = (PendingRefresh) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingRefresh();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.locations.addAll(locations);
+    }
+
+    /**
+     * Пересчитывает статистику отмеченных городов. Каждый город пересчитывается в отдельной транзакции
+     * вместе с удалением прочитанных отметок, поэтому изменение, зафиксированное во время пересчета,
+     * оставляет свою отметку до следующего периода. Ошибка пересчета не влияет на уже зафиксированное
+     * изменение: она записывается в журнал, а отметки города остаются и пересчитываются в следующем периоде.
+     */
+    private void refreshDirty() {
+        Map<HouseLocation, List<Long>> pending;
+        try {
+            pending = houseStatsDao.findPendingLocations();
+        } catch (RuntimeException e) {
+            log.warn("Failed to read pending house stats locations", e);
+            return;
+        }
+        pending.forEach((location, pendingIds) -> {
+            try {
+                houseStatsDao.refreshLocation(location, pendingIds);
+            } catch (RuntimeException e) {
+                log.warn("Failed to refresh house stats for {}", location, e);
+            }
+        });
+    }
+
+    /**
+     * Набор городов, отмеченных в одной транзакции.
+     */
+    private class PendingRefresh implements TransactionSynchronization {
+
+        private final Set<HouseLocation> locations = new LinkedHashSet<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            houseStatsDao.addPendingLocations(locations);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(HouseStatsServiceImpl.this);
+        }
+    }
+}
@@ -1,31 +1,88 @@
 package by.clevertec.house.service.impl;
 
-import static java.util.stream.Collectors.toList;
+import static by.clevertec.house.util.Constant.Attributes.HOUSE;
+import static by.clevertec.house.util.Constant.Attributes.HOUSE_UUID;
+import static by.clevertec.house.util.Constant.Attributes.NAME;
+import static by.clevertec.house.util.Constant.Attributes.OWNED_HOUSE_UUIDS;
+import static by.clevertec.house.util.Constant.Attributes.PASSPORT_NUMBER;
+import static by.clevertec.house.util.Constant.Attributes.PASSPORT_SERIES;
+import static by.clevertec.house.util.Constant.Attributes.SEX;
+import static by.clevertec.house.util.Constant.Attributes.SURNAME;
+import static by.clevertec.house.util.Constant.ErrorMessages.HOUSE_UUID_REQUIRED;
+import static by.clevertec.house.util.Constant.ErrorMessages.NULL_BATCH_ITEM;
+import static by.clevertec.house.util.Constant.ErrorMessages.SEARCH_QUERY_TOO_LONG;
+import static by.clevertec.house.util.Constant.ErrorMessages.SEARCH_QUERY_TOO_SHORT;
+import static by.clevertec.house.util.Constant.ErrorMessages.UNKNOWN_SEARCH_MODE;
+import static by.clevertec.house.util.Constant.Search.FUZZY;
+import static by.clevertec.house.util.Constant.Search.FUZZY_MIN_WORD_LENGTH;
+import static by.clevertec.house.util.Constant.Search.MAX_WORDS;
+import static by.clevertec.house.util.Constant.Search.PREFIX;
+import static by.clevertec.house.util.Constant.Search.PREFIX_MIN_WORD_LENGTH;
+import static java.util.stream.Collectors.toCollection;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
 
 import by.clevertec.house.dao.HouseDao;
+import by.clevertec.house.dao.HouseIdResolver;
 import by.clevertec.house.dao.PersonDao;
+import by.clevertec.house.datasource.ReplicaTransactionManager;
+import by.clevertec.house.dto.BatchResultDto;
+import by.clevertec.house.dto.BatchResultDto.BatchItemErrorDto;
+import by.clevertec.house.dto.CursorPageDto;
+import by.clevertec.house.dto.EntityVersionDto;
 import by.clevertec.house.dto.HouseResponseDto;
+import by.clevertec.house.dto.MultiGetResultDto;
+import by.clevertec.house.dto.PatchResultDto;
+import by.clevertec.house.dto.PersonFilterDto;
 import by.clevertec.house.dto.PersonRequestDto;
 import by.clevertec.house.dto.PersonRequestDto.PassportDataDto;
 import by.clevertec.house.dto.PersonResponseDto;
+import by.clevertec.house.entity.ChangeOperation;
 import by.clevertec.house.entity.House;
 import by.clevertec.house.entity.PassportData;
 import by.clevertec.house.entity.Person;
 import by.clevertec.house.entity.Sex;
+import by.clevertec.house.exception.EntityConflictException;
 import by.clevertec.house.exception.EntityNotFoundException;
-import by.clevertec.house.mapper.HouseMapper;
 import by.clevertec.house.mapper.PersonMapper;
+import by.clevertec.house.service.ChangeEventService;
+import by.clevertec.house.service.HouseStatsService;
 import by.clevertec.house.service.PersonService;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import by.clevertec.house.util.ChangedFields;
+import by.clevertec.house.util.Constant.Sort;
+import by.clevertec.house.util.CursorCodec;
+import by.clevertec.house.util.MultiGet;
+import by.clevertec.house.util.NdjsonWriter;
+import by.clevertec.house.util.PatchRegistry;
+import by.clevertec.house.util.Ranges;
+import by.clevertec.house.util.SortOrder;
+import by.clevertec.house.util.TotalCounter;
+import by.clevertec.house.util.Violations;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.function.Predicate;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -36,10 +93,40 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class PersonServiceImpl implements PersonService {
 
+    /**
+     * Поля персоны, доступные для обновления через PATCH. Новый дом проживания задается UUID
+     * и заменяется идентификатором дома перед обновлением.
+     */
+    private static final PatchRegistry PATCH_FIELDS = new PatchRegistry()
+            .register(NAME, String.class::cast, PersonRequestDto.class)
+            .register(SURNAME, String.class::cast, PersonRequestDto.class)
+            .register(SEX, value -> Sex.valueOf(value.toString()), PersonRequestDto.class)
+            .register(PASSPORT_SERIES, PASSPORT_SERIES, "passport_series", String.class::cast,
+                    PassportDataDto.class, "passportSeries")
+            .register(PASSPORT_NUMBER, PASSPORT_NUMBER, "passport_number", String.class::cast,
+                    PassportDataDto.class, "passportNumber")
+            .register(HOUSE_UUID, HOUSE, "house_id", value -> UUID.fromString(value.toString()), null, null);
+
+    /**
+     * Запрос, совпадающий с серией и номером паспорта, например "AB1234567" или "AB 1234567".
+     */
+    private static final Pattern PASSPORT_QUERY = Pattern.compile("([A-Za-z]{2})\\s*(\\d{7})");
+
     private final PersonDao personDao;
     private final HouseDao houseDao;
+    private final HouseIdResolver houseIdResolver;
     private final PersonMapper personMapper;
-    private final HouseMapper houseMapper;
+    private final HouseStatsService houseStatsService;
+    private final ChangeEventService changeEventService;
+    private final NdjsonWriter ndjsonWriter;
+    private final TotalCounter totalCounter;
+    private final Validator validator;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Value("${mget.max-size:1000}")
+    private int multiGetMaxSize;
 
     /**
      * Получает DTO персоны по его UUID.
@@ -54,48 +141,222 @@ public class PersonServiceImpl implements PersonService {
     }
 
     /**
-     * Получает список всех DTO персон с пагинацией.
+     * Получает DTO персоны по ее UUID, если версия персоны не совпадает с условным запросом клиента.
+     * Сущность загружается один раз (как правило, из кэша второго уровня), поэтому тело ответа
+     * и его ETag соответствуют одному и тому же состоянию. Маппер вызывается только после проверки версии,
+     * ответ 304 обходится без построения DTO. При промахе кэша чтение выполняется на основной базе,
+     * чтобы ETag не отставал от последних изменений.
+     *
+     * @param uuid        UUID персоны.
+     * @param notModified проверка версии по условным заголовкам запроса; true, если у клиента актуальная версия.
+     * @return DTO персоны или пустой Optional, если у клиента актуальная версия.
+     * @throws EntityNotFoundException если персона не найдена.
+     */
+    @Transactional(readOnly = true, label = ReplicaTransactionManager.PRIMARY_LABEL)
+    @Override
+    public Optional<PersonResponseDto> getPersonByUuidIfModified(UUID uuid, Predicate<EntityVersionDto> notModified) {
+        Person person = personDao.getPersonByUuid(uuid);
+        if (notModified.test(new EntityVersionDto(person.getVersion(), person.getUpdateDate()))) {
+            return Optional.empty();
+        }
+        return Optional.of(personMapper.toDto(person));
+    }
+
+    /**
+     * Получает версию и дату последнего изменения персоны по ее UUID.
+     * Версия читается с основной базы: реплика может вернуть устаревшую версию.
+     *
+     * @param uuid UUID персоны.
+     * @return Версия персоны.
+     * @throws EntityNotFoundException если персона не найдена.
+     */
+    @Transactional(readOnly = true, label = ReplicaTransactionManager.PRIMARY_LABEL)
+    @Override
+    public EntityVersionDto getPersonVersion(UUID uuid) {
+        return personDao.findPersonVersionByUuid(uuid)
+                .orElseThrow(() -> EntityNotFoundException.of(Person.class, uuid));
+    }
+
+    /**
+     * Получает DTO персон по списку UUID.
+     *
+     * @param uuids UUID персон.
+     * @return Найденные DTO персон и UUID, для которых персона не найдена, в порядке запроса.
+     * @throws IllegalArgumentException если список содержит null или длиннее mget.max-size.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public MultiGetResultDto<PersonResponseDto> getPersonsByUuids(List<UUID> uuids) {
+        List<UUID> distinctUuids = MultiGet.distinct(uuids, multiGetMaxSize);
+        return MultiGet.result(distinctUuids, personDao.findPersonDtosByUuids(distinctUuids),
+                PersonResponseDto::getUuid);
+    }
+
+    /**
+     * Получает страницу DTO персон по номеру вместе с общим количеством персон.
+     * Количество считается в той же транзакции, что и выборка страницы.
      *
      * @param pageNumber номер страницы.
      * @param pageSize   размер страницы.
-     * @return Список DTO персон.
+     * @param countMode  режим подсчета общего количества: exact, approximate или none.
+     * @return Страница DTO персон без курсора следующей страницы.
+     * @throws IllegalArgumentException если режим подсчета неизвестен.
      */
     @Transactional(readOnly = true)
     @Override
-    public List<PersonResponseDto> getAllPersons(int pageNumber, int pageSize) {
-        return personDao.getAllPersons(pageNumber, pageSize).stream()
-                .map(personMapper::toDto)
-                .collect(toList());
+    public CursorPageDto<PersonResponseDto> getAllPersons(int pageNumber, int pageSize, String countMode) {
+        return new CursorPageDto<>(personDao.getAllPersons(pageNumber, pageSize), null,
+                countPersons(new PersonFilterDto(), countMode));
+    }
+
+    /**
+     * Получает страницу DTO персон, следующих за курсором.
+     *
+     * @param after     курсор последней записи предыдущей страницы или null для первой страницы.
+     * @param limit     размер страницы.
+     * @param countMode режим подсчета общего количества: exact, approximate или none.
+     * @return Страница DTO персон с курсором следующей страницы и общим количеством персон.
+     * @throws IllegalArgumentException если режим подсчета или размер страницы недопустимы.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPageDto<PersonResponseDto> getPersonsPage(String after, int limit, String countMode) {
+        CursorCodec.checkLimit(limit);
+        CursorPageDto<PersonResponseDto> page = personDao.getPersonsAfter(CursorCodec.decodeOrZero(after), limit);
+        page.setTotalCount(countPersons(new PersonFilterDto(), countMode));
+        return page;
+    }
+
+    /**
+     * Получает страницу DTO персон, удовлетворяющих фильтру, в заданном порядке.
+     * Общее количество считается в той же транзакции, что и выборка страницы.
+     * Сортировка допускается только по индексируемым полям списка персон: id и createDate.
+     *
+     * @param filter    фильтр персон.
+     * @param sort      поле и направление сортировки или null для сортировки по порядку добавления.
+     * @param after     курсор последней записи предыдущей страницы или null для первой страницы.
+     * @param limit     размер страницы.
+     * @param countMode режим подсчета общего количества: exact, approximate или none.
+     * @return Страница DTO персон с курсором следующей страницы и общим количеством записей, удовлетворяющих фильтру.
+     * @throws IllegalArgumentException если фильтр, сортировка, режим подсчета или размер страницы недопустимы.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPageDto<PersonResponseDto> findPersons(PersonFilterDto filter, String sort, String after, int limit,
+                                                        String countMode) {
+        CursorCodec.checkLimit(limit);
+        SortOrder order = SortOrder.parse(sort, Sort.PERSON_LIST_FIELDS);
+        Ranges.check(Sort.CREATE_DATE, filter.getCreatedFrom(), filter.getCreatedTo());
+        CursorPageDto<PersonResponseDto> page = personDao.findPersons(filter, order, after, limit);
+        page.setTotalCount(countPersons(filter, countMode));
+        return page;
+    }
+
+    /**
+     * Ищет персон по имени, фамилии или паспорту.
+     * Запрос вида серия + номер паспорта ищется точным совпадением и возвращает не более одной персоны.
+     * Иначе каждое слово запроса длиной не менее трех символов должно совпасть с именем или фамилией:
+     * в режиме prefix - как начало строки, в режиме fuzzy - по сходству триграмм.
+     * Результаты упорядочены по идентификатору и выдаются по курсору.
+     *
+     * @param query строка запроса.
+     * @param mode  режим сравнения слов: prefix или fuzzy.
+     * @param after курсор последней записи предыдущей страницы или null для первой страницы.
+     * @param limit размер страницы.
+     * @return Страница DTO найденных персон с курсором следующей страницы.
+     * @throws IllegalArgumentException если запрос, режим, курсор или размер страницы недопустимы.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPageDto<PersonResponseDto> searchPersons(String query, String mode, String after, int limit) {
+        CursorCodec.checkLimit(limit);
+        long afterId = CursorCodec.decodeOrZero(after);
+        String trimmed = query.strip();
+        Matcher passport = PASSPORT_QUERY.matcher(trimmed);
+        if (passport.matches()) {
+            List<PersonResponseDto> items = afterId == 0
+                    ? personDao.findPersonByPassport(passport.group(1).toUpperCase(Locale.ROOT), passport.group(2))
+                    .stream().toList()
+                    : List.of();
+            return new CursorPageDto<>(items, null);
+        }
+        List<String> words = List.of(trimmed.split("\\s+"));
+        return switch (mode) {
+            case PREFIX -> personDao.searchPersonsByPrefix(checkWords(words, PREFIX_MIN_WORD_LENGTH), afterId, limit);
+            case FUZZY -> personDao.searchPersonsBySimilarity(checkWords(words, FUZZY_MIN_WORD_LENGTH), afterId,
+                    limit);
+            default -> throw new IllegalArgumentException(UNKNOWN_SEARCH_MODE + mode);
+        };
+    }
+
+    /**
+     * Выгружает DTO всех персон в выходной поток в формате NDJSON.
+     *
+     * @param outputStream выходной поток.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Override
+    public void exportPersons(OutputStream outputStream) {
+        ndjsonWriter.<PersonResponseDto>write(outputStream,
+                sink -> personDao.scrollAllPersons(person -> sink.accept(personMapper.toDto(person))));
     }
 
     /**
      * Сохраняет DTO персоны в базе данных.
+     * Дома не загружаются: идентификаторы берутся из HouseIdResolver, персона ссылается на дом проживания
+     * через прокси, а связи владения добавляются в house_owner после сброса персоны без загрузки коллекций владельцев.
      *
      * @param personDto DTO персоны.
      */
     @Transactional
     @Override
     public void savePerson(PersonRequestDto personDto) {
-        Person mappedPerson = personMapper.toEntity(personDto);
-        if (mappedPerson.getUuid() == null) {
-            mappedPerson.setUuid(UUID.randomUUID());
-        }
-        House houseEntity = returnHouseResidentIfExist(personDto);
-        mappedPerson.setHouse(houseEntity);
-
-        List<House> listHouseOwners = getListHouseOwnersIfExist(personDto);
-        mappedPerson.setOwnedHouses(listHouseOwners);
+        House house = returnHouseResidentIfExist(personDto);
+        Collection<Long> ownedHouseIds = getOwnedHouseIdsIfExist(personDto);
+        Person person = persistPerson(personDto, house);
+        personDao.flushAndClear();
+        houseDao.addOwnerships(person.getId(), ownedHouseIds);
+        houseStatsService.markHouses(getReferencedHouseUuids(List.of(personDto)));
+    }
 
-        for (House house : listHouseOwners) {
-            house.getOwners().add(mappedPerson);
-            houseDao.saveHouse(house);
+    /**
+     * Сохраняет пакет DTO персон в базе данных.
+     * Элементы с ошибками валидации или ссылками на несуществующие дома пропускаются и попадают
+     * в список ошибок с их индексом. Запрос обрабатывается порциями размера hibernate.jdbc.batch_size:
+     * идентификаторы домов проживания и домов во владении берутся из HouseIdResolver, дома не загружаются.
+     * После сброса и очистки контекста персистентности связи владения всей порции добавляются одним пакетом JDBC,
+     * а города домов порции отмечаются для пересчета статистики.
+     *
+     * @param personDtos список DTO персон.
+     * @return Результат пакетного сохранения.
+     */
+    @Transactional
+    @Override
+    public BatchResultDto savePersons(List<PersonRequestDto> personDtos) {
+        BatchResultDto result = new BatchResultDto();
+        for (int from = 0; from < personDtos.size(); from += batchSize) {
+            List<PersonRequestDto> chunk = personDtos.subList(from, Math.min(from + batchSize, personDtos.size()));
+            Map<UUID, Long> houseIds = houseIdResolver.findHouseIds(getReferencedHouseUuids(chunk));
+            Map<Long, List<Long>> ownerships = new HashMap<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                String error = saveBatchItem(chunk.get(i), houseIds, ownerships);
+                if (error != null) {
+                    result.getErrors().add(new BatchItemErrorDto(from + i, error));
+                } else {
+                    result.setCreated(result.getCreated() + 1);
+                }
+            }
+            personDao.flushAndClear();
+            houseDao.addOwnerships(ownerships);
+            houseStatsService.markHouses(getReferencedHouseUuids(chunk));
         }
-
-        personDao.savePerson(mappedPerson);
+        return result;
     }
 
     /**
      * Обновляет DTO персоны в базе данных по его UUID.
+     * Связи владения меняются разностью множеств текущих и запрошенных домов.
+     * Для пересчета сводной статистики отмечаются только дома, у которых меняются жильцы или владельцы.
      *
      * @param uuid      UUID персоны.
      * @param personDto DTO персоны с новой информацией.
@@ -104,76 +365,117 @@ public class PersonServiceImpl implements PersonService {
     @Override
     public void updatePerson(UUID uuid, @Valid PersonRequestDto personDto) {
         Person existingPerson = personDao.getPersonByUuid(uuid);
+        House previousHouse = existingPerson.getHouse();
+        ChangedFields changes = getChanges(existingPerson, personDto);
 
         updatePersonDetails(existingPerson, personDto);
-        updateHouse(existingPerson, personDto);
-        updateOwnedHouses(existingPerson, personDto);
+        boolean houseChanged = updateHouse(existingPerson, personDto);
+        Set<UUID> markedHouseUuids = new LinkedHashSet<>(updateOwnedHouses(existingPerson, personDto));
+        if (houseChanged) {
+            houseStatsService.markHouse(previousHouse);
+            markedHouseUuids.add(personDto.getHouseUuid());
+        }
 
         personDao.updatePerson(existingPerson);
+        houseStatsService.markHouses(markedHouseUuids);
+        if (!changes.isEmpty()) {
+            changeEventService.record(Person.class, uuid, ChangeOperation.UPDATE, changes.names());
+        }
     }
 
     /**
      * Удаляет персону по его UUID из базы данных.
+     * Связи владения удаляются одним запросом по owner_id: ни персона, ни ее дома и их владельцы не загружаются.
      *
      * @param uuid UUID персоны.
+     * @throws EntityNotFoundException если персона не найдена.
      */
     @Transactional
     @Override
     public void deletePerson(UUID uuid) {
-        Person person = personDao.getPersonByUuid(uuid);
-        if (person == null) {
-            throw EntityNotFoundException.of(Person.class, uuid);
-        }
-
-        person.getOwnedHouses().forEach(house -> house.getOwners().remove(person));
-        person.getOwnedHouses().clear();
+        long personId = personDao.findPersonIdByUuid(uuid)
+                .orElseThrow(() -> EntityNotFoundException.of(Person.class, uuid));
+        houseStatsService.markPerson(uuid);
 
-        personDao.deletePerson(uuid);
+        personDao.deletePerson(personId);
+        changeEventService.record(Person.class, uuid, ChangeOperation.DELETE, null);
     }
 
     /**
-     * Обновляет определенные поля персоны по его UUID.
+     * Обновляет определенные поля персоны по ее UUID.
+     * Поля проверяются по реестру и записываются одним запросом UPDATE без загрузки персоны;
+     * дата изменения и версия меняются, только если значения действительно отличаются.
+     * Тот же запрос возвращает текущую версию, по которой отличаются 404, 409 и обновление без изменений.
      *
-     * @param uuid    UUID персоны.
-     * @param updates Map с обновлениями полей.
+     * @param uuid            UUID персоны.
+     * @param expectedVersion ожидаемая версия персоны из заголовка If-Match или null.
+     * @param updates         Map с обновлениями полей.
+     * @throws EntityNotFoundException если персона или новый дом проживания не найдены.
+     * @throws EntityConflictException если версия персоны не совпадает с ожидаемой.
      */
     @Transactional
     @Override
-    public void updatePersonFields(UUID uuid, Map<String, Object> updates) {
-        Person existingPerson = personDao.getPersonByUuid(uuid);
-        ObjectMapper mapper = new ObjectMapper();
-        for (Map.Entry<String, Object> entry : updates.entrySet()) {
-            Optional.ofNullable(entry.getValue()).ifPresent(value -> {
-                switch (entry.getKey()) {
-                    case "name" -> existingPerson.setName((String) value);
-                    case "surname" -> existingPerson.setSurname((String) value);
-                    case "sex" -> existingPerson.setSex(Sex.valueOf((String) value));
-                    case "passportData" ->
-                            existingPerson.setPassportData(mapper.convertValue(value, PassportData.class));
-                    case "houseUuid" -> {
-                        UUID houseUuid = UUID.fromString((String) value);
-                        if (!houseUuid.equals(existingPerson.getHouse().getUuid())) {
-                            existingPerson.setHouse(houseDao.getHouseByUuid(houseUuid));
-                        }
-                    }
-                }
-            });
+    public void updatePersonFields(UUID uuid, Long expectedVersion, Map<String, Object> updates) {
+        Map<String, Object> values = PATCH_FIELDS.resolve(updates, validator);
+        if (values.isEmpty()) {
+            checkVersion(uuid, expectedVersion, getPersonVersion(uuid).getVersion());
+            return;
         }
-        personDao.updatePerson(existingPerson);
+        UUID houseUuid = (UUID) values.get(HOUSE);
+        if (houseUuid != null) {
+            values.put(HOUSE, houseIdResolver.findHouseId(houseUuid)
+                    .orElseThrow(() -> EntityNotFoundException.of(House.class, houseUuid)));
+            houseStatsService.markResidence(uuid);
+        }
+        PatchResultDto result = personDao.updatePersonFields(uuid, expectedVersion, PATCH_FIELDS.toColumns(values))
+                .orElseThrow(() -> EntityNotFoundException.of(Person.class, uuid));
+        if (!result.isUpdated()) {
+            checkVersion(uuid, expectedVersion, result.getVersion());
+            return;
+        }
+        if (houseUuid != null) {
+            houseStatsService.markHouses(List.of(houseUuid));
+        }
+        changeEventService.record(Person.class, uuid, ChangeOperation.UPDATE, values.keySet().stream()
+                .map(attribute -> HOUSE.equals(attribute) ? HOUSE_UUID : attribute)
+                .toList());
     }
 
     /**
-     * Получает список DTO домов, принадлежащих персоне по его UUID.
+     * Проверяет, что версия персоны, которая не была обновлена, совпадает с ожидаемой.
+     *
+     * @param uuid            UUID персоны.
+     * @param expectedVersion ожидаемая версия персоны или null, если версия не проверяется.
+     * @param currentVersion  текущая версия персоны.
+     * @throws EntityConflictException если версия персоны не совпадает с ожидаемой.
+     */
+    private static void checkVersion(UUID uuid, Long expectedVersion, long currentVersion) {
+        if (expectedVersion != null && currentVersion != expectedVersion) {
+            throw EntityConflictException.of(Person.class, uuid, expectedVersion, currentVersion);
+        }
+    }
+
+    /**
+     * Получает страницу DTO домов, принадлежащих персоне по ее UUID, с общим количеством домов.
      *
      * @param personUuid UUID персоны.
-     * @return Список DTO домов.
+     * @param sort       поле и направление сортировки или null для сортировки по порядку добавления.
+     * @param after      курсор последней записи предыдущей страницы или null для первой страницы.
+     * @param limit      размер страницы.
+     * @return Страница DTO домов.
+     * @throws EntityNotFoundException если персона не найдена.
      */
     @Transactional(readOnly = true)
     @Override
-    public List<HouseResponseDto> getOwnedHouses(UUID personUuid) {
+    public CursorPageDto<HouseResponseDto> getOwnedHouses(UUID personUuid, String sort, String after, int limit) {
         Optional.ofNullable(personUuid).orElseThrow(() -> new IllegalArgumentException("UUID cannot be null"));
-        List<House> houses = houseDao.getHousesByOwnerUuid(personUuid);
-        return houses.isEmpty() ? Collections.emptyList() : houses.stream().map(houseMapper::toDto).collect(toList());
+        CursorCodec.checkLimit(limit);
+        SortOrder order = SortOrder.parse(sort, Sort.HOUSE_FIELDS);
+        long personId = personDao.findPersonIdByUuid(personUuid)
+                .orElseThrow(() -> EntityNotFoundException.of(Person.class, personUuid));
+        CursorPageDto<HouseResponseDto> page = houseDao.getOwnedHousesPage(personId, order, after, limit);
+        page.setTotalCount(houseDao.countOwnedHouses(personId));
+        return page;
     }
 
     /**
@@ -194,38 +496,162 @@ public class PersonServiceImpl implements PersonService {
      *
      * @param person Сущность персоны для обновления.
      * @param dto    DTO с новыми данными персоны.
+     * @return true, если дом проживания изменился.
      */
-    private void updateHouse(Person person, PersonRequestDto dto) {
+    private boolean updateHouse(Person person, PersonRequestDto dto) {
         if (dto.getHouseUuid() != null && !dto.getHouseUuid().equals(person.getHouse().getUuid())) {
             House house = returnHouseResidentIfExist(dto);
             person.setHouse(house);
+            return true;
         }
+        return false;
     }
 
     /**
-     * Обновляет список домов, принадлежащих персоне, на основе DTO.
+     * Обновляет дома, принадлежащие персоне, на основе DTO.
+     * Текущие и запрошенные дома сравниваются как множества: добавляются только новые связи
+     * и удаляются только исключенные, коллекции владельцев домов не загружаются.
+     * Количество запросов зависит только от количества изменений.
      *
      * @param person Сущность персоны для обновления.
      * @param dto    DTO с новыми данными персоны.
+     * @return UUID домов, которыми персона начала или перестала владеть.
+     * @throws EntityNotFoundException со списком всех отсутствующих UUID, если часть домов не найдена.
      */
-    private void updateOwnedHouses(Person person, PersonRequestDto dto) {
-        if (dto.getOwnedHouseUuids() != null) {
-            List<UUID> dtoUuids = new ArrayList<>(dto.getOwnedHouseUuids());
-            List<UUID> entityUuids = person.getOwnedHouses().stream()
-                    .map(House::getUuid)
-                    .distinct()
-                    .toList();
-
-            if (!dtoUuids.equals(entityUuids)) {
-                List<House> listHouseOwners = getListHouseOwnersIfExist(dto);
-                person.setOwnedHouses(listHouseOwners);
-
-                for (House house : listHouseOwners) {
-                    house.getOwners().add(person);
-                    houseDao.saveHouse(house);
-                }
-            }
+    private Set<UUID> updateOwnedHouses(Person person, PersonRequestDto dto) {
+        if (dto.getOwnedHouseUuids() == null) {
+            return Set.of();
+        }
+        Set<UUID> requestedUuids = new LinkedHashSet<>(dto.getOwnedHouseUuids());
+        Map<UUID, Long> currentIds = person.getOwnedHouses().stream()
+                .collect(toMap(House::getUuid, House::getId, (first, second) -> first));
+
+        Set<UUID> addedUuids = requestedUuids.stream()
+                .filter(houseUuid -> !currentIds.containsKey(houseUuid))
+                .collect(toCollection(LinkedHashSet::new));
+        Map<UUID, Long> removedIds = currentIds.entrySet().stream()
+                .filter(entry -> !requestedUuids.contains(entry.getKey()))
+                .collect(toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+        Map<UUID, Long> addedIds = houseIdResolver.findHouseIds(addedUuids);
+        List<UUID> missingUuids = addedUuids.stream()
+                .filter(houseUuid -> !addedIds.containsKey(houseUuid))
+                .toList();
+        if (!missingUuids.isEmpty()) {
+            throw EntityNotFoundException.of(House.class, missingUuids);
+        }
+
+        houseDao.removeOwnerships(person.getId(), removedIds.values());
+        houseDao.addOwnerships(person.getId(), addedIds.values());
+        Set<UUID> changedUuids = new LinkedHashSet<>(addedUuids);
+        changedUuids.addAll(removedIds.keySet());
+        return changedUuids;
+    }
+
+    /**
+     * Создает персону по DTO и сохраняет ее без связей владения.
+     * Связи владения добавляются вызывающим кодом через HouseDao.addOwnerships после сброса персоны,
+     * коллекции владельцев домов при этом не загружаются.
+     *
+     * @param personDto DTO персоны.
+     * @param house     дом, в котором проживает персона.
+     * @return Сохраненная персона с присвоенным идентификатором.
+     */
+    private Person persistPerson(PersonRequestDto personDto, House house) {
+        Person mappedPerson = personMapper.toEntity(personDto);
+        if (mappedPerson.getUuid() == null) {
+            mappedPerson.setUuid(UUID.randomUUID());
+        }
+        mappedPerson.setHouse(house);
+        mappedPerson.setOwnedHouses(new ArrayList<>());
+
+        personDao.savePerson(mappedPerson);
+        changeEventService.record(Person.class, mappedPerson.getUuid(), ChangeOperation.CREATE, null);
+        return mappedPerson;
+    }
+
+    /**
+     * Определяет поля персоны, которые изменит обновление по DTO.
+     * Дом проживания и дома во владении сравниваются так же, как при обновлении: отсутствующие в DTO не меняются.
+     *
+     * @param person персона до обновления.
+     * @param dto    DTO с новыми данными персоны.
+     * @return Список измененных полей.
+     */
+    private ChangedFields getChanges(Person person, PersonRequestDto dto) {
+        UUID houseUuid = person.getHouse().getUuid();
+        Set<UUID> ownedHouseUuids = person.getOwnedHouses().stream()
+                .map(House::getUuid)
+                .collect(toSet());
+        return new ChangedFields()
+                .compare(NAME, person.getName(), dto.getName())
+                .compare(SURNAME, person.getSurname(), dto.getSurname())
+                .compare(SEX, person.getSex(), dto.getSex())
+                .compare(PASSPORT_SERIES, person.getPassportData().getPassportSeries(),
+                        dto.getPassportData().getPassportSeries())
+                .compare(PASSPORT_NUMBER, person.getPassportData().getPassportNumber(),
+                        dto.getPassportData().getPassportNumber())
+                .compare(HOUSE_UUID, houseUuid, Optional.ofNullable(dto.getHouseUuid()).orElse(houseUuid))
+                .compare(OWNED_HOUSE_UUIDS, ownedHouseUuids, Optional.ofNullable(dto.getOwnedHouseUuids())
+                        .<Set<UUID>>map(HashSet::new)
+                        .orElse(ownedHouseUuids));
+    }
+
+    /**
+     * Собирает UUID всех домов, на которые ссылаются DTO персон.
+     *
+     * @param personDtos список DTO персон.
+     * @return Множество UUID домов проживания и домов во владении.
+     */
+    private Set<UUID> getReferencedHouseUuids(List<PersonRequestDto> personDtos) {
+        return personDtos.stream()
+                .filter(Objects::nonNull)
+                .flatMap(dto -> Stream.concat(Stream.of(dto.getHouseUuid()),
+                        Optional.ofNullable(dto.getOwnedHouseUuids()).orElse(Collections.emptyList()).stream()))
+                .filter(Objects::nonNull)
+                .collect(toSet());
+    }
+
+    /**
+     * Проверяет и сохраняет один элемент пакетного запроса без выбрасывания исключений,
+     * чтобы ошибка элемента не помечала общую транзакцию на откат.
+     *
+     * @param personDto  DTO персоны.
+     * @param houseIds   идентификаторы домов, на которые ссылается порция запроса.
+     * @param ownerships связи владения порции по идентификатору персоны, добавляемые после сброса порции.
+     * @return Текст ошибки или null, если персона сохранена.
+     */
+    private String saveBatchItem(PersonRequestDto personDto, Map<UUID, Long> houseIds,
+                                 Map<Long, List<Long>> ownerships) {
+        if (personDto == null) {
+            return NULL_BATCH_ITEM;
+        }
+        Set<ConstraintViolation<PersonRequestDto>> violations = validator.validate(personDto);
+        if (!violations.isEmpty()) {
+            return Violations.format(violations);
+        }
+        if (personDto.getHouseUuid() == null) {
+            return HOUSE_UUID_REQUIRED;
+        }
+        Long houseId = houseIds.get(personDto.getHouseUuid());
+        if (houseId == null) {
+            return EntityNotFoundException.message(House.class, personDto.getHouseUuid());
+        }
+        List<UUID> ownedHouseUuids = Optional.ofNullable(personDto.getOwnedHouseUuids())
+                .orElse(Collections.emptyList()).stream()
+                .distinct()
+                .toList();
+        List<UUID> missingUuids = ownedHouseUuids.stream()
+                .filter(uuid -> !houseIds.containsKey(uuid))
+                .toList();
+        if (!missingUuids.isEmpty()) {
+            return EntityNotFoundException.message(House.class, missingUuids);
+        }
+        Person person = persistPerson(personDto, houseDao.getHouseReference(houseId));
+        if (!ownedHouseUuids.isEmpty()) {
+            ownerships.put(person.getId(), ownedHouseUuids.stream().map(houseIds::get).toList());
         }
+        return null;
     }
 
     /**
@@ -242,33 +668,33 @@ public class PersonServiceImpl implements PersonService {
     }
 
     /**
-     * Получает список сущностей домов, принадлежащих персоне, если они существуют.
+     * Получает идентификаторы домов, принадлежащих персоне, через HouseIdResolver без загрузки домов.
      *
      * @param personDto DTO персоны.
-     * @return Список сущностей домов.
+     * @return Идентификаторы домов во владении.
+     * @throws EntityNotFoundException со списком отсутствующих UUID, если часть домов не найдена.
      */
-    private List<House> getListHouseOwnersIfExist(PersonRequestDto personDto) {
+    private Collection<Long> getOwnedHouseIdsIfExist(PersonRequestDto personDto) {
         List<UUID> ownedHouseUuids = personDto.getOwnedHouseUuids();
         if (ownedHouseUuids == null || ownedHouseUuids.isEmpty()) {
-            return new ArrayList<>();
+            return List.of();
         }
-        return ownedHouseUuids.stream()
-                .map(uuid -> {
-                    House house = houseDao.getHouseByUuid(uuid);
-                    if (house == null) {
-                        throw EntityNotFoundException.of(House.class, uuid);
-                    }
-                    return house;
-                })
-                .distinct()
-                .collect(toList());
+        Set<UUID> requestedUuids = new LinkedHashSet<>(ownedHouseUuids);
+        Map<UUID, Long> houseIds = houseIdResolver.findHouseIds(requestedUuids);
+        List<UUID> missingUuids = requestedUuids.stream()
+                .filter(houseUuid -> !houseIds.containsKey(houseUuid))
+                .toList();
+        if (!missingUuids.isEmpty()) {
+            throw EntityNotFoundException.of(House.class, missingUuids);
+        }
+        return houseIds.values();
     }
 
     /**
-     * Возвращает сущность дома, в котором проживает персона, если она существует.
+     * Возвращает ссылку на дом, в котором проживает персона, если он существует.
      *
      * @param personDto DTO персоны.
-     * @return Сущность дома.
+     * @return Ссылка на дом.
      * @throws IllegalArgumentException если UUID отсутствует.
      * @throws EntityNotFoundException  если дом не найден.
      */
@@ -277,10 +703,54 @@ public class PersonServiceImpl implements PersonService {
         if (houseUuid == null) {
             throw new IllegalArgumentException("UUID обязателен");
         }
-        House houseResident = houseDao.getHouseByUuid(houseUuid);
-        if (houseResident == null) {
-            throw EntityNotFoundException.of(House.class, houseUuid);
+        return getHouseReference(houseUuid);
+    }
+
+    /**
+     * Получает ссылку на дом по UUID без загрузки дома: идентификатор берется из HouseIdResolver,
+     * а ссылка создается через getReference и не требует запроса, пока не читаются поля дома.
+     *
+     * @param houseUuid UUID дома.
+     * @return Ссылка на дом.
+     * @throws EntityNotFoundException если дом не найден.
+     */
+    private House getHouseReference(UUID houseUuid) {
+        return houseIdResolver.findHouseId(houseUuid)
+                .map(houseDao::getHouseReference)
+                .orElseThrow(() -> EntityNotFoundException.of(House.class, houseUuid));
+    }
+
+    /**
+     * Проверяет количество и длину слов поискового запроса.
+     *
+     * @param words         слова запроса.
+     * @param minWordLength минимальная длина слова.
+     * @return Слова запроса.
+     * @throws IllegalArgumentException если слов слишком много или какое-либо слово слишком короткое.
+     */
+    private static List<String> checkWords(List<String> words, int minWordLength) {
+        if (words.size() > MAX_WORDS) {
+            throw new IllegalArgumentException(String.format(SEARCH_QUERY_TOO_LONG, MAX_WORDS));
+        }
+        if (words.stream().anyMatch(word -> word.length() < minWordLength)) {
+            throw new IllegalArgumentException(String.format(SEARCH_QUERY_TOO_SHORT, minWordLength));
         }
-        return houseResident;
+        return words;
+    }
+
+    /**
+     * Получает общее количество персон, удовлетворяющих фильтру.
+     * Точное количество кэшируется на несколько секунд, если фильтр не задает границ диапазонов;
+     * приблизительное для списка без фильтра читается из статистики планировщика PostgreSQL,
+     * для списка с фильтром - совпадает с точным.
+     *
+     * @param filter фильтр персон.
+     * @param mode   режим подсчета: exact, approximate или none.
+     * @return Количество персон или null в режиме none.
+     * @throws IllegalArgumentException если режим подсчета неизвестен.
+     */
+    private Long countPersons(PersonFilterDto filter, String mode) {
+        return totalCounter.count(mode, filter, !filter.hasRange(), () -> personDao.countPersons(filter),
+                filter.isEmpty() ? personDao::estimatePersonCount : Optional::empty);
     }
 }
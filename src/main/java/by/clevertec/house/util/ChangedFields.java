@@ -0,0 +1,37 @@
+package by.clevertec.house.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Список имен полей, значения которых отличаются до и после изменения сущности.
+ * Используется для событий ленты изменений.
+ */
+public class ChangedFields {
+
+    private final List<String> names = new ArrayList<>();
+
+    /**
+     * Добавляет имя поля, если значения до и после изменения различаются.
+     *
+     * @param name   имя поля.
+     * @param before значение до изменения.
+     * @param after  значение после изменения.
+     * @return Этот же список.
+     */
+    public ChangedFields compare(String name, Object before, Object after) {
+        if (!Objects.equals(before, after)) {
+            names.add(name);
+        }
+        return this;
+    }
+
+    public List<String> names() {
+        return names;
+    }
+
+    public boolean isEmpty() {
+        return names.isEmpty();
+    }
+}
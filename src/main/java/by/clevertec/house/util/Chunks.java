@@ -0,0 +1,31 @@
+package by.clevertec.house.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Разбиение коллекций на порции.
+ * Используется для ограничения количества параметров в условии IN одного запроса.
+ */
+@UtilityClass
+public class Chunks {
+
+    public static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+
+    /**
+     * Разбивает список на последовательные подсписки заданного размера (последний может быть меньше).
+     *
+     * @param list исходный список.
+     * @param size размер порции.
+     * @param <T>  тип элементов.
+     * @return Список порций, являющихся представлениями исходного списка.
+     */
+    public static <T> List<List<T>> partition(List<T> list, int size) {
+        List<List<T>> chunks = new ArrayList<>((list.size() + size - 1) / size);
+        for (int from = 0; from < list.size(); from += size) {
+            chunks.add(list.subList(from, Math.min(from + size, list.size())));
+        }
+        return chunks;
+    }
+}
@@ -1,5 +1,6 @@
 package by.clevertec.house.util;
 
+import java.util.Set;
 import lombok.experimental.UtilityClass;
 
 @UtilityClass
@@ -12,6 +13,25 @@ public class Constant {
         public static final String INVALID_ARGUMENTS = "Invalid arguments provided";
         public static final String ENTITY_NOT_FOUND = "Entity not found";
         public static final String INTERNAL_SERVER_ERROR = "Internal server error";
+        public static final String NULL_BATCH_ITEM = "Batch item must not be null";
+        public static final String HOUSE_UUID_REQUIRED = "houseUuid is required";
+        public static final String ENTITY_CONFLICT = "Entity version conflict";
+        public static final String UNKNOWN_PATCH_FIELD = "Unknown fields: ";
+        public static final String INVALID_PATCH_VALUE = "Invalid value for field '%s': %s";
+        public static final String INVALID_ETAG = "Invalid If-Match header: ";
+        public static final String SEARCH_QUERY_TOO_SHORT = "Search query must contain words of at least %d characters";
+        public static final String SEARCH_QUERY_TOO_LONG = "Search query must contain at most %d words";
+        public static final String UNKNOWN_SEARCH_MODE = "Unknown search mode: ";
+        public static final String UNKNOWN_STATS_GROUP = "Unknown stats grouping: ";
+        public static final String MULTI_GET_TOO_LARGE = "At most %d UUIDs can be requested at once";
+        public static final String MULTI_GET_NULL_UUID = "UUID list must not contain null";
+        public static final String UNKNOWN_SORT_FIELD = "Unknown sort field: ";
+        public static final String UNKNOWN_SORT_DIRECTION = "Unknown sort direction: ";
+        public static final String HOUSE_HAS_RESIDENTS = "House with UUID %s has %d residents";
+        public static final String UNKNOWN_RESIDENTS_POLICY = "Unknown residents delete policy: ";
+        public static final String STREET_FILTER_REQUIRES_CITY = "Filter by street requires city";
+        public static final String INVALID_FILTER_RANGE = "Invalid %s range: %s is greater than %s";
+        public static final String UNKNOWN_COUNT_MODE = "Unknown count mode: ";
 
     }
 
@@ -23,6 +43,62 @@ public class Constant {
         public static final String CITY = "city";
         public static final String STREET = "street";
         public static final String NUMBER = "number";
+        public static final String NAME = "name";
+        public static final String SURNAME = "surname";
+        public static final String SEX = "sex";
+        public static final String PASSPORT_SERIES = "passportData.passportSeries";
+        public static final String PASSPORT_NUMBER = "passportData.passportNumber";
+        public static final String HOUSE_UUID = "houseUuid";
+        public static final String OWNED_HOUSE_UUIDS = "ownedHouseUuids";
+        public static final String HOUSE = "house";
+    }
+
+    @UtilityClass
+    public class Pagination {
+
+        public static final int MAX_LIMIT = 1000;
+    }
+
+    @UtilityClass
+    public class Search {
+
+        public static final String PREFIX = "prefix";
+        public static final String FUZZY = "fuzzy";
+        public static final int PREFIX_MIN_WORD_LENGTH = 3;
+        public static final int FUZZY_MIN_WORD_LENGTH = 3;
+        public static final int MAX_WORDS = 2;
+    }
+
+    @UtilityClass
+    public class Sort {
+
+        public static final String ID = "id";
+        public static final String NAME = "name";
+        public static final String SURNAME = "surname";
+        public static final String AREA = "area";
+        public static final String COUNTRY = "country";
+        public static final String CITY = "city";
+        public static final String CREATE_DATE = "createDate";
+        public static final String ASC = "asc";
+        public static final String DESC = "desc";
+        public static final Set<String> PERSON_FIELDS = Set.of(ID, NAME, SURNAME, CREATE_DATE);
+        public static final Set<String> PERSON_LIST_FIELDS = Set.of(ID, CREATE_DATE);
+        public static final Set<String> HOUSE_FIELDS = Set.of(ID, AREA, COUNTRY, CITY, CREATE_DATE);
+    }
+
+    @UtilityClass
+    public class CountMode {
+
+        public static final String EXACT = "exact";
+        public static final String APPROXIMATE = "approximate";
+        public static final String NONE = "none";
+    }
+
+    @UtilityClass
+    public class StatsGroup {
+
+        public static final String COUNTRY = "country";
+        public static final String CITY = "city";
     }
 
 }
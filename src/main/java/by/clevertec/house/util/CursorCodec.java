@@ -0,0 +1,120 @@
+package by.clevertec.house.util;
+
+import static by.clevertec.house.util.Constant.Pagination.MAX_LIMIT;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import lombok.Value;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Кодирование курсоров для постраничной выборки по ключу (keyset pagination).
+ * Курсор непрозрачен для клиента и содержит внутренний идентификатор последней записи страницы,
+ * а при сортировке по другому полю - еще и значение этого поля.
+ */
+@UtilityClass
+public class CursorCodec {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * Кодирует идентификатор в курсор.
+     *
+     * @param id идентификатор последней записи страницы.
+     * @return Строка курсора.
+     */
+    public static String encode(long id) {
+        return ENCODER.encodeToString(ByteBuffer.allocate(Long.BYTES).putLong(id).array());
+    }
+
+    /**
+     * Кодирует идентификатор и ключ сортировки в курсор.
+     *
+     * @param id  идентификатор последней записи страницы.
+     * @param key значение поля сортировки последней записи страницы.
+     * @return Строка курсора.
+     */
+    public static String encode(long id, String key) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(ByteBuffer.allocate(Long.BYTES + keyBytes.length)
+                .putLong(id)
+                .put(keyBytes)
+                .array());
+    }
+
+    /**
+     * Декодирует курсор, возвращая 0 для первой страницы.
+     *
+     * @param cursor строка курсора или null.
+     * @return Идентификатор последней записи предыдущей страницы либо 0.
+     */
+    public static long decodeOrZero(String cursor) {
+        return cursor == null || cursor.isEmpty() ? 0 : decode(cursor);
+    }
+
+    /**
+     * Проверяет размер страницы.
+     *
+     * @param limit размер страницы.
+     * @throws IllegalArgumentException если размер страницы вне допустимого диапазона.
+     */
+    public static void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+    }
+
+    /**
+     * Декодирует курсор в идентификатор.
+     *
+     * @param cursor строка курсора.
+     * @return Идентификатор последней записи предыдущей страницы.
+     * @throws IllegalArgumentException если курсор поврежден.
+     */
+    public static long decode(String cursor) {
+        byte[] bytes = decodeBytes(cursor);
+        if (bytes.length != Long.BYTES) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        return ByteBuffer.wrap(bytes).getLong();
+    }
+
+    /**
+     * Декодирует курсор в идентификатор и ключ сортировки.
+     *
+     * @param cursor строка курсора.
+     * @return Идентификатор и ключ сортировки последней записи предыдущей страницы;
+     *         ключ равен null, если курсор содержит только идентификатор.
+     * @throws IllegalArgumentException если курсор поврежден.
+     */
+    public static Key decodeKey(String cursor) {
+        byte[] bytes = decodeBytes(cursor);
+        if (bytes.length < Long.BYTES) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        String key = bytes.length == Long.BYTES
+                ? null
+                : new String(bytes, Long.BYTES, bytes.length - Long.BYTES, StandardCharsets.UTF_8);
+        return new Key(ByteBuffer.wrap(bytes).getLong(), key);
+    }
+
+    private static byte[] decodeBytes(String cursor) {
+        try {
+            return DECODER.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    /**
+     * Содержимое курсора с ключом сортировки.
+     */
+    @Value
+    public static class Key {
+
+        long id;
+        String value;
+    }
+}
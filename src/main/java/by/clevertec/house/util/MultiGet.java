@@ -0,0 +1,64 @@
+package by.clevertec.house.util;
+
+import static by.clevertec.house.util.Constant.ErrorMessages.MULTI_GET_NULL_UUID;
+import static by.clevertec.house.util.Constant.ErrorMessages.MULTI_GET_TOO_LARGE;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
+
+import by.clevertec.house.dto.MultiGetResultDto;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Проверка запросов и сборка ответов получения сущностей по списку UUID.
+ */
+@UtilityClass
+public class MultiGet {
+
+    /**
+     * Проверяет список UUID и возвращает его без повторов в исходном порядке.
+     *
+     * @param uuids   запрошенные UUID.
+     * @param maxSize максимальное количество UUID в запросе.
+     * @return Список различных UUID.
+     * @throws IllegalArgumentException если список содержит null или длиннее maxSize.
+     */
+    public static List<UUID> distinct(List<UUID> uuids, int maxSize) {
+        if (uuids.size() > maxSize) {
+            throw new IllegalArgumentException(String.format(MULTI_GET_TOO_LARGE, maxSize));
+        }
+        if (uuids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException(MULTI_GET_NULL_UUID);
+        }
+        return new ArrayList<>(new LinkedHashSet<>(uuids));
+    }
+
+    /**
+     * Раскладывает найденные DTO в порядке запроса и собирает UUID, для которых сущность не найдена.
+     *
+     * @param uuids  различные запрошенные UUID.
+     * @param found  найденные DTO в произвольном порядке.
+     * @param uuidOf функция получения UUID из DTO.
+     * @param <T>    тип DTO.
+     * @return Результат получения по списку UUID.
+     */
+    public static <T> MultiGetResultDto<T> result(List<UUID> uuids, List<T> found, Function<T, UUID> uuidOf) {
+        Map<UUID, T> byUuid = found.stream().collect(toMap(uuidOf, identity()));
+        MultiGetResultDto<T> result = new MultiGetResultDto<>();
+        for (UUID uuid : uuids) {
+            T dto = byUuid.get(uuid);
+            if (dto != null) {
+                result.getFound().add(dto);
+            } else {
+                result.getMissing().add(uuid);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,77 @@
+package by.clevertec.house.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Потоковая запись объектов в формате NDJSON (по одному JSON-объекту на строку).
+ * Буфер генератора сбрасывается в выходной поток каждые flush-interval строк.
+ */
+@Component
+public class NdjsonWriter {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter objectWriter;
+
+    @Value("${export.flush-interval:500}")
+    private int flushInterval;
+
+    public NdjsonWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Записывает в выходной поток все объекты, переданные источником.
+     *
+     * @param outputStream выходной поток.
+     * @param source       источник, передающий объекты в полученный потребитель.
+     * @param <T>          тип записываемых объектов.
+     * @throws UncheckedIOException при ошибке записи.
+     */
+    public <T> void write(OutputStream outputStream, Consumer<Consumer<T>> source) {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setPrettyPrinter(new MinimalPrettyPrinter(""));
+            source.accept(new LineWriter<>(generator));
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Потребитель, записывающий каждый объект отдельной строкой.
+     */
+    private class LineWriter<T> implements Consumer<T> {
+
+        private final JsonGenerator generator;
+        private long written;
+
+        LineWriter(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        @Override
+        public void accept(T value) {
+            try {
+                objectWriter.writeValue(generator, value);
+                generator.writeRaw('\n');
+                if (++written % flushInterval == 0) {
+                    generator.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
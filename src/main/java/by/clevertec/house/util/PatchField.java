@@ -0,0 +1,22 @@
+package by.clevertec.house.util;
+
+import java.util.function.Function;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Поле, доступное для частичного обновления (PATCH).
+ * Связывает имя поля в теле запроса с атрибутом сущности, столбцом таблицы, преобразователем значения
+ * и свойством DTO запроса, ограничения которого применяются к значению.
+ */
+@Getter
+@RequiredArgsConstructor
+public class PatchField {
+
+    private final String name;
+    private final String attribute;
+    private final String column;
+    private final Function<Object, Object> converter;
+    private final Class<?> constrainedType;
+    private final String constrainedProperty;
+}
@@ -0,0 +1,124 @@
+package by.clevertec.house.util;
+
+import static by.clevertec.house.util.Constant.ErrorMessages.INVALID_PATCH_VALUE;
+import static by.clevertec.house.util.Constant.ErrorMessages.UNKNOWN_PATCH_FIELD;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Реестр полей сущности, доступных для частичного обновления.
+ * Заполняется один раз при создании сервиса; порядок регистрации полей задает порядок столбцов
+ * в SET, поэтому одинаковые наборы полей дают одинаковый текст запроса.
+ */
+public class PatchRegistry {
+
+    private static final String NESTED_SEPARATOR = ".";
+
+    private final Map<String, PatchField> fields = new LinkedHashMap<>();
+    private final Map<String, String> columns = new LinkedHashMap<>();
+
+    /**
+     * Регистрирует поле, имя которого совпадает с атрибутом сущности, столбцом и свойством DTO запроса.
+     *
+     * @param name            имя поля.
+     * @param converter       преобразователь значения из JSON в тип атрибута.
+     * @param constrainedType класс DTO запроса с ограничениями поля.
+     * @return этот реестр.
+     */
+    public PatchRegistry register(String name, Function<Object, Object> converter, Class<?> constrainedType) {
+        return register(name, name, name, converter, constrainedType, name);
+    }
+
+    /**
+     * Регистрирует поле. Вложенные поля задаются именем вида parent.child.
+     *
+     * @param name                имя поля в теле запроса.
+     * @param attribute           путь атрибута сущности.
+     * @param column              столбец таблицы сущности.
+     * @param converter           преобразователь значения из JSON в тип атрибута.
+     * @param constrainedType     класс DTO запроса с ограничениями поля или null, если проверка не нужна.
+     * @param constrainedProperty свойство DTO запроса с ограничениями поля.
+     * @return этот реестр.
+     */
+    public PatchRegistry register(String name, String attribute, String column, Function<Object, Object> converter,
+                                  Class<?> constrainedType, String constrainedProperty) {
+        fields.put(name, new PatchField(name, attribute, column, converter, constrainedType, constrainedProperty));
+        columns.put(attribute, column);
+        return this;
+    }
+
+    /**
+     * Преобразует тело PATCH-запроса в значения атрибутов сущности.
+     * Вложенные объекты раскрываются в поля вида parent.child, поля со значением null пропускаются.
+     *
+     * @param updates   тело запроса.
+     * @param validator валидатор ограничений DTO запроса.
+     * @return Значения атрибутов в порядке регистрации полей.
+     * @throws IllegalArgumentException     если поле неизвестно или значение не преобразуется к типу атрибута.
+     * @throws ConstraintViolationException если значение нарушает ограничения DTO запроса.
+     */
+    public Map<String, Object> resolve(Map<String, Object> updates, Validator validator) {
+        Map<String, Object> flat = new LinkedHashMap<>();
+        flatten("", updates, flat);
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        Set<ConstraintViolation<?>> violations = new HashSet<>();
+        for (PatchField field : fields.values()) {
+            Object raw = flat.remove(field.getName());
+            if (raw == null) {
+                continue;
+            }
+            Object value = convert(field, raw);
+            if (field.getConstrainedType() != null) {
+                violations.addAll(validator.validateValue(field.getConstrainedType(), field.getConstrainedProperty(), value));
+            }
+            values.put(field.getAttribute(), value);
+        }
+        if (!flat.isEmpty()) {
+            throw new IllegalArgumentException(UNKNOWN_PATCH_FIELD + flat.keySet());
+        }
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(Violations.format(violations), violations);
+        }
+        return values;
+    }
+
+    /**
+     * Сопоставляет значения атрибутов столбцам таблицы. Перечисления записываются по имени.
+     *
+     * @param values значения атрибутов, полученные из {@link #resolve(Map, Validator)}.
+     * @return Значения столбцов в порядке регистрации полей.
+     */
+    public Map<String, Object> toColumns(Map<String, Object> values) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        values.forEach((attribute, value) ->
+                result.put(columns.get(attribute), value instanceof Enum<?> constant ? constant.name() : value));
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void flatten(String prefix, Map<String, Object> source, Map<String, Object> target) {
+        source.forEach((key, value) -> {
+            if (value instanceof Map<?, ?> nested) {
+                flatten(prefix + key + NESTED_SEPARATOR, (Map<String, Object>) nested, target);
+            } else {
+                target.put(prefix + key, value);
+            }
+        });
+    }
+
+    private static Object convert(PatchField field, Object raw) {
+        try {
+            return field.getConverter().apply(raw);
+        } catch (ClassCastException | IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format(INVALID_PATCH_VALUE, field.getName(), raw), e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package by.clevertec.house.util;
+
+import static by.clevertec.house.util.Constant.ErrorMessages.INVALID_FILTER_RANGE;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Проверка диапазонов фильтров списков.
+ */
+@UtilityClass
+public class Ranges {
+
+    /**
+     * Проверяет, что нижняя граница диапазона не больше верхней. Незаданные границы не проверяются.
+     *
+     * @param name имя фильтруемого поля.
+     * @param from нижняя граница или null.
+     * @param to   верхняя граница или null.
+     * @param <T>  тип значений диапазона.
+     * @throws IllegalArgumentException если нижняя граница больше верхней.
+     */
+    public static <T extends Comparable<? super T>> void check(String name, T from, T to) {
+        if (from != null && to != null && from.compareTo(to) > 0) {
+            throw new IllegalArgumentException(String.format(INVALID_FILTER_RANGE, name, from, to));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package by.clevertec.house.util;
+
+import static by.clevertec.house.util.Constant.ErrorMessages.UNKNOWN_RESIDENTS_POLICY;
+
+import java.util.Arrays;
+
+/**
+ * Политика обработки жильцов при удалении дома.
+ */
+public enum ResidentsPolicy {
+
+    /**
+     * Удаление дома с жильцами запрещено.
+     */
+    REJECT("reject"),
+
+    /**
+     * Жильцы удаляются вместе с домом.
+     */
+    CASCADE("cascade");
+
+    private final String value;
+
+    ResidentsPolicy(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Возвращает политику по ее значению в application.yml.
+     *
+     * @param value значение параметра houses.delete.residents.
+     * @return Политика обработки жильцов.
+     * @throws IllegalArgumentException если значение неизвестно.
+     */
+    public static ResidentsPolicy of(String value) {
+        return Arrays.stream(values())
+                .filter(policy -> policy.value.equalsIgnoreCase(value.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(UNKNOWN_RESIDENTS_POLICY + value));
+    }
+}
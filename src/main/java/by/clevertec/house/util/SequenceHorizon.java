@@ -0,0 +1,92 @@
+package by.clevertec.house.util;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Граница ленты изменений: наибольший номер события, до которого включительно каждый номер либо принадлежит
+ * зафиксированному событию, либо больше не может появиться.
+ * Номера событий выдаются последовательностью без блокировки, поэтому транзакция с меньшим номером может
+ * зафиксироваться позже транзакции с большим, и в видимых номерах остаются пропуски. Пропуск запоминается
+ * вместе с xmax снимка, в котором впервые виден больший номер: транзакция, получившая пропущенный номер,
+ * получила свой номер транзакции раньше и поэтому меньше этого xmax. Когда xmin более позднего снимка
+ * достигает запомненного xmax, такая транзакция завершена, и невидимый номер принадлежит откаченной транзакции.
+ * Класс не потокобезопасен.
+ */
+public class SequenceHorizon {
+
+    private static final long UNKNOWN = -1L;
+
+    private final Map<Long, Long> gaps = new HashMap<>();
+    private long horizon = UNKNOWN;
+    private long startSequence = UNKNOWN;
+    private long startXmax;
+
+    public boolean isStarted() {
+        return startSequence != UNKNOWN;
+    }
+
+    /**
+     * Запоминает последний видимый номер и xmax снимка при первом обращении. Номера до него включительно
+     * становятся границей, когда завершатся все транзакции, начатые до этого снимка.
+     *
+     * @param lastSequence последний видимый номер события или 0.
+     * @param xmax         xmax снимка, в котором прочитан номер.
+     */
+    public void start(long lastSequence, long xmax) {
+        startSequence = lastSequence;
+        startXmax = xmax;
+    }
+
+    /**
+     * Возвращает номер, после которого нужно читать видимые номера для продвижения границы.
+     * Пока граница не установлена, это начальный номер: события до него не отдаются,
+     * но с него может начинаться подписка без начальной позиции.
+     *
+     * @return Граница или начальный номер, если граница еще не установлена.
+     */
+    public long frontier() {
+        return horizon == UNKNOWN ? startSequence : horizon;
+    }
+
+    public boolean isKnown() {
+        return horizon != UNKNOWN;
+    }
+
+    /**
+     * Продвигает границу по видимым номерам, прочитанным после {@link #frontier()} в одном снимке.
+     *
+     * @param sequences видимые номера в порядке возрастания.
+     * @param xmin      xmin снимка.
+     * @param xmax      xmax снимка.
+     * @return true, если граница дошла до последнего из переданных номеров.
+     */
+    public boolean advance(List<Long> sequences, long xmin, long xmax) {
+        if (horizon == UNKNOWN) {
+            if (xmin < startXmax) {
+                return false;
+            }
+            horizon = startSequence;
+        }
+        long expected = horizon + 1;
+        for (long sequence : sequences) {
+            for (long gap = expected; gap < sequence; gap++) {
+                gaps.putIfAbsent(gap, xmax);
+            }
+            expected = sequence + 1;
+        }
+        for (long sequence : sequences) {
+            while (horizon + 1 < sequence) {
+                Long gapXmax = gaps.get(horizon + 1);
+                if (gapXmax == null || xmin < gapXmax) {
+                    return false;
+                }
+                gaps.remove(++horizon);
+            }
+            gaps.remove(sequence);
+            horizon = sequence;
+        }
+        return true;
+    }
+}
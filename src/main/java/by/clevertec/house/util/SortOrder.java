@@ -0,0 +1,48 @@
+package by.clevertec.house.util;
+
+import static by.clevertec.house.util.Constant.ErrorMessages.UNKNOWN_SORT_DIRECTION;
+import static by.clevertec.house.util.Constant.ErrorMessages.UNKNOWN_SORT_FIELD;
+
+import by.clevertec.house.util.Constant.Sort;
+import java.util.Set;
+import lombok.Value;
+
+/**
+ * Порядок сортировки постраничной выборки: поле и направление.
+ * Задается параметром запроса вида "surname" или "surname,desc".
+ */
+@Value
+public class SortOrder {
+
+    /**
+     * Сортировка по внутреннему идентификатору в порядке добавления записей.
+     */
+    public static final SortOrder BY_ID = new SortOrder(Sort.ID, false);
+
+    String field;
+    boolean descending;
+
+    /**
+     * Разбирает параметр сортировки, проверяя поле по списку разрешенных.
+     *
+     * @param sort   параметр сортировки или null для сортировки по идентификатору.
+     * @param fields разрешенные поля сортировки.
+     * @return Порядок сортировки.
+     * @throws IllegalArgumentException если поле или направление сортировки неизвестны.
+     */
+    public static SortOrder parse(String sort, Set<String> fields) {
+        if (sort == null || sort.isBlank()) {
+            return BY_ID;
+        }
+        int comma = sort.indexOf(',');
+        String field = (comma < 0 ? sort : sort.substring(0, comma)).trim();
+        String direction = comma < 0 ? Sort.ASC : sort.substring(comma + 1).trim().toLowerCase();
+        if (!fields.contains(field)) {
+            throw new IllegalArgumentException(UNKNOWN_SORT_FIELD + field);
+        }
+        if (!Sort.ASC.equals(direction) && !Sort.DESC.equals(direction)) {
+            throw new IllegalArgumentException(UNKNOWN_SORT_DIRECTION + direction);
+        }
+        return new SortOrder(field, Sort.DESC.equals(direction));
+    }
+}
@@ -0,0 +1,64 @@
+package by.clevertec.house.util;
+
+import static by.clevertec.house.util.Constant.ErrorMessages.UNKNOWN_COUNT_MODE;
+
+import by.clevertec.house.util.Constant.CountMode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Общее количество записей списка для заголовка X-Total-Count.
+ * Точное количество кэшируется по фильтру на counts.exact.expire-after-write секунд, поэтому повторные запросы
+ * страниц того же списка не выполняют count(*) заново; одновременные запросы с одним фильтром ждут один подсчет.
+ * Фильтры с произвольными значениями (границами диапазонов) не кэшируются: такие ключи почти не повторяются
+ * и только вытесняли бы из кэша количества списков, которые запрашиваются постоянно.
+ * Подсчет выполняется в потоке и транзакции вызывающего метода сервиса.
+ * Приблизительное количество берется из статистики планировщика и не читает таблицу.
+ */
+@Component
+public class TotalCounter {
+
+    private final Cache<Object, Long> exactCounts;
+
+    public TotalCounter(@Value("${counts.exact.expire-after-write:5}") long expireAfterWrite,
+                        @Value("${counts.exact.maximum-size:1000}") long maximumSize) {
+        this.exactCounts = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(expireAfterWrite))
+                .build();
+    }
+
+    /**
+     * Получает общее количество записей в заданном режиме.
+     * В режиме approximate, если оценка недоступна (выборка с фильтром или таблица еще не анализировалась),
+     * возвращается точное количество из кэша.
+     *
+     * @param mode      режим подсчета: exact, approximate или none.
+     * @param filter    фильтр выборки; используется как ключ кэша, поэтому должен реализовывать equals и hashCode.
+     * @param cacheable true, если точное количество по фильтру можно кэшировать.
+     * @param exact     точный подсчет записей, удовлетворяющих фильтру.
+     * @param estimate  оценка количества записей или пустой Optional, если оценка неприменима.
+     * @return Количество записей или null в режиме none.
+     * @throws IllegalArgumentException если режим подсчета неизвестен.
+     */
+    public Long count(String mode, Object filter, boolean cacheable, LongSupplier exact,
+                      Supplier<Optional<Long>> estimate) {
+        return switch (mode) {
+            case CountMode.EXACT -> exact(filter, cacheable, exact);
+            case CountMode.APPROXIMATE -> estimate.get()
+                    .orElseGet(() -> exact(filter, cacheable, exact));
+            case CountMode.NONE -> null;
+            default -> throw new IllegalArgumentException(UNKNOWN_COUNT_MODE + mode);
+        };
+    }
+
+    private Long exact(Object filter, boolean cacheable, LongSupplier exact) {
+        return cacheable ? exactCounts.get(filter, key -> exact.getAsLong()) : exact.getAsLong();
+    }
+}
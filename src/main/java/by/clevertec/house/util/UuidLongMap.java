@@ -0,0 +1,169 @@
+package by.clevertec.house.util;
+
+import java.util.UUID;
+
+/**
+ * Хеш-таблица с открытой адресацией UUID -> положительное long-значение.
+ * Ключ хранится двумя половинами UUID в массивах long, значение - в третьем массиве, поэтому записи
+ * не создают объектов UUID и Long: около 48 байт на запись при заполнении таблицы наполовину.
+ * Коллизии разрешаются линейным пробированием, удаление сдвигает следующие записи цепочки назад без меток удаления.
+ * Класс не потокобезопасен.
+ */
+public class UuidLongMap {
+
+    /**
+     * Значение, возвращаемое для отсутствующего ключа.
+     */
+    public static final long MISSING = -1L;
+
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private long[] mostBits;
+    private long[] leastBits;
+    private long[] values;
+    private int mask;
+    private int size;
+
+    public UuidLongMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Получает значение по ключу.
+     *
+     * @param uuid ключ.
+     * @return Значение или {@link #MISSING}, если ключ отсутствует.
+     */
+    public long get(UUID uuid) {
+        long most = uuid.getMostSignificantBits();
+        long least = uuid.getLeastSignificantBits();
+        for (int slot = slot(most, least); values[slot] != 0; slot = (slot + 1) & mask) {
+            if (mostBits[slot] == most && leastBits[slot] == least) {
+                return values[slot];
+            }
+        }
+        return MISSING;
+    }
+
+    /**
+     * Добавляет или заменяет значение по ключу.
+     *
+     * @param uuid  ключ.
+     * @param value положительное значение.
+     * @throws IllegalArgumentException если значение не положительное.
+     */
+    public void put(UUID uuid, long value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException("Value must be positive: " + value);
+        }
+        if (insert(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), value)
+                && size > (mask + 1) / 2) {
+            resize();
+        }
+    }
+
+    /**
+     * Удаляет ключ. Записи той же цепочки пробирования, стоящие после удаленной,
+     * сдвигаются на освободившееся место, если их начальная ячейка это допускает.
+     *
+     * @param uuid ключ.
+     */
+    public void remove(UUID uuid) {
+        long most = uuid.getMostSignificantBits();
+        long least = uuid.getLeastSignificantBits();
+        int gap = slot(most, least);
+        while (values[gap] != 0 && (mostBits[gap] != most || leastBits[gap] != least)) {
+            gap = (gap + 1) & mask;
+        }
+        if (values[gap] == 0) {
+            return;
+        }
+        for (int next = (gap + 1) & mask; values[next] != 0; next = (next + 1) & mask) {
+            int home = slot(mostBits[next], leastBits[next]);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                mostBits[gap] = mostBits[next];
+                leastBits[gap] = leastBits[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        values[gap] = 0;
+        size--;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Вставляет запись или заменяет значение существующей.
+     *
+     * @return true, если добавлена новая запись.
+     */
+    private boolean insert(long most, long least, long value) {
+        int slot = slot(most, least);
+        while (values[slot] != 0) {
+            if (mostBits[slot] == most && leastBits[slot] == least) {
+                values[slot] = value;
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        mostBits[slot] = most;
+        leastBits[slot] = least;
+        values[slot] = value;
+        size++;
+        return true;
+    }
+
+    private void resize() {
+        if (mask + 1 == MAX_CAPACITY) {
+            throw new IllegalStateException("UuidLongMap capacity exceeded: " + size);
+        }
+        long[] oldMostBits = mostBits;
+        long[] oldLeastBits = leastBits;
+        long[] oldValues = values;
+        allocate((mask + 1) * 2);
+        size = 0;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != 0) {
+                insert(oldMostBits[i], oldLeastBits[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        mostBits = new long[capacity];
+        leastBits = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    private int slot(long most, long least) {
+        return slot(most, least, mask);
+    }
+
+    /**
+     * Начальная ячейка ключа: перемешивание обеих половин UUID финализатором MurmurHash3.
+     *
+     * @param most  старшая половина UUID.
+     * @param least младшая половина UUID.
+     * @param mask  маска таблицы: емкость минус один.
+     * @return Номер ячейки.
+     */
+    static int slot(long most, long least, int mask) {
+        long hash = most * 31 + least;
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return (int) (hash ^ (hash >>> 33)) & mask;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long capacity = MIN_CAPACITY;
+        while (capacity < 2L * expectedSize && capacity < MAX_CAPACITY) {
+            capacity <<= 1;
+        }
+        return (int) capacity;
+    }
+}
@@ -0,0 +1,25 @@
+package by.clevertec.house.util;
+
+import jakarta.validation.ConstraintViolation;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Форматирование нарушений ограничений валидации в текст ошибки.
+ */
+@UtilityClass
+public class Violations {
+
+    /**
+     * Объединяет нарушения в одну строку вида "поле: сообщение, поле: сообщение".
+     *
+     * @param violations нарушения ограничений.
+     * @return Текст ошибки.
+     */
+    public static String format(Set<? extends ConstraintViolation<?>> violations) {
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.joining(", "));
+    }
+}
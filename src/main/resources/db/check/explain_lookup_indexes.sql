@@ -0,0 +1,96 @@
+-- Проверка того, что запросы DAO используют индексы из V1_1_3__add_lookup_indexes.sql
+-- и V1_1_9__add_residents_keyset_index.sql, V1_1_10__add_list_filter_indexes.sql.
+-- Запуск: psql -d house -f explain_lookup_indexes.sql
+-- Последовательное сканирование отключается, чтобы на небольших таблицах планировщик показал,
+-- может ли запрос вообще использовать индекс. В каждом плане должен присутствовать указанный индекс,
+-- а не Seq Scan по проверяемой таблице.
+
+BEGIN;
+SET LOCAL enable_seqscan = off;
+
+-- PersonDaoImpl.getPersonByUuid -> ux_persons_uuid
+EXPLAIN
+SELECT p.*
+FROM persons p
+WHERE p.uuid = '00000000-0000-0000-0000-000000000000';
+
+-- PersonDaoImpl.getResidentsPage (сортировка по id) -> ix_persons_house_id_id
+EXPLAIN
+SELECT p.uuid, p.name, p.surname, p.sex, p.passport_series, p.passport_number, p.create_date, p.update_date, p.id
+FROM persons p
+WHERE p.house_id = 1
+  AND p.id > 0
+ORDER BY p.id
+LIMIT 16;
+
+-- PersonDaoImpl.countResidents -> ix_persons_house_id_id (Index Only Scan)
+EXPLAIN
+SELECT count(p.id)
+FROM persons p
+WHERE p.house_id = 1;
+
+-- HouseDaoImpl.getOwnedHousesPage (сортировка по id) -> ix_house_owner_owner_id_house_id
+EXPLAIN
+SELECT h.uuid, h.area, h.country, h.city, h.street, h.number, h.create_date, h.id
+FROM persons o
+         JOIN house_owner ho ON o.id = ho.owner_id
+         JOIN houses h ON h.id = ho.house_id
+WHERE o.id = 1
+  AND h.id > 0
+ORDER BY h.id
+LIMIT 16;
+
+-- HouseDaoImpl.countOwnedHouses -> ix_house_owner_owner_id_house_id (Index Only Scan)
+EXPLAIN
+SELECT count(*)
+FROM house_owner
+WHERE owner_id = 1;
+
+-- HouseDaoImpl.findHouses (country, city, street) -> ix_houses_country_city_street
+EXPLAIN
+SELECT h.uuid, h.area, h.country, h.city, h.street, h.number, h.create_date, h.id
+FROM houses h
+WHERE h.country = 'Belarus'
+  AND h.city = 'Minsk'
+  AND h.street = 'Lenina'
+ORDER BY h.id
+LIMIT 16;
+
+-- HouseDaoImpl.findHouses (диапазон площади, сортировка по площади) -> ix_houses_area_id
+EXPLAIN
+SELECT h.uuid, h.area, h.country, h.city, h.street, h.number, h.create_date, h.id, h.area
+FROM houses h
+WHERE h.area >= 50
+  AND h.area <= 100
+ORDER BY h.area DESC, h.id DESC
+LIMIT 16;
+
+-- HouseDaoImpl.findHouses, следующая страница по курсору (area, id) -> Index Cond по ix_houses_area_id
+-- начинается с h.area >= 75, а не с начала индекса
+EXPLAIN
+SELECT h.uuid, h.area, h.country, h.city, h.street, h.number, h.create_date, h.id, h.area
+FROM houses h
+WHERE h.area >= 75
+  AND (h.area > 75 OR (h.area = 75 AND h.id > 1000))
+ORDER BY h.area, h.id
+LIMIT 16;
+
+-- PersonDaoImpl.findPersons (пол) -> ix_persons_sex_id
+EXPLAIN
+SELECT p.uuid, p.name, p.surname, p.sex, p.passport_series, p.passport_number, p.create_date, p.update_date, p.id
+FROM persons p
+WHERE p.sex = 'MALE'
+  AND p.id > 0
+ORDER BY p.id
+LIMIT 16;
+
+-- PersonDaoImpl.findPersons (диапазон даты создания) -> ix_persons_create_date_id
+EXPLAIN
+SELECT p.uuid, p.name, p.surname, p.sex, p.passport_series, p.passport_number, p.create_date, p.update_date, p.id
+FROM persons p
+WHERE p.create_date >= '2024-01-01'
+  AND p.create_date < '2024-02-01'
+ORDER BY p.id
+LIMIT 16;
+
+ROLLBACK;
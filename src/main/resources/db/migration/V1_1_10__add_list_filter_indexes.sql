@@ -0,0 +1,36 @@
+-- Индексы для фильтров и сортировок списков GET /houses и GET /persons
+-- (HouseDaoImpl.findHouses, PersonDaoImpl.findPersons). Каждое разрешенное условие фильтра
+-- и каждое поле сортировки является ведущим столбцом одного из индексов, поэтому любая комбинация
+-- условий читается по индексу (или объединению индексов), а не полным сканированием таблицы.
+-- Создаются CONCURRENTLY, поэтому миграция выполняется вне транзакции
+-- (см. V1_1_10__add_list_filter_indexes.sql.conf).
+
+-- country; country + city; country + city + street; сортировка по country.
+-- Заменяет ix_houses_country_city, который является его префиксом.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_houses_country_city_street
+    ON houses (country, city, street);
+
+DROP INDEX CONCURRENTLY IF EXISTS ix_houses_country_city;
+
+-- city; city + street (фильтр по улице допускается только вместе с городом); сортировка по city.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_houses_city_street
+    ON houses (city, street);
+
+-- Диапазон и сортировка по площади и по дате создания домов и персон. Идентификатор - второй столбец:
+-- курсор страницы - пара (значение поля, id), поэтому при равных значениях поля порядок по id
+-- тоже берется из индекса, а граница k >= :afterKey задает начало диапазона чтения (Keyset).
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_houses_area_id
+    ON houses (area, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_houses_create_date_id
+    ON houses (create_date, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_persons_create_date_id
+    ON persons (create_date, id);
+
+-- Пол с выборкой страницы в порядке идентификаторов: у пола всего два значения,
+-- поэтому без идентификатора в индексе страница потребовала бы сортировки половины таблицы.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_persons_sex_id
+    ON persons (sex, id);
+
+-- Фильтр по дому использует уникальный индекс houses (uuid) и ix_persons_house_id_id.
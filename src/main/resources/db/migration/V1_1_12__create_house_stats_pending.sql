@@ -0,0 +1,13 @@
+-- Города, отмеченные для пересчета сводной статистики house_city_stats.
+-- Строки добавляются в транзакции изменения домов или персон непосредственно перед ее фиксацией
+-- и откатываются вместе с ней. Фоновый пересчет HouseStatsServiceImpl пересчитывает город и удаляет
+-- прочитанные строки в одной транзакции, поэтому отметка не теряется ни при ошибке пересчета,
+-- ни при остановке приложения: оставшиеся строки пересчитываются после запуска.
+
+create table if not exists house_stats_pending
+(
+    id      bigserial
+        primary key,
+    country varchar(255) not null,
+    city    varchar(255) not null
+);
@@ -0,0 +1,19 @@
+-- Последовательности с шагом 50 для pooled-оптимизатора Hibernate: позволяют выделять идентификаторы
+-- пачками и включают пакетную вставку (при IDENTITY Hibernate отключает JDBC batching).
+CREATE SEQUENCE IF NOT EXISTS houses_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS persons_seq INCREMENT BY 50;
+
+-- Первое значение последовательности - верхняя граница первого выделенного диапазона
+SELECT setval('houses_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM houses), false);
+SELECT setval('persons_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM persons), false);
+
+ALTER TABLE houses
+    ALTER COLUMN id SET DEFAULT nextval('houses_seq');
+ALTER TABLE persons
+    ALTER COLUMN id SET DEFAULT nextval('persons_seq');
+
+ALTER SEQUENCE houses_seq OWNED BY houses.id;
+ALTER SEQUENCE persons_seq OWNED BY persons.id;
+
+DROP SEQUENCE IF EXISTS houses_id_seq;
+DROP SEQUENCE IF EXISTS persons_id_seq;
@@ -0,0 +1,15 @@
+-- Индексы для поиска персоны по UUID, жильцов дома и домов владельца.
+-- Создаются CONCURRENTLY, чтобы не блокировать запись в таблицы рабочей базы;
+-- поэтому миграция выполняется вне транзакции (см. V1_1_3__add_lookup_indexes.sql.conf).
+
+-- PersonDaoImpl.getPersonByUuid (поиск по естественному идентификатору)
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS ux_persons_uuid
+    ON persons (uuid);
+
+-- House.residents, PersonDaoImpl.getResidentsByHouseUuid
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_persons_house_id
+    ON persons (house_id);
+
+-- HouseDaoImpl.getHousesByOwnerUuid: первичный ключ (house_id, owner_id) не позволяет искать по owner_id
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_house_owner_owner_id_house_id
+    ON house_owner (owner_id, house_id);
@@ -0,0 +1,15 @@
+-- Версия строки для оптимистичной блокировки и ETag. Добавление столбца с константным значением
+-- по умолчанию не переписывает таблицу (PostgreSQL 11+).
+ALTER TABLE houses
+    ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE persons
+    ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Дата последнего изменения дома для заголовка Last-Modified, для существующих строк равна дате создания
+ALTER TABLE houses
+    ADD COLUMN IF NOT EXISTS update_date TIMESTAMP(6);
+UPDATE houses
+SET update_date = create_date
+WHERE update_date IS NULL;
+ALTER TABLE houses
+    ALTER COLUMN update_date SET NOT NULL;
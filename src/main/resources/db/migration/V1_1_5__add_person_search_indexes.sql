@@ -0,0 +1,20 @@
+-- Индексы для поиска персон по имени и фамилии (GET /persons/search).
+-- Создаются CONCURRENTLY, чтобы не блокировать запись в таблицу рабочей базы;
+-- поэтому миграция выполняется вне транзакции (см. V1_1_5__add_person_search_indexes.sql.conf).
+-- Точный поиск по паспорту использует существующее ограничение unique (passport_series, passport_number).
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- PersonDaoImpl.searchPersonsByPrefix: lower(...) LIKE 'abc%' при любой сортировке базы данных
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_persons_name_lower_pattern
+    ON persons (lower(name) text_pattern_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_persons_surname_lower_pattern
+    ON persons (lower(surname) text_pattern_ops);
+
+-- PersonDaoImpl.searchPersonsBySimilarity: оператор сходства триграмм lower(...) % 'abc'
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_persons_name_lower_trgm
+    ON persons USING gin (lower(name) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_persons_surname_lower_trgm
+    ON persons USING gin (lower(surname) gin_trgm_ops);
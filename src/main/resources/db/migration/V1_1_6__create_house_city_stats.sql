@@ -0,0 +1,24 @@
+-- Сводная статистика домов по городам для GET /houses/stats.
+-- Строка города пересчитывается HouseStatsDaoImpl.refreshLocation после фиксации изменений
+-- домов этого города, их жильцов и владельцев; статистика по странам суммируется из нее при чтении.
+-- owner_count - количество связей владения дом-персона.
+
+create table if not exists house_city_stats
+(
+    country        varchar(255)     not null,
+    city           varchar(255)     not null,
+    house_count    bigint           not null,
+    total_area     double precision not null,
+    resident_count bigint           not null,
+    owner_count    bigint           not null,
+    update_date    timestamp(6)     not null,
+    primary key (country, city)
+);
+
+insert into house_city_stats (country, city, house_count, total_area, resident_count, owner_count, update_date)
+select h.country, h.city, count(*), sum(h.area), sum(r.residents), sum(o.owners), localtimestamp
+from houses h
+         cross join lateral (select count(*) as residents from persons p where p.house_id = h.id) r
+         cross join lateral (select count(*) as owners from house_owner ho where ho.house_id = h.id) o
+group by h.country, h.city
+on conflict (country, city) do nothing;
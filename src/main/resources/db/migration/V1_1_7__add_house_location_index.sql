@@ -0,0 +1,6 @@
+-- Индекс для пересчета статистики одного города (HouseStatsDaoImpl.refreshLocation).
+-- Создается CONCURRENTLY, поэтому миграция выполняется вне транзакции
+-- (см. V1_1_7__add_house_location_index.sql.conf).
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_houses_country_city
+    ON houses (country, city);
@@ -0,0 +1,18 @@
+-- Таблица исходящих событий (outbox) для ленты изменений GET /changes и GET /changes/stream.
+-- События записываются в транзакции изменения дома или персоны непосредственно перед ее фиксацией;
+-- id выдается последовательностью без блокировки, поэтому транзакция с меньшим id может зафиксироваться
+-- позже транзакции с большим, а id откаченных транзакций остаются пропусками. Лента отдает события
+-- только до границы SequenceHorizon: пропуск закрывается, когда xmin снимка достигает xmax снимка,
+-- в котором пропуск впервые виден, то есть когда транзакция, получившая пропущенный id, уже завершена.
+
+create table if not exists change_events
+(
+    id             bigserial
+        primary key,
+    entity_type    varchar(255)  not null,
+    entity_uuid    uuid          not null,
+    operation      varchar(255)  not null,
+    changed_fields varchar(1024),
+    entity_version bigint,
+    create_date    timestamp(6)  not null
+);
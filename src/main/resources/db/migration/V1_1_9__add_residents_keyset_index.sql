@@ -0,0 +1,11 @@
+-- Индекс для постраничной выборки жильцов дома по курсору (PersonDaoImpl.getResidentsPage, countResidents):
+-- диапазон (house_id, id > :afterId) читается из индекса в порядке идентификаторов без сортировки,
+-- количество жильцов считается сканированием только индекса.
+-- Индекс ix_persons_house_id является его префиксом и удаляется.
+-- Создается CONCURRENTLY, поэтому миграция выполняется вне транзакции
+-- (см. V1_1_9__add_residents_keyset_index.sql.conf).
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_persons_house_id_id
+    ON persons (house_id, id);
+
+DROP INDEX CONCURRENTLY IF EXISTS ix_persons_house_id;
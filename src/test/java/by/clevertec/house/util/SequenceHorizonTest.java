@@ -0,0 +1,92 @@
+package by.clevertec.house.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SequenceHorizonTest {
+
+    private final SequenceHorizon horizon = new SequenceHorizon();
+
+    @Test
+    void advanceShouldWaitUntilTransactionsStartedBeforeStartSnapshotFinish() {
+        horizon.start(10, 100);
+
+        assertFalse(horizon.advance(List.of(11L), 99, 105));
+        assertFalse(horizon.isKnown());
+        assertEquals(10, horizon.frontier());
+
+        assertTrue(horizon.advance(List.of(11L), 100, 105));
+        assertTrue(horizon.isKnown());
+        assertEquals(11, horizon.frontier());
+    }
+
+    @Test
+    void advanceShouldMoveThroughContiguousSequences() {
+        horizon.start(0, 1);
+
+        assertTrue(horizon.advance(List.of(1L, 2L, 3L), 5, 6));
+        assertEquals(3, horizon.frontier());
+
+        assertTrue(horizon.advance(List.of(), 6, 7));
+        assertEquals(3, horizon.frontier());
+    }
+
+    @Test
+    void advanceShouldStopBeforeGapWhileXminIsBelowXmaxOfSnapshotThatFirstSawIt() {
+        horizon.start(0, 1);
+
+        assertFalse(horizon.advance(List.of(1L, 3L, 4L), 5, 10));
+        assertEquals(1, horizon.frontier());
+
+        assertFalse(horizon.advance(List.of(3L, 4L), 9, 12));
+        assertEquals(1, horizon.frontier());
+    }
+
+    @Test
+    void advanceShouldSkipGapOnceXminReachesXmaxOfSnapshotThatFirstSawIt() {
+        horizon.start(0, 1);
+        assertFalse(horizon.advance(List.of(1L, 3L), 5, 10));
+
+        assertTrue(horizon.advance(List.of(3L), 10, 12));
+        assertEquals(3, horizon.frontier());
+    }
+
+    @Test
+    void advanceShouldKeepXmaxOfFirstSnapshotForGap() {
+        horizon.start(0, 1);
+        assertFalse(horizon.advance(List.of(1L, 3L), 5, 10));
+        assertFalse(horizon.advance(List.of(3L), 6, 20));
+
+        assertTrue(horizon.advance(List.of(3L), 10, 25));
+        assertEquals(3, horizon.frontier());
+    }
+
+    @Test
+    void advanceShouldPassGapFilledByLateCommit() {
+        horizon.start(0, 1);
+        assertFalse(horizon.advance(List.of(1L, 3L), 5, 10));
+
+        assertTrue(horizon.advance(List.of(2L, 3L), 6, 10));
+        assertEquals(3, horizon.frontier());
+
+        assertFalse(horizon.advance(List.of(5L), 7, 30));
+        assertEquals(3, horizon.frontier());
+        assertTrue(horizon.advance(List.of(5L), 30, 31));
+        assertEquals(5, horizon.frontier());
+    }
+
+    @Test
+    void advanceShouldRecordEveryMissingSequenceOfWideGap() {
+        horizon.start(0, 1);
+        assertFalse(horizon.advance(List.of(4L), 5, 10));
+        assertFalse(horizon.advance(List.of(3L, 4L), 6, 10));
+        assertEquals(0, horizon.frontier());
+
+        assertTrue(horizon.advance(List.of(3L, 4L), 10, 11));
+        assertEquals(4, horizon.frontier());
+    }
+}
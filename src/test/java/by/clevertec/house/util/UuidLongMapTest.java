@@ -0,0 +1,166 @@
+package by.clevertec.house.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class UuidLongMapTest {
+
+    private static final int CAPACITY = 16;
+    private static final int MASK = CAPACITY - 1;
+
+    private final Random random = new Random(42);
+    private final Set<UUID> used = new HashSet<>();
+    private final UuidLongMap map = new UuidLongMap(CAPACITY / 2);
+
+    @Test
+    void getShouldReturnMissingForAbsentKey() {
+        assertEquals(UuidLongMap.MISSING, map.get(UUID.randomUUID()));
+    }
+
+    @Test
+    void putShouldRejectNonPositiveValue() {
+        UUID key = UUID.randomUUID();
+
+        assertThrows(IllegalArgumentException.class, () -> map.put(key, 0));
+        assertThrows(IllegalArgumentException.class, () -> map.put(key, -5));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    void putShouldReplaceValueOfExistingKeyWithoutGrowing() {
+        UUID first = keyWithSlot(3);
+        UUID second = keyWithSlot(3);
+        map.put(first, 1);
+        map.put(second, 2);
+
+        map.put(second, 20);
+        map.put(first, 10);
+
+        assertEquals(10, map.get(first));
+        assertEquals(20, map.get(second));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void putShouldWrapProbeChainAroundEndOfArray() {
+        UUID last = keyWithSlot(MASK);
+        UUID wrapped = keyWithSlot(MASK);
+        UUID wrappedTwice = keyWithSlot(MASK);
+
+        map.put(last, 1);
+        map.put(wrapped, 2);
+        map.put(wrappedTwice, 3);
+
+        assertEquals(1, map.get(last));
+        assertEquals(2, map.get(wrapped));
+        assertEquals(3, map.get(wrappedTwice));
+    }
+
+    @Test
+    void removeShouldShiftEntriesBackAcrossEndOfArray() {
+        UUID last = keyWithSlot(MASK);
+        UUID wrapped = keyWithSlot(MASK);
+        UUID first = keyWithSlot(0);
+        map.put(last, 1);
+        map.put(wrapped, 2);
+        map.put(first, 3);
+
+        map.remove(last);
+
+        assertEquals(UuidLongMap.MISSING, map.get(last));
+        assertEquals(2, map.get(wrapped));
+        assertEquals(3, map.get(first));
+        assertEquals(2, map.size());
+
+        map.remove(wrapped);
+
+        assertEquals(3, map.get(first));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void removeShouldKeepChainReachableWhenDeletingFromMiddle() {
+        UUID head = keyWithSlot(5);
+        UUID middle = keyWithSlot(5);
+        UUID neighbour = keyWithSlot(6);
+        UUID tail = keyWithSlot(5);
+        UUID atHome = keyWithSlot(9);
+        map.put(head, 1);
+        map.put(middle, 2);
+        map.put(neighbour, 3);
+        map.put(tail, 4);
+        map.put(atHome, 5);
+
+        map.remove(middle);
+
+        assertEquals(1, map.get(head));
+        assertEquals(UuidLongMap.MISSING, map.get(middle));
+        assertEquals(3, map.get(neighbour));
+        assertEquals(4, map.get(tail));
+        assertEquals(5, map.get(atHome));
+        assertEquals(4, map.size());
+
+        map.put(middle, 6);
+
+        assertEquals(6, map.get(middle));
+        assertEquals(5, map.size());
+    }
+
+    @Test
+    void removeShouldIgnoreAbsentKey() {
+        UUID present = keyWithSlot(7);
+        map.put(present, 1);
+
+        map.remove(keyWithSlot(7));
+        map.remove(keyWithSlot(8));
+
+        assertEquals(1, map.get(present));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void putShouldResizeAndKeepAllEntries() {
+        UuidLongMap small = new UuidLongMap(1);
+        List<UUID> keys = new ArrayList<>();
+        for (int i = 1; i <= 1000; i++) {
+            UUID key = new UUID(random.nextLong(), random.nextLong());
+            keys.add(key);
+            small.put(key, i);
+        }
+
+        assertEquals(1000, small.size());
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(i + 1, small.get(keys.get(i)));
+        }
+
+        for (int i = 0; i < keys.size(); i += 2) {
+            small.remove(keys.get(i));
+        }
+
+        assertEquals(500, small.size());
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(i % 2 == 0 ? UuidLongMap.MISSING : i + 1, small.get(keys.get(i)));
+        }
+    }
+
+    /**
+     * Подбирает новый ключ с заданной начальной ячейкой в таблице емкостью {@value #CAPACITY}.
+     */
+    private UUID keyWithSlot(int slot) {
+        while (true) {
+            UUID key = new UUID(random.nextLong(), random.nextLong());
+            if (UuidLongMap.slot(key.getMostSignificantBits(), key.getLeastSignificantBits(), MASK) == slot
+                    && used.add(key)) {
+                return key;
+            }
+        }
+    }
+}